@@ -1,10 +1,18 @@
 package com._6.ems.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.util.List;
 
+import com._6.ems.dto.request.AttendancePolicyRequest;
 import com._6.ems.dto.response.*;
+import com._6.ems.enums.ExportFormat;
+import com._6.ems.helper.AttendancePolicyProvider;
+import com._6.ems.record.AttendancePolicy;
 import com._6.ems.utils.SecurityUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,9 +21,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com._6.ems.service.AttendanceImportService;
+import com._6.ems.service.AttendanceRecomputeService;
 import com._6.ems.service.AttendanceService;
 
 @RestController
@@ -25,7 +40,12 @@ import com._6.ems.service.AttendanceService;
 @Slf4j
 public class AttendanceController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     AttendanceService attendanceService;
+    AttendancePolicyProvider attendancePolicyProvider;
+    AttendanceImportService attendanceImportService;
+    AttendanceRecomputeService attendanceRecomputeService;
 
     @Operation(
         summary = "Check in current user",
@@ -43,7 +63,7 @@ public class AttendanceController {
     @Operation(
         summary = "Check out current user",
         description = "Sets the check-out time for today's attendance record, " +
-                "computes work hours and updates salary counters."
+                "computes work hours and schedules the salary counters for recalculation."
     )
     @PostMapping("/checkOut")
     public ApiResponse<AttendanceRecordResponse> checkOut() {
@@ -54,6 +74,40 @@ public class AttendanceController {
                 .build();
     }
 
+    @GetMapping("/policy")
+    @Operation(
+        summary = "Get the attendance policy",
+        description = "Returns the shift start, lunch break, work hour thresholds and penalty rates currently in force."
+    )
+    public ResponseEntity<ApiResponse<AttendancePolicy>> getPolicy() {
+        return ResponseEntity.ok(ApiResponse.success(attendancePolicyProvider.get()));
+    }
+
+    @PutMapping("/policy")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Update the attendance policy",
+        description = "Replaces the given fields of the attendance policy without a restart. " +
+                "Applies to check-ins, check-outs and salary calculations from now on; " +
+                "the configured values are restored on restart."
+    )
+    public ResponseEntity<ApiResponse<AttendancePolicy>> updatePolicy(@RequestBody AttendancePolicyRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(attendancePolicyProvider.update(request)));
+    }
+
+    @PostMapping(value = "/imports", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Import badge-reader punches",
+        description = "Streams a CSV punch log (personnel_code,timestamp per line, further columns ignored; " +
+                "timestamps without an offset are Asia/Ho_Chi_Minh time) and pairs the first and last punch of " +
+                "each personnel and work date into its attendance record, with the same late, work hour and " +
+                "classification rules as check-in/check-out. Re-importing the same file changes nothing."
+    )
+    public ResponseEntity<ApiResponse<AttendanceImportResponse>> importPunches(InputStream body) throws IOException {
+        return ResponseEntity.ok(ApiResponse.success(attendanceImportService.importPunches(body)));
+    }
+
     @GetMapping("/today/status")
     public ResponseEntity<ApiResponse<AttendanceStatusResponse>> getCurrentUserAttendance() {
         String personnelCode = SecurityUtil.getCurrentUserCode();
@@ -91,6 +145,16 @@ public class AttendanceController {
                 .build();
     }
 
+    @GetMapping(value = "/today/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Live check-in/check-out list of all employees today",
+        description = "Server-sent events: a 'snapshot' event with the same list as /today, " +
+                "then a 'delta' event with the changed records after every check-in or check-out."
+    )
+    public SseEmitter streamTodayAttendance() {
+        return attendanceService.subscribeTodayAttendance();
+    }
+
     @GetMapping("/month")
     @Operation(
         summary = "Get detail check-in/check-out list of all employees by month",
@@ -138,6 +202,41 @@ public class AttendanceController {
         return attendanceService.getAllRecordsByDateOrInterval(start, end);
     }
 
+    @GetMapping("/records/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Export attendance records by date or interval",
+        description = "Streams all employees' attendance records between the given start and end dates (inclusive) " +
+                "as NDJSON (one record per line) or CSV, ordered by employee code and check-in time."
+    )
+    public ResponseEntity<StreamingResponseBody> exportRecordsByDateOrInterval(
+            @Parameter(description = "2025-01-01", required = true) @RequestParam LocalDate start,
+            @Parameter(description = "2025-12-31", required = true) @RequestParam LocalDate end,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+
+        if (end.isBefore(start)) throw new IllegalArgumentException("end must be >= start");
+
+        return export(start, end, format, "attendance-" + start + "-" + end);
+    }
+
+    @GetMapping("/month/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Export attendance records of a month",
+        description = "Streams all attendance records for the specified month and year as NDJSON or CSV."
+    )
+    public ResponseEntity<StreamingResponseBody> exportRecordsByMonthAndYear(
+            @Parameter(description = "1..12") @RequestParam int month,
+            @Parameter(example = "2025") @RequestParam int year,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+
+        if (month < 1 || month > 12) throw new IllegalArgumentException("month must be 1..12");
+
+        LocalDate start = LocalDate.of(year, month, 1);
+        LocalDate end = start.withDayOfMonth(start.lengthOfMonth());
+        return export(start, end, format, "attendance-" + YearMonth.of(year, month));
+    }
+
     @GetMapping("/employee/{code}")
     @Operation(
             summary = "Get all records for one employee",
@@ -171,6 +270,69 @@ public class AttendanceController {
                 .build();
     }
 
+    @GetMapping("/records/page")
+    @Operation(
+        summary = "Page through all attendance records by date or interval",
+        description = "Keyset-paginated variant of /records, ordered by date then employee code. " +
+                "Pass the returned nextCursor as cursor to fetch the next page."
+    )
+    public ApiResponse<ApiCursorResponse<AttendanceRecordResponse>> getRecordPageByDateOrInterval(
+            @Parameter(description = "2025-01-01", required = true) @RequestParam LocalDate start,
+            @Parameter(description = "2025-12-31", required = true) @RequestParam LocalDate end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        if (end.isBefore(start)) throw new IllegalArgumentException("end must be >= start");
+        if (size < 1 || size > MAX_PAGE_SIZE) throw new IllegalArgumentException("size must be 1.." + MAX_PAGE_SIZE);
+
+        var result = attendanceService.getRecordPageByDateOrInterval(start, end, cursor, size);
+        return ApiResponse.<ApiCursorResponse<AttendanceRecordResponse>>builder()
+                .result(result)
+                .message("Fetched records page")
+                .build();
+    }
+
+    @GetMapping("/employee/{code}/page")
+    @Operation(
+            summary = "Page through all records for one employee",
+            description = "Keyset-paginated variant of /employee/{code}, newest first."
+    )
+    public ApiResponse<ApiCursorResponse<AttendanceRecordResponse>> getRecordPageByEmployeeCode(
+            @PathVariable String code,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        if (size < 1 || size > MAX_PAGE_SIZE) throw new IllegalArgumentException("size must be 1.." + MAX_PAGE_SIZE);
+
+        var result = attendanceService.getRecordPageByEmployeeCode(code, cursor, size);
+        return ApiResponse.<ApiCursorResponse<AttendanceRecordResponse>>builder()
+                .result(result)
+                .message("Fetched records page by employee")
+                .build();
+    }
+
+    @GetMapping("/employee/{code}/range/page")
+    @Operation(
+            summary = "Page through records for one employee between two dates",
+            description = "Keyset-paginated variant of /employee/{code}/range, newest first."
+    )
+    public ApiResponse<ApiCursorResponse<AttendanceRecordResponse>> getRecordPageByEmployeeCodeBetween(
+            @PathVariable String code,
+            @Parameter(description = "2025-01-01", required = true) @RequestParam LocalDate start,
+            @Parameter(description = "2025-12-31", required = true) @RequestParam LocalDate end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        if (end.isBefore(start)) throw new IllegalArgumentException("end must be >= start");
+        if (size < 1 || size > MAX_PAGE_SIZE) throw new IllegalArgumentException("size must be 1.." + MAX_PAGE_SIZE);
+
+        var result = attendanceService.getRecordPageByEmployeeCodeInterval(code, start, end, cursor, size);
+        return ApiResponse.<ApiCursorResponse<AttendanceRecordResponse>>builder()
+                .result(result)
+                .message("Fetched records page in range")
+                .build();
+    }
+
     @GetMapping("/overview")
     @Operation(
         summary = "Get monthly overview for current user",
@@ -205,21 +367,52 @@ public class AttendanceController {
                 .build());
     }
 
-//    @GetMapping("/sync")
-//    @Operation(
-//            summary = "Synchronize data",
-//            description = "Synchronize data of a specific month."
-//    )
-//    public ApiResponse<String> SyncData(
-//            @Parameter(description = "2025-01-01", required = true) @RequestParam LocalDate start,
-//            @Parameter(description = "2025-12-31", required = true) @RequestParam LocalDate end) {
-//
-//        int records = attendanceService.syncBetween(start, end);
-//
-//        return ApiResponse.<String>builder()
-//                .code(200)
-//                .message("Number of sync records = " + records)
-//                .result("Synchronize data successfully")
-//                .build();
-//    }
+    @PostMapping("/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Recompute attendance of a date range",
+        description = "Re-derives lateness, work hours and classification of every checked-in record between " +
+                "start and end (inclusive) with the current shifts and policy, in the background. Monthly " +
+                "aggregates follow and the affected salaries are recalculated. Returns the run to poll."
+    )
+    public ResponseEntity<ApiResponse<AttendanceRecomputeRunResponse>> startRecompute(
+            @Parameter(description = "2025-01-01", required = true) @RequestParam LocalDate start,
+            @Parameter(description = "2025-12-31", required = true) @RequestParam LocalDate end) {
+
+        if (end.isBefore(start)) throw new IllegalArgumentException("end must be >= start");
+
+        return ResponseEntity.accepted().body(ApiResponse.success(attendanceRecomputeService.start(start, end)));
+    }
+
+    @PostMapping("/recompute/{id}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Resume a failed recompute",
+        description = "Continues a failed recompute run after its last committed chunk."
+    )
+    public ResponseEntity<ApiResponse<AttendanceRecomputeRunResponse>> resumeRecompute(@PathVariable String id) {
+        return ResponseEntity.accepted().body(ApiResponse.success(attendanceRecomputeService.resume(id)));
+    }
+
+    @GetMapping("/recompute/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Get recompute progress",
+        description = "Returns the progress, number of changed records and throughput of a recompute run."
+    )
+    public ResponseEntity<ApiResponse<AttendanceRecomputeRunResponse>> getRecompute(@PathVariable String id) {
+        return ResponseEntity.ok(ApiResponse.success(attendanceRecomputeService.getRun(id)));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(LocalDate start, LocalDate end,
+                                                         ExportFormat format, String fileName) {
+        boolean csv = format == ExportFormat.CSV;
+        StreamingResponseBody body = out -> attendanceService.exportRecords(start, end, format, out);
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
 }
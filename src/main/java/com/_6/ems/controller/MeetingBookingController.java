@@ -2,9 +2,12 @@ package com._6.ems.controller;
 
 import com._6.ems.dto.request.BookingRequest;
 import com._6.ems.dto.request.CancelReason;
+import com._6.ems.dto.request.FreeWindowRequest;
 import com._6.ems.dto.response.ApiResponse;
+import com._6.ems.dto.response.FreeWindowResponse;
 import com._6.ems.dto.response.MeetingBookingResponse;
 import com._6.ems.service.MeetingBookingService;
+import com._6.ems.service.MeetingFreeBusyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -18,10 +21,13 @@ import java.util.List;
 public class MeetingBookingController {
 
     private final MeetingBookingService bookingService;
+    private final MeetingFreeBusyService freeBusyService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<MeetingBookingResponse>> createBooking(
             @Valid @RequestBody BookingRequest request) {
+        if (!request.getEndTime().isAfter(request.getStartTime()))
+            throw new IllegalArgumentException("endTime must be after startTime");
         MeetingBookingResponse booking = bookingService.createBooking(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(booking));
     }
@@ -38,6 +44,16 @@ public class MeetingBookingController {
         return ResponseEntity.ok(ApiResponse.success(bookings));
     }
 
+    @PostMapping("/free-windows")
+    public ResponseEntity<ApiResponse<List<FreeWindowResponse>>> findCommonFreeWindows(
+            @Valid @RequestBody FreeWindowRequest request) {
+        if (!request.getEndTime().isAfter(request.getStartTime()))
+            throw new IllegalArgumentException("endTime must be after startTime");
+        List<FreeWindowResponse> windows = freeBusyService.findCommonFreeWindows(request.getAttendeeCodes(),
+                request.getStartTime(), request.getEndTime(), request.getMinDurationMinutes() * 60L);
+        return ResponseEntity.ok(ApiResponse.success(windows));
+    }
+
     @GetMapping
     public ApiResponse<List<MeetingBookingResponse>> getAllBookings() {
         return ApiResponse.<List<MeetingBookingResponse>>builder()
@@ -49,6 +65,8 @@ public class MeetingBookingController {
     public ApiResponse<MeetingBookingResponse> updateBooking(
             @PathVariable Long id,
             @RequestBody @Valid BookingRequest request) {
+        if (!request.getEndTime().isAfter(request.getStartTime()))
+            throw new IllegalArgumentException("endTime must be after startTime");
         return ApiResponse.<MeetingBookingResponse>builder()
                 .result(bookingService.updateBooking(id, request))
                 .build();
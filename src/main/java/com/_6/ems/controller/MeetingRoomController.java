@@ -1,9 +1,12 @@
 package com._6.ems.controller;
 
 import com._6.ems.dto.request.MeetingRoomRequest;
+import com._6.ems.dto.request.RoomSuggestionRequest;
 import com._6.ems.dto.response.ApiResponse;
 import com._6.ems.dto.response.MeetingRoomResponse;
+import com._6.ems.dto.response.RoomSuggestionResponse;
 import com._6.ems.service.MeetingRoomService;
+import com._6.ems.service.RoomSuggestionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,7 +20,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MeetingRoomController {
 
+    private static final int MAX_SUGGESTION_DAYS = 56;
+
     private final MeetingRoomService roomService;
+    private final RoomSuggestionService roomSuggestionService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<MeetingRoomResponse>>> getAllRooms() {
@@ -40,6 +46,16 @@ public class MeetingRoomController {
         return ResponseEntity.ok(ApiResponse.success(rooms));
     }
 
+    @PostMapping("/suggestions")
+    public ResponseEntity<ApiResponse<List<RoomSuggestionResponse>>> suggestRooms(
+            @RequestBody @Valid RoomSuggestionRequest request) {
+        if (!request.getLatestEnd().isAfter(request.getEarliestStart()))
+            throw new IllegalArgumentException("latestEnd must be after earliestStart");
+        if (request.getLatestEnd().isAfter(request.getEarliestStart().plusDays(MAX_SUGGESTION_DAYS)))
+            throw new IllegalArgumentException("search window must not exceed " + MAX_SUGGESTION_DAYS + " days");
+        return ResponseEntity.ok(ApiResponse.success(roomSuggestionService.suggest(request)));
+    }
+
     @PostMapping("/admin/rooms")
     @PreAuthorize("hasRole('ADMIN')")
     public ApiResponse<MeetingRoomResponse> createRoom(
@@ -0,0 +1,67 @@
+package com._6.ems.controller;
+
+import com._6.ems.dto.request.CancelReason;
+import com._6.ems.dto.request.MeetingSeriesRequest;
+import com._6.ems.dto.response.ApiResponse;
+import com._6.ems.dto.response.MeetingSeriesResponse;
+import com._6.ems.service.MeetingSeriesService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/bookings/series")
+@RequiredArgsConstructor
+public class MeetingSeriesController {
+
+    private final MeetingSeriesService seriesService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<MeetingSeriesResponse>> createSeries(
+            @Valid @RequestBody MeetingSeriesRequest request) {
+        MeetingSeriesResponse series = seriesService.createSeries(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(series));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<MeetingSeriesResponse>> getSeriesById(
+            @PathVariable Long id,
+            @RequestParam(required = false) OffsetDateTime from,
+            @RequestParam(required = false) OffsetDateTime to) {
+        if (from != null && to != null && !to.isAfter(from)) throw new IllegalArgumentException("to must be after from");
+        MeetingSeriesResponse series = seriesService.getSeriesById(id, from, to);
+        return ResponseEntity.ok(ApiResponse.success(series));
+    }
+
+    @GetMapping("/my-series")
+    public ResponseEntity<ApiResponse<List<MeetingSeriesResponse>>> getMySeries() {
+        List<MeetingSeriesResponse> series = seriesService.getMySeries();
+        return ResponseEntity.ok(ApiResponse.success(series));
+    }
+
+    @DeleteMapping("/{id}/occurrences/{date}")
+    public ApiResponse<MeetingSeriesResponse> cancelOccurrence(
+            @PathVariable Long id,
+            @PathVariable LocalDate date,
+            @RequestBody CancelReason cancelReason) {
+        return ApiResponse.<MeetingSeriesResponse>builder()
+                .result(seriesService.cancelOccurrence(id, date, cancelReason.getReason()))
+                .build();
+    }
+
+    @DeleteMapping("/{id}")
+    public ApiResponse<Void> deleteSeries(
+            @PathVariable Long id,
+            @RequestBody CancelReason cancelReason) {
+        seriesService.deleteSeries(id, cancelReason.getReason());
+        return ApiResponse.<Void>builder()
+                .message("Meeting series deleted successfully")
+                .build();
+    }
+}
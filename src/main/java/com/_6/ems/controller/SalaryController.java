@@ -1,6 +1,8 @@
 package com._6.ems.controller;
+import com._6.ems.dto.request.PayrollSimulationRequest;
 import com._6.ems.dto.request.SalaryUpdateRequest;
 import com._6.ems.dto.response.*;
+import com._6.ems.enums.SalarySummaryScope;
 import com._6.ems.utils.SecurityUtil;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
@@ -10,11 +12,20 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com._6.ems.service.PayrollRunService;
+import com._6.ems.service.PayslipService;
 import com._6.ems.service.SalaryService;
+import com._6.ems.service.SalarySummaryService;
+
+import java.time.YearMonth;
+import java.util.List;
 
 @RestController
 @RequestMapping("/salary")
@@ -22,6 +33,9 @@ import com._6.ems.service.SalaryService;
 @RequiredArgsConstructor
 public class SalaryController {
     SalaryService salaryService;
+    PayrollRunService payrollRunService;
+    SalarySummaryService salarySummaryService;
+    PayslipService payslipService;
 
     @GetMapping("/my-salaries")
     public ResponseEntity<ApiResponse<ApiPageResponse<SalaryResponse>>> getMySalaries(
@@ -90,4 +104,62 @@ public class SalaryController {
         SalaryStatisticsResponse stats = salaryService.getSalaryStatistics(month, year);
         return ResponseEntity.ok(stats);
     }
+
+    @GetMapping("/statistics/breakdown")
+    public ResponseEntity<ApiResponse<List<SalarySummaryResponse>>> getSalaryBreakdown(
+            @RequestParam Integer month,
+            @RequestParam Integer year,
+            @RequestParam(required = false) SalarySummaryScope scope) {
+        if (month < 1 || month > 12) throw new IllegalArgumentException("month must be 1..12");
+
+        return ResponseEntity.ok(ApiResponse.success(
+                salarySummaryService.getSummaries(YearMonth.of(year, month), scope)));
+    }
+
+    @GetMapping("/payslips")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportPayslips(
+            @RequestParam Integer month,
+            @RequestParam Integer year) {
+        if (month < 1 || month > 12) throw new IllegalArgumentException("month must be 1..12");
+
+        YearMonth period = YearMonth.of(year, month);
+        StreamingResponseBody body = out -> payslipService.writePayslipZip(period, out);
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType("application", "zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payslips-" + period + ".zip\"")
+                .body(body);
+    }
+
+    @GetMapping("/{id}/payslip")
+    public ResponseEntity<byte[]> getPayslip(@PathVariable String id) {
+        PayslipService.Payslip payslip = payslipService.renderPayslip(id);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + payslip.fileName() + "\"")
+                .body(payslip.pdf());
+    }
+
+    @PostMapping("/simulations")
+    public ResponseEntity<ApiResponse<PayrollSimulationResponse>> simulatePayroll(
+            @Valid @RequestBody PayrollSimulationRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(salaryService.simulatePayroll(request)));
+    }
+
+    @PostMapping("/payroll-runs")
+    public ResponseEntity<ApiResponse<PayrollRunResponse>> startPayrollRun(
+            @RequestParam Integer month,
+            @RequestParam Integer year) {
+        if (month < 1 || month > 12) throw new IllegalArgumentException("month must be 1..12");
+
+        PayrollRunResponse run = payrollRunService.start(YearMonth.of(year, month));
+        return ResponseEntity.accepted().body(ApiResponse.success(run));
+    }
+
+    @GetMapping("/payroll-runs/{id}")
+    public ResponseEntity<ApiResponse<PayrollRunResponse>> getPayrollRun(@PathVariable String id) {
+        return ResponseEntity.ok(ApiResponse.success(payrollRunService.getRun(id)));
+    }
 }
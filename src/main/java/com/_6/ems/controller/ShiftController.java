@@ -0,0 +1,89 @@
+package com._6.ems.controller;
+
+import com._6.ems.dto.request.ShiftTemplateRequest;
+import com._6.ems.dto.response.ApiResponse;
+import com._6.ems.dto.response.ShiftTemplateResponse;
+import com._6.ems.service.ShiftScheduleService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/shifts")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ShiftController {
+
+    ShiftScheduleService shiftScheduleService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<ShiftTemplateResponse>>> getTemplates() {
+        return ResponseEntity.ok(ApiResponse.success(shiftScheduleService.getTemplates()));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ShiftTemplateResponse>> createTemplate(
+            @RequestBody @Valid ShiftTemplateRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(shiftScheduleService.createTemplate(request)));
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ShiftTemplateResponse>> updateTemplate(
+            @PathVariable Long id,
+            @RequestBody @Valid ShiftTemplateRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(shiftScheduleService.updateTemplate(id, request)));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Delete a shift template", description = "Its assignees go back to the default shift.")
+    public ResponseEntity<ApiResponse<Void>> deleteTemplate(@PathVariable Long id) {
+        shiftScheduleService.deleteTemplate(id);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+
+    @PutMapping("/{id}/personnel/{code}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> assignToPersonnel(@PathVariable Long id, @PathVariable String code) {
+        shiftScheduleService.assignToPersonnel(id, code);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+
+    @PutMapping("/{id}/departments/{departmentId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> assignToDepartment(@PathVariable Long id,
+                                                                @PathVariable Integer departmentId) {
+        shiftScheduleService.assignToDepartment(id, departmentId);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+
+    @DeleteMapping("/personnel/{code}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> unassignPersonnel(@PathVariable String code) {
+        shiftScheduleService.unassignPersonnel(code);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+
+    @DeleteMapping("/departments/{departmentId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> unassignDepartment(@PathVariable Integer departmentId) {
+        shiftScheduleService.unassignDepartment(departmentId);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+
+    @GetMapping("/personnel/{code}")
+    @Operation(summary = "Get the shift a personnel works",
+            description = "Their own assignment, else their department's, else the default shift.")
+    public ResponseEntity<ApiResponse<ShiftTemplateResponse>> getShiftOf(@PathVariable String code) {
+        return ResponseEntity.ok(ApiResponse.success(shiftScheduleService.getShiftOf(code)));
+    }
+}
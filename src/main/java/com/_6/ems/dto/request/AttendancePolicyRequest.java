@@ -0,0 +1,25 @@
+package com._6.ems.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalTime;
+
+/**
+ * Partial AttendancePolicy update; null fields keep their current value.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendancePolicyRequest {
+    @Schema(type = "string", example = "09:00:00")
+    private LocalTime shiftStart;
+    private Integer lunchMinutes;
+    private Double standardWorkHours;
+    private Double halfDayHours;
+    private Double overtimeThresholdHours;
+    private Double overtimeRate;
+    private Integer toleratedLateMinutesPerDay;
+    private Double latePenaltyPerMinute;
+    private Double missingHourPenalty;
+}
@@ -0,0 +1,9 @@
+package com._6.ems.dto.request;
+
+import java.time.LocalDate;
+
+public interface AttendanceRecordKeyProjection {
+    String getId();
+    String getPersonnelCode();
+    LocalDate getDate();
+}
@@ -0,0 +1,27 @@
+package com._6.ems.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+public class FreeWindowRequest {
+    @NotEmpty
+    @Size(max = 1000, message = "At most 1000 attendees can be checked at once")
+    private List<String> attendeeCodes;
+
+    @Schema(type = "string", example = "2025-10-06T08:00:00+07:00")
+    @NotNull
+    private OffsetDateTime startTime;
+
+    @Schema(type = "string", example = "2025-10-10T18:00:00+07:00")
+    @NotNull
+    private OffsetDateTime endTime;
+
+    @NotNull
+    @Min(value = 1, message = "Minimum duration must be at least 1 minute")
+    private Integer minDurationMinutes = 30;
+}
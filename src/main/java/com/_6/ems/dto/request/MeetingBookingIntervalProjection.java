@@ -0,0 +1,10 @@
+package com._6.ems.dto.request;
+
+import java.time.OffsetDateTime;
+
+public interface MeetingBookingIntervalProjection {
+    Long getId();
+    Long getRoomId();
+    OffsetDateTime getStartTime();
+    OffsetDateTime getEndTime();
+}
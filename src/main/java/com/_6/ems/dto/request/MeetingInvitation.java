@@ -23,4 +23,6 @@ public class MeetingInvitation {
     private String roomLocation;
     private Integer capacity;
     private List<String> recipientEmails;
+    // how a recurring meeting repeats; null for a single meeting
+    private String recurrence;
 }
@@ -0,0 +1,10 @@
+package com._6.ems.dto.request;
+
+import java.time.OffsetDateTime;
+
+public interface MeetingParticipantIntervalProjection {
+    Long getBookingId();
+    String getPersonnelCode();
+    OffsetDateTime getStartTime();
+    OffsetDateTime getEndTime();
+}
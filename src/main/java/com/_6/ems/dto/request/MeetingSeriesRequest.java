@@ -0,0 +1,53 @@
+package com._6.ems.dto.request;
+
+import com._6.ems.enums.RecurrenceFrequency;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+public class MeetingSeriesRequest {
+    @NotNull
+    private Long roomId;
+
+    @NotNull
+    private String organizerCode;
+
+    @NotBlank
+    @Size(max = 200)
+    private String title;
+
+    @Size(max = 1000)
+    private String description;
+
+    // the first occurrence
+    @Schema(type = "string", example = "2025-10-06T09:00:00+07:00")
+    @NotNull
+    private OffsetDateTime startTime;
+
+    @Schema(type = "string", example = "2025-10-06T09:15:00+07:00")
+    @NotNull
+    private OffsetDateTime endTime;
+
+    @NotNull
+    private RecurrenceFrequency frequency;
+
+    @NotNull
+    @Min(value = 1, message = "Interval must be at least 1")
+    @Max(value = 52, message = "Interval must not exceed 52")
+    private Integer interval = 1;
+
+    // inclusive; at least one of untilDate and occurrenceCount is required
+    private LocalDate untilDate;
+
+    @Min(value = 1, message = "Occurrence count must be at least 1")
+    private Integer occurrenceCount;
+
+    private List<LocalDate> exceptionDates;
+
+    private List<String> attendeeCodes;
+}
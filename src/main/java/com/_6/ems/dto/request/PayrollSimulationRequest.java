@@ -0,0 +1,34 @@
+package com._6.ems.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+/**
+ * Rule overrides for a what-if payroll. Every override is optional; a missing one keeps the
+ * current rule.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollSimulationRequest {
+    @NotNull(message = "Month is required")
+    @Min(value = 1, message = "Month must be between 1 and 12")
+    @Max(value = 12, message = "Month must be between 1 and 12")
+    private Integer month;
+
+    @NotNull(message = "Year is required")
+    private Integer year;
+
+    // e.g. 5.0 raises every basic salary by 5%
+    private Double basicSalaryRaisePercent;
+    private Double allowanceIncrease;
+    private Double bonusIncrease;
+    private Double employeePositionAllowance;
+    private Double managerPositionAllowance;
+
+    @Positive(message = "Overtime rate must be positive")
+    private Double overtimeRate;
+
+    @Positive(message = "Standard work hours must be positive")
+    private Double standardWorkHours;
+}
@@ -0,0 +1,35 @@
+package com._6.ems.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+public class RoomSuggestionRequest {
+    @NotNull
+    @Min(value = 15, message = "Duration must be at least 15 minutes")
+    @Max(value = 1440, message = "Duration must not exceed 1440 minutes")
+    private Integer durationMinutes;
+
+    @Schema(type = "string", example = "2025-10-06T08:00:00+07:00")
+    @NotNull
+    private OffsetDateTime earliestStart;
+
+    @Schema(type = "string", example = "2025-10-10T18:00:00+07:00")
+    @NotNull
+    private OffsetDateTime latestEnd;
+
+    @NotNull
+    @Min(value = 1, message = "Attendees must be at least 1")
+    private Integer attendees;
+
+    private List<String> equipment;
+
+    @NotNull
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 50, message = "Limit must not exceed 50")
+    private Integer limit = 5;
+}
@@ -0,0 +1,6 @@
+package com._6.ems.dto.request;
+
+public interface SalaryAllowanceProjection {
+    String getPersonnelCode();
+    Double getPositionAllowance();
+}
@@ -0,0 +1,12 @@
+package com._6.ems.dto.request;
+
+import com._6.ems.enums.Role;
+
+public interface SalaryFigureProjection {
+    Double getGrossSalary();
+    Double getNetSalary();
+    Double getTotalDeductions();
+    Role getRole();
+    Integer getDepartmentId();
+    String getDepartmentName();
+}
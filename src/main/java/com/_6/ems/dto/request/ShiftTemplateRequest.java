@@ -0,0 +1,39 @@
+package com._6.ems.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShiftTemplateRequest {
+
+    @NotBlank(message = "Shift name is required")
+    @Size(max = 100, message = "Shift name must not exceed 100 characters")
+    private String name;
+
+    @Schema(type = "string", example = "09:00:00")
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+
+    // at or before startTime for an overnight shift
+    @Schema(type = "string", example = "18:00:00")
+    @NotNull(message = "End time is required")
+    private LocalTime endTime;
+
+    @NotNull(message = "Lunch minutes are required")
+    @Min(value = 0, message = "Lunch minutes must not be negative")
+    private Integer lunchMinutes;
+
+    // defaults to half of the shift's standard hours
+    @Positive(message = "Half day hours must be positive")
+    private Double halfDayHours;
+
+    // defaults to one hour over the shift's standard hours
+    @Positive(message = "Overtime threshold must be positive")
+    private Double overtimeThresholdHours;
+}
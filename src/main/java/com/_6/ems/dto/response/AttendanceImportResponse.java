@@ -0,0 +1,25 @@
+package com._6.ems.dto.response;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AttendanceImportResponse {
+    long linesRead;
+    long punchesAccepted;
+    long linesRejected;
+    // (personnel, work date) pairs written, existing rows included
+    int recordsWritten;
+    LocalDate firstDate;
+    LocalDate lastDate;
+    List<String> unknownPersonnelCodes;
+    // the first rejected lines, "line N: reason"
+    List<String> errors;
+}
@@ -0,0 +1,28 @@
+package com._6.ems.dto.response;
+
+import com._6.ems.enums.AttendanceRecomputeStatus;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AttendanceRecomputeRunResponse {
+    String id;
+    LocalDate startDate;
+    LocalDate endDate;
+    AttendanceRecomputeStatus status;
+    long totalRecords;
+    long processedRecords;
+    long changedRecords;
+    double progressPercent;
+    double recordsPerSecond;
+    OffsetDateTime startedAt;
+    OffsetDateTime finishedAt;
+    String lastError;
+}
@@ -0,0 +1,17 @@
+package com._6.ems.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeWindowResponse {
+    private OffsetDateTime startTime;
+    private OffsetDateTime endTime;
+}
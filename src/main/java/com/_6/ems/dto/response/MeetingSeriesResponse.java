@@ -0,0 +1,36 @@
+package com._6.ems.dto.response;
+
+import com._6.ems.enums.RecurrenceFrequency;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MeetingSeriesResponse {
+    private Long id;
+    private String roomName;
+    private String organizerName;
+    private String title;
+    private String description;
+    private RecurrenceFrequency frequency;
+    private Integer interval;
+    private LocalDate untilDate;
+    private Integer occurrenceCount;
+    private List<LocalDate> exceptionDates;
+    private List<String> attendeeNames;
+
+    // the occurrences in the requested range
+    private List<MeetingOccurrenceResponse> occurrences;
+
+    @JsonFormat(pattern = "HH:mm:ss dd/MM/yyyy", timezone = "Asia/Ho_Chi_Minh")
+    private OffsetDateTime createdAt;
+}
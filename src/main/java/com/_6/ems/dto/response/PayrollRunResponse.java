@@ -0,0 +1,25 @@
+package com._6.ems.dto.response;
+
+import com._6.ems.enums.PayrollRunStatus;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PayrollRunResponse {
+    String id;
+    Integer month;
+    Integer year;
+    PayrollRunStatus status;
+    long totalPersonnel;
+    long processedPersonnel;
+    double progressPercent;
+    OffsetDateTime startedAt;
+    OffsetDateTime finishedAt;
+    String lastError;
+}
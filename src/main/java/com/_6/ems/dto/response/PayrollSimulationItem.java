@@ -0,0 +1,17 @@
+package com._6.ems.dto.response;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollSimulationItem {
+    private String personnelCode;
+    private String fullName;
+    private Double baselineGrossSalary;
+    private Double simulatedGrossSalary;
+    private Double baselineNetSalary;
+    private Double simulatedNetSalary;
+    private Double netSalaryDelta;
+}
@@ -0,0 +1,29 @@
+package com._6.ems.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollSimulationResponse {
+    private Integer month;
+    private Integer year;
+    private Integer totalEmployees;
+
+    private Double baselineGrossSalary;
+    private Double simulatedGrossSalary;
+    private Double grossSalaryDelta;
+
+    private Double baselineNetSalary;
+    private Double simulatedNetSalary;
+    private Double netSalaryDelta;
+
+    private Double baselineDeductions;
+    private Double simulatedDeductions;
+    private Double deductionsDelta;
+
+    private List<PayrollSimulationItem> items;
+}
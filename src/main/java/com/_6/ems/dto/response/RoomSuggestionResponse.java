@@ -0,0 +1,22 @@
+package com._6.ems.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomSuggestionResponse {
+    private Long roomId;
+    private String roomName;
+    private String location;
+    private Integer capacity;
+    private String equipment;
+    private OffsetDateTime startTime;
+    private OffsetDateTime endTime;
+}
@@ -0,0 +1,32 @@
+package com._6.ems.dto.response;
+
+import com._6.ems.enums.Role;
+import com._6.ems.enums.SalarySummaryScope;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SalarySummaryResponse {
+    Integer month;
+    Integer year;
+    SalarySummaryScope scope;
+    Integer departmentId;
+    String departmentName;
+    Role role;
+    long totalEmployees;
+    double totalGrossSalary;
+    double totalNetSalary;
+    double totalDeductions;
+    double averageNetSalary;
+    double minNetSalary;
+    double medianNetSalary;
+    double p90NetSalary;
+    double maxNetSalary;
+    OffsetDateTime refreshedAt;
+}
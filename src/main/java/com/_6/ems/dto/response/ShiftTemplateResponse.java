@@ -0,0 +1,21 @@
+package com._6.ems.dto.response;
+
+import lombok.*;
+
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShiftTemplateResponse {
+    private Long id;
+    private String name;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Integer lunchMinutes;
+    private Double standardWorkHours;
+    private Double halfDayHours;
+    private Double overtimeThresholdHours;
+    private Boolean overnight;
+}
@@ -0,0 +1,39 @@
+package com._6.ems.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * One row per month whose AttendanceMonthlyAggregates have been seeded from attendance_record.
+ * Deltas are only added to a seeded month, and seeding locks this row so it runs once.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(
+        name = "attendance_aggregate_month",
+        uniqueConstraints = @UniqueConstraint(
+                name = "attendance_aggregate_month_period",
+                columnNames = {"year", "month"}
+        ))
+public class AttendanceAggregateMonth {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id")
+    String id;
+
+    @Column(name = "year", nullable = false)
+    Integer year;
+
+    @Column(name = "month", nullable = false)
+    Integer month;
+
+    @Builder.Default
+    @Column(name = "seeded", nullable = false)
+    boolean seeded = false;
+}
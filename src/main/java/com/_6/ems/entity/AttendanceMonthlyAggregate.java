@@ -0,0 +1,98 @@
+package com._6.ems.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Running attendance totals for one personnel and month, maintained incrementally on check-in,
+ * check-out and the attendance schedulers. Salary, overview and summary read these instead of
+ * scanning the month's AttendanceRecords.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(
+        name = "attendance_monthly_aggregate",
+        uniqueConstraints = @UniqueConstraint(
+                name = "attendance_aggregate_personnel_month",
+                columnNames = {"personnel_code", "year", "month"}
+        ),
+        indexes = @Index(name = "idx_attendance_aggregate_month", columnList = "year, month"))
+public class AttendanceMonthlyAggregate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id")
+    String id;
+
+    @Column(name = "personnel_code", nullable = false)
+    String personnelCode;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "personnel_code", referencedColumnName = "code", insertable = false, updatable = false)
+    Personnel personnel;
+
+    @Column(name = "year", nullable = false)
+    Integer year;
+
+    @Column(name = "month", nullable = false)
+    Integer month;
+
+    @Builder.Default
+    @Column(name = "total_days")
+    int totalDays = 0;
+
+    @Builder.Default
+    @Column(name = "present_days")
+    int presentDays = 0;
+
+    // status LATE_ARRIVAL, what the salary counts as a late day
+    @Builder.Default
+    @Column(name = "late_arrival_days")
+    int lateArrivalDays = 0;
+
+    // is_late flag, what the attendance overview counts as a late day
+    @Builder.Default
+    @Column(name = "late_days")
+    int lateDays = 0;
+
+    @Builder.Default
+    @Column(name = "absent_days")
+    int absentDays = 0;
+
+    @Builder.Default
+    @Column(name = "full_day_work")
+    int fullDayWork = 0;
+
+    @Builder.Default
+    @Column(name = "half_day_work")
+    int halfDayWork = 0;
+
+    @Builder.Default
+    @Column(name = "not_enough_hour_days")
+    int notEnoughHourDays = 0;
+
+    @Builder.Default
+    @Column(name = "total_work_hours")
+    double totalWorkHours = 0.0;
+
+    @Builder.Default
+    @Column(name = "overtime_hours")
+    double overtimeHours = 0.0;
+
+    @Builder.Default
+    @Column(name = "total_missing_hours")
+    double totalMissingHours = 0.0;
+
+    @Builder.Default
+    @Column(name = "total_late_minutes")
+    int totalLateMinutes = 0;
+
+    public double getAverageHours() {
+        return totalDays == 0 ? 0.0 : totalWorkHours / totalDays;
+    }
+}
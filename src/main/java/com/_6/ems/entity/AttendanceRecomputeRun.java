@@ -0,0 +1,73 @@
+package com._6.ems.entity;
+
+import com._6.ems.enums.AttendanceRecomputeStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Progress of re-deriving the attendance records of a date range with the current rules. Records
+ * are processed in (personnel code, work date) order; every record up to the checkpoint is
+ * committed, so a failed or interrupted run resumes after it.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "attendance_recompute_run")
+public class AttendanceRecomputeRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id")
+    String id;
+
+    @Column(name = "start_date", nullable = false)
+    LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    AttendanceRecomputeStatus status;
+
+    @Builder.Default
+    @Column(name = "total_records")
+    long totalRecords = 0;
+
+    @Builder.Default
+    @Column(name = "processed_records")
+    long processedRecords = 0;
+
+    @Builder.Default
+    @Column(name = "changed_records")
+    long changedRecords = 0;
+
+    // "" before the first chunk commits; checkpointDate only matters once a code is set
+    @Builder.Default
+    @Column(name = "checkpoint_code", nullable = false)
+    String checkpointCode = "";
+
+    @Column(name = "checkpoint_date", nullable = false)
+    LocalDate checkpointDate;
+
+    // time spent processing, summed over resumes
+    @Builder.Default
+    @Column(name = "elapsed_millis")
+    long elapsedMillis = 0;
+
+    @Column(name = "started_at")
+    OffsetDateTime startedAt;
+
+    @Column(name = "finished_at")
+    OffsetDateTime finishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    String lastError;
+}
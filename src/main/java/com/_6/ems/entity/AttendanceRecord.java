@@ -22,8 +22,13 @@ import java.time.OffsetDateTime;
         uniqueConstraints = @UniqueConstraint(
                 name = "attendance_date_personnel_persistent",
                 columnNames = {"personnel_code", "work_date"}
-        ))
+        ),
+        // per-personnel lookups use the unique key above; this one serves all-personnel date ranges
+        indexes = @Index(name = "idx_attendance_work_date", columnList = "work_date"))
 public class AttendanceRecord {
+    // the note of a day closed as ABSENT because it was never checked out of
+    public static final String MISSING_CHECK_OUT_NOTE = "Auto-marked absent due to missing check-out";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "id")
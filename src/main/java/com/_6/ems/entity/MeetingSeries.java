@@ -0,0 +1,90 @@
+package com._6.ems.entity;
+
+import com._6.ems.enums.RecurrenceFrequency;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A recurring meeting, stored once: the first occurrence, the rule that repeats it and the dates
+ * skipped. Occurrences are expanded on demand by RecurrenceRule. {@code lastEndTime} is the end
+ * of the last occurrence, kept so that series still running can be found with a query.
+ */
+@Entity
+@Table(name = "meeting_series")
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class MeetingSeries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(name = "organizer_id", nullable = false)
+    private String organizerCode;
+
+    @Column(nullable = false)
+    private String title;
+
+    private String description;
+
+    @Column(name = "start_time", nullable = false)
+    private OffsetDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private OffsetDateTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "repeat_interval", nullable = false)
+    private int interval;
+
+    @Column(name = "until_date")
+    private LocalDate untilDate;
+
+    @Column(name = "occurrence_count")
+    private Integer occurrenceCount;
+
+    @Column(name = "last_end_time", nullable = false)
+    private OffsetDateTime lastEndTime;
+
+    @Builder.Default
+    @ElementCollection
+    @CollectionTable(name = "meeting_series_exceptions", joinColumns = @JoinColumn(name = "series_id"))
+    @Column(name = "exception_date", nullable = false)
+    private Set<LocalDate> exceptionDates = new HashSet<>();
+
+    @Builder.Default
+    @ElementCollection
+    @CollectionTable(name = "meeting_series_attendees", joinColumns = @JoinColumn(name = "series_id"))
+    @Column(name = "attendee_code", nullable = false)
+    private Set<String> attendeeCodes = new HashSet<>();
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    // the id all occurrences share in the in-memory timelines: apart from booking ids, which are
+    // positive, and from hold ids, which count down from -1
+    public static long intervalIdOf(long seriesId) {
+        return Long.MIN_VALUE + seriesId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+    }
+}
@@ -0,0 +1,65 @@
+package com._6.ems.entity;
+
+import com._6.ems.enums.PayrollRunStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Progress of the month-end salary generation for one month. Personnel are processed in code
+ * order; the salaries of every code up to {@code checkpointCode} are committed, so a failed or
+ * interrupted run resumes after it.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(
+        name = "payroll_run",
+        uniqueConstraints = @UniqueConstraint(
+                name = "payroll_run_month",
+                columnNames = {"year", "month"}
+        ))
+public class PayrollRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id")
+    String id;
+
+    @Column(name = "year", nullable = false)
+    Integer year;
+
+    @Column(name = "month", nullable = false)
+    Integer month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    PayrollRunStatus status;
+
+    @Builder.Default
+    @Column(name = "total_personnel")
+    long totalPersonnel = 0;
+
+    @Builder.Default
+    @Column(name = "processed_personnel")
+    long processedPersonnel = 0;
+
+    // "" before the first chunk commits
+    @Builder.Default
+    @Column(name = "checkpoint_code", nullable = false)
+    String checkpointCode = "";
+
+    @Column(name = "started_at")
+    OffsetDateTime startedAt;
+
+    @Column(name = "finished_at")
+    OffsetDateTime finishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    String lastError;
+}
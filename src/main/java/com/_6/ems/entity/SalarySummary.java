@@ -0,0 +1,81 @@
+package com._6.ems.entity;
+
+import com._6.ems.enums.Role;
+import com._6.ems.enums.SalarySummaryScope;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Precomputed salary figures of one month for one group of personnel, see SalarySummaryScope.
+ * The rows of a month are rebuilt together by SalarySummaryService whenever its salaries change;
+ * a null department within a DEPARTMENT scope means personnel without a department.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(
+        name = "salary_summary",
+        indexes = @Index(name = "idx_salary_summary_month", columnList = "year, month"))
+public class SalarySummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id")
+    String id;
+
+    @Column(name = "year", nullable = false)
+    Integer year;
+
+    @Column(name = "month", nullable = false)
+    Integer month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false)
+    SalarySummaryScope scope;
+
+    @Column(name = "department_id")
+    Integer departmentId;
+
+    @Column(name = "department_name")
+    String departmentName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role")
+    Role role;
+
+    @Column(name = "total_employees")
+    long totalEmployees;
+
+    @Column(name = "total_gross_salary")
+    double totalGrossSalary;
+
+    @Column(name = "total_net_salary")
+    double totalNetSalary;
+
+    @Column(name = "total_deductions")
+    double totalDeductions;
+
+    @Column(name = "average_net_salary")
+    double averageNetSalary;
+
+    @Column(name = "min_net_salary")
+    double minNetSalary;
+
+    @Column(name = "median_net_salary")
+    double medianNetSalary;
+
+    @Column(name = "p90_net_salary")
+    double p90NetSalary;
+
+    @Column(name = "max_net_salary")
+    double maxNetSalary;
+
+    @Column(name = "refreshed_at")
+    OffsetDateTime refreshedAt;
+}
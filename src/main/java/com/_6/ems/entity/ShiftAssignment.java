@@ -0,0 +1,35 @@
+package com._6.ems.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Assigns a ShiftTemplate to one personnel or to a whole department; exactly one of
+ * {@code personnelCode} and {@code departmentId} is set. A personnel assignment wins over the
+ * department's.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "shift_assignment")
+public class ShiftAssignment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    Long id;
+
+    @Column(name = "personnel_code", unique = true)
+    String personnelCode;
+
+    @Column(name = "department_id", unique = true)
+    Integer departmentId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "shift_template_id", nullable = false)
+    ShiftTemplate shiftTemplate;
+}
@@ -0,0 +1,57 @@
+package com._6.ems.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+/**
+ * A named working shift. {@code endTime} at or before {@code startTime} makes it an overnight
+ * shift ending on the next day. Personnel get a shift through a ShiftAssignment, either directly
+ * or through their department; everyone else works the default shift of the AttendancePolicy.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "shift_template")
+public class ShiftTemplate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    Long id;
+
+    @Column(name = "name", nullable = false, unique = true)
+    String name;
+
+    @Column(name = "start_time", nullable = false)
+    LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    LocalTime endTime;
+
+    @Column(name = "lunch_minutes", nullable = false)
+    int lunchMinutes;
+
+    @Column(name = "half_day_hours", nullable = false)
+    double halfDayHours;
+
+    @Column(name = "overtime_threshold_hours", nullable = false)
+    double overtimeThresholdHours;
+
+    public boolean isOvernight() {
+        return !endTime.isAfter(startTime);
+    }
+
+    // shift length minus the lunch break
+    public double getStandardWorkHours() {
+        long minutes = Duration.between(startTime, endTime).toMinutes();
+        if (isOvernight()) minutes += 24 * 60;
+        return (minutes - lunchMinutes) / 60.0;
+    }
+}
@@ -0,0 +1,7 @@
+package com._6.ems.enums;
+
+public enum AttendanceRecomputeStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
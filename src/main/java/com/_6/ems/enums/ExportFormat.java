@@ -0,0 +1,6 @@
+package com._6.ems.enums;
+
+public enum ExportFormat {
+    NDJSON,
+    CSV
+}
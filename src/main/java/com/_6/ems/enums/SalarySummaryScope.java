@@ -0,0 +1,11 @@
+package com._6.ems.enums;
+
+/**
+ * What a salary_summary row groups by. COMPANY rows cover every salary of the month.
+ */
+public enum SalarySummaryScope {
+    COMPANY,
+    DEPARTMENT,
+    ROLE,
+    DEPARTMENT_ROLE
+}
@@ -0,0 +1,11 @@
+package com._6.ems.event;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published when the attendance of {@code date} was bulk-marked ABSENT for the listed personnel,
+ * so their monthly aggregates and salaries can be refreshed in one batch.
+ */
+public record AttendanceAutoAbsentEvent(LocalDate date, List<String> personnelCodes) {
+}
@@ -0,0 +1,11 @@
+package com._6.ems.event;
+
+import com._6.ems.dto.response.AttendanceRecordResponse;
+
+import java.time.LocalDate;
+
+/**
+ * Published when one attendance record was written, with its state as the API returns it.
+ */
+public record AttendanceRecordChangedEvent(LocalDate date, AttendanceRecordResponse record) {
+}
@@ -0,0 +1,11 @@
+package com._6.ems.event;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Published after a bulk write on the attendance of {@code date}. {@code personnelCodes} is null
+ * when the write may have touched anyone's row.
+ */
+public record AttendanceRecordsChangedEvent(LocalDate date, Collection<String> personnelCodes) {
+}
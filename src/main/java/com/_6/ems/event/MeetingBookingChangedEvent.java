@@ -0,0 +1,17 @@
+package com._6.ems.event;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+
+/**
+ * Published when a meeting booking is created, updated or deleted, so RoomAvailabilityIndex and
+ * MeetingFreeBusyService can follow after commit. {@code participantCodes} are the organizer and
+ * the attendees; the room, the times and the codes are null for a deleted booking.
+ */
+public record MeetingBookingChangedEvent(Long bookingId, Long roomId, OffsetDateTime startTime, OffsetDateTime endTime,
+                                         Collection<String> participantCodes) {
+
+    public static MeetingBookingChangedEvent deleted(Long bookingId) {
+        return new MeetingBookingChangedEvent(bookingId, null, null, null, null);
+    }
+}
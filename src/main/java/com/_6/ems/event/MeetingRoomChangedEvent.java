@@ -0,0 +1,10 @@
+package com._6.ems.event;
+
+import com._6.ems.entity.MeetingRoom;
+
+/**
+ * Published when a meeting room is created, updated or deleted. {@code room} is null for a deleted
+ * room.
+ */
+public record MeetingRoomChangedEvent(Long roomId, MeetingRoom room) {
+}
@@ -0,0 +1,24 @@
+package com._6.ems.event;
+
+import com._6.ems.entity.MeetingSeries;
+import com._6.ems.helper.RecurrenceRule.Occurrence;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published when a meeting series is created, loses an occurrence or is deleted, so
+ * RoomAvailabilityIndex and MeetingFreeBusyService can follow after commit. {@code occurrences}
+ * are the ones that have not ended; everything but the id is null for a deleted series.
+ */
+public record MeetingSeriesChangedEvent(Long seriesId, Long roomId, Collection<String> participantCodes,
+                                        List<Occurrence> occurrences) {
+
+    public static MeetingSeriesChangedEvent deleted(Long seriesId) {
+        return new MeetingSeriesChangedEvent(seriesId, null, null, null);
+    }
+
+    public long intervalId() {
+        return MeetingSeries.intervalIdOf(seriesId);
+    }
+}
@@ -0,0 +1,10 @@
+package com._6.ems.event;
+
+import java.time.YearMonth;
+
+/**
+ * Published when salaries of a month were created or recomputed, or a month without salary_summary
+ * rows was read, so the month's rows get rebuilt by SalarySummaryRefresher.
+ */
+public record SalariesChangedEvent(YearMonth period) {
+}
@@ -0,0 +1,10 @@
+package com._6.ems.event;
+
+import java.time.YearMonth;
+
+/**
+ * Published when something a salary is computed from has changed. The salary itself is
+ * recomputed later by SalaryRecalculationWorker, at most once per window per (personnel, month).
+ */
+public record SalaryDirtyEvent(String personnelCode, YearMonth period) {
+}
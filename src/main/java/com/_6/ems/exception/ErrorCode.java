@@ -51,6 +51,12 @@ public enum ErrorCode {
     ATTENDANCE_NOT_CHECKIN(3004, "Must check in before check out", HttpStatus.CONFLICT),
     ATTENDANCE_INVALID_TIME(3005, "Invalid attendance time", HttpStatus.BAD_REQUEST),
     ATTENDANCE_NOT_YET(3006, "Haven’t checked in yet", HttpStatus.BAD_REQUEST),
+    ATTENDANCE_INVALID_CURSOR(3007, "Invalid page cursor", HttpStatus.BAD_REQUEST),
+    ATTENDANCE_INVALID_POLICY(3008, "Invalid attendance policy", HttpStatus.BAD_REQUEST),
+    SHIFT_TEMPLATE_NOT_FOUND(3009, "Shift template not found", HttpStatus.NOT_FOUND),
+    SHIFT_TEMPLATE_NAME_EXISTED(3010, "Shift template name already exists", HttpStatus.BAD_REQUEST),
+    SHIFT_TEMPLATE_INVALID(3011, "Shift hours are inconsistent", HttpStatus.BAD_REQUEST),
+    ATTENDANCE_RECOMPUTE_NOT_FOUND(3012, "Attendance recompute run not found", HttpStatus.NOT_FOUND),
     // =====================================================
     // 4xxx - Department
     // =====================================================
@@ -88,6 +94,9 @@ public enum ErrorCode {
     UNAUTHORIZED_DELETE_BOOKING(8021, "You are not authorized to delete this booking", HttpStatus.FORBIDDEN),
     MEETING_ROOM_NAME_EXISTED(8002, "Meeting room name already exists", HttpStatus.BAD_REQUEST),
     MEETING_ROOM_HAS_FUTURE_BOOKINGS(8003, "Cannot delete room with future bookings", HttpStatus.BAD_REQUEST),
+    MEETING_SERIES_NOT_FOUND(8004, "Meeting series not found", HttpStatus.NOT_FOUND),
+    MEETING_SERIES_INVALID(8005, "Invalid recurrence rule", HttpStatus.BAD_REQUEST),
+    MEETING_SERIES_CONFLICT(8006, "An occurrence of the series conflicts with another booking", HttpStatus.CONFLICT),
     // =====================================================
     // 9xxx - Privilege & Role
     // =====================================================
@@ -96,6 +105,7 @@ public enum ErrorCode {
     // 10xxx - Privilege & Role
     // =====================================================
     SALARY_NOT_FOUND(10001, "Salary not found", HttpStatus.NOT_FOUND),
+    PAYROLL_RUN_NOT_FOUND(10002, "Payroll run not found", HttpStatus.NOT_FOUND),
     ;
 
     ErrorCode(int code, String message, HttpStatusCode statusCode) {
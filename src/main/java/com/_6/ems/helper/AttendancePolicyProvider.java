@@ -0,0 +1,96 @@
+package com._6.ems.helper;
+
+import com._6.ems.dto.request.AttendancePolicyRequest;
+import com._6.ems.exception.AppException;
+import com._6.ems.exception.ErrorCode;
+import com._6.ems.record.AttendancePolicy;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+
+/**
+ * Holds the current AttendancePolicy. Readers get the instance with a single volatile read and
+ * should keep it for the whole calculation; admins replace it at runtime through
+ * {@link #update(AttendancePolicyRequest)}. The configured values apply again after a restart.
+ */
+@Component
+@Slf4j
+public class AttendancePolicyProvider {
+
+    @Value("${attendance.policy.shift-start:09:00}")
+    private LocalTime shiftStart;
+
+    @Value("${attendance.policy.lunch-minutes:60}")
+    private int lunchMinutes;
+
+    @Value("${salary.standard-work-hours}")
+    private double standardWorkHours;
+
+    @Value("${attendance.policy.half-day-hours:4.0}")
+    private double halfDayHours;
+
+    @Value("${attendance.policy.overtime-threshold-hours:9.0}")
+    private double overtimeThresholdHours;
+
+    @Value("${salary.overtimeRate}")
+    private double overtimeRate;
+
+    @Value("${attendance.policy.tolerated-late-minutes-per-day:30}")
+    private int toleratedLateMinutesPerDay;
+
+    @Value("${attendance.policy.late-penalty-per-minute:5000}")
+    private double latePenaltyPerMinute;
+
+    @Value("${attendance.policy.missing-hour-penalty:50000}")
+    private double missingHourPenalty;
+
+    private volatile AttendancePolicy current;
+
+    @PostConstruct
+    void init() {
+        current = new AttendancePolicy(shiftStart, lunchMinutes, standardWorkHours, halfDayHours,
+                overtimeThresholdHours, overtimeRate, toleratedLateMinutesPerDay, latePenaltyPerMinute,
+                missingHourPenalty);
+        log.info("Attendance policy loaded: {}", current);
+    }
+
+    public AttendancePolicy get() {
+        return current;
+    }
+
+    /**
+     * Replaces the policy with one where the request's non-null fields override the current ones.
+     * Records and salaries computed earlier are not recomputed.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public synchronized AttendancePolicy update(AttendancePolicyRequest request) {
+        AttendancePolicy previous = current;
+        AttendancePolicy updated;
+        try {
+            updated = new AttendancePolicy(
+                    request.getShiftStart() != null ? request.getShiftStart() : previous.shiftStart(),
+                    request.getLunchMinutes() != null ? request.getLunchMinutes() : previous.lunchMinutes(),
+                    request.getStandardWorkHours() != null ? request.getStandardWorkHours() : previous.standardWorkHours(),
+                    request.getHalfDayHours() != null ? request.getHalfDayHours() : previous.halfDayHours(),
+                    request.getOvertimeThresholdHours() != null
+                            ? request.getOvertimeThresholdHours() : previous.overtimeThresholdHours(),
+                    request.getOvertimeRate() != null ? request.getOvertimeRate() : previous.overtimeRate(),
+                    request.getToleratedLateMinutesPerDay() != null
+                            ? request.getToleratedLateMinutesPerDay() : previous.toleratedLateMinutesPerDay(),
+                    request.getLatePenaltyPerMinute() != null
+                            ? request.getLatePenaltyPerMinute() : previous.latePenaltyPerMinute(),
+                    request.getMissingHourPenalty() != null
+                            ? request.getMissingHourPenalty() : previous.missingHourPenalty());
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.ATTENDANCE_INVALID_POLICY);
+        }
+
+        current = updated;
+        log.info("Attendance policy changed from {} to {}", previous, updated);
+        return updated;
+    }
+}
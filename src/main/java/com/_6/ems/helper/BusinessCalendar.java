@@ -0,0 +1,82 @@
+package com._6.ems.helper;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Working days per month: Monday to Friday minus the configured public holidays. Each month is
+ * computed once into a day-of-month bitmask, so both lookups are O(1) afterwards. A year without
+ * any configured holiday falls back to Monday to Friday, with a warning at startup and on first use,
+ * so a missing yearly update of salary.calendar.holidays never blocks check-in or payroll.
+ */
+@Component
+@Slf4j
+public class BusinessCalendar {
+
+    @Value("${salary.calendar.holidays:}")
+    private String[] configuredHolidays;
+
+    private final Map<YearMonth, Integer> workingDayMasks = new ConcurrentHashMap<>();
+    private Set<LocalDate> holidays = Set.of();
+    private Set<Integer> coveredYears = Set.of();
+
+    @PostConstruct
+    void init() {
+        holidays = Arrays.stream(configuredHolidays)
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(LocalDate::parse)
+                .collect(Collectors.toUnmodifiableSet());
+        coveredYears = holidays.stream()
+                .map(LocalDate::getYear)
+                .collect(Collectors.toUnmodifiableSet());
+        log.info("Business calendar loaded with {} public holidays for {}", holidays.size(), coveredYears);
+        int currentYear = LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh")).getYear();
+        if (!coveredYears.contains(currentYear)) {
+            log.warn("No public holidays configured for {}; add them to salary.calendar.holidays", currentYear);
+        }
+    }
+
+    public int getWorkingDays(YearMonth period) {
+        return Integer.bitCount(mask(period));
+    }
+
+    public boolean isWorkingDay(LocalDate date) {
+        return (mask(YearMonth.from(date)) & (1 << date.getDayOfMonth())) != 0;
+    }
+
+    /* Helper methods */
+
+    // bit n set <=> day n of the month is a working day
+    private int mask(YearMonth period) {
+        return workingDayMasks.computeIfAbsent(period, this::computeMask);
+    }
+
+    private int computeMask(YearMonth period) {
+        if (!coveredYears.contains(period.getYear())) {
+            log.warn("No public holidays configured for {}; counting {} as Monday to Friday", period.getYear(), period);
+        }
+
+        int mask = 0;
+        for (int day = 1; day <= period.lengthOfMonth(); day++) {
+            LocalDate date = period.atDay(day);
+            DayOfWeek dow = date.getDayOfWeek();
+            if (dow != DayOfWeek.SATURDAY && dow != DayOfWeek.SUNDAY && !holidays.contains(date)) {
+                mask |= 1 << day;
+            }
+        }
+        return mask;
+    }
+}
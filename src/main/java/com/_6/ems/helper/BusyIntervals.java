@@ -0,0 +1,130 @@
+package com._6.ems.helper;
+
+/**
+ * The meetings of one person as half-open [start, end) intervals in epoch seconds, held in three
+ * parallel arrays sorted by start. A person can be invited to overlapping meetings, so ends are not
+ * sorted; the longest interval bounds how far back an overlapping one can start. Instances are
+ * immutable: a change returns a copy, which keeps readers lock-free and costs a few dozen bytes per
+ * meeting instead of a booking graph.
+ */
+public final class BusyIntervals {
+
+    public static final BusyIntervals EMPTY = new BusyIntervals(new long[0], new long[0], new long[0], 0);
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] bookingIds;
+    private final long maxLength;
+
+    private BusyIntervals(long[] starts, long[] ends, long[] bookingIds, long maxLength) {
+        this.starts = starts;
+        this.ends = ends;
+        this.bookingIds = bookingIds;
+        this.maxLength = maxLength;
+    }
+
+    // {@code starts} must be sorted; the arrays are taken over, not copied
+    public static BusyIntervals of(long[] starts, long[] ends, long[] bookingIds) {
+        long maxLength = 0;
+        for (int i = 0; i < starts.length; i++) maxLength = Math.max(maxLength, ends[i] - starts[i]);
+        return new BusyIntervals(starts, ends, bookingIds, maxLength);
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    // a copy with the booking at [start, end), replacing an earlier position of it
+    public BusyIntervals with(long bookingId, long start, long end) {
+        return replace(bookingId, new long[]{start}, new long[]{end});
+    }
+
+    public BusyIntervals without(long bookingId) {
+        return replace(bookingId, new long[0], new long[0]);
+    }
+
+    /**
+     * A copy in which the intervals of {@code id} are exactly [starts[i], ends[i]), {@code starts}
+     * being sorted. A meeting series keeps all of its occurrences under one id.
+     */
+    public BusyIntervals replace(long id, long[] newStarts, long[] newEnds) {
+        int kept = 0;
+        for (long bookingId : bookingIds) if (bookingId != id) kept++;
+        if (kept == size() && newStarts.length == 0) return this;
+
+        int size = kept + newStarts.length;
+        long[] mergedStarts = new long[size];
+        long[] mergedEnds = new long[size];
+        long[] mergedIds = new long[size];
+        long mergedMaxLength = 0;
+        // merge of the kept intervals and the new ones, both sorted by start
+        for (int i = 0, j = 0, k = 0; k < size; k++) {
+            while (i < size() && bookingIds[i] == id) i++;
+            if (j < newStarts.length && (i >= size() || newStarts[j] < starts[i])) {
+                mergedStarts[k] = newStarts[j];
+                mergedEnds[k] = newEnds[j];
+                mergedIds[k] = id;
+                j++;
+            } else {
+                mergedStarts[k] = starts[i];
+                mergedEnds[k] = ends[i];
+                mergedIds[k] = bookingIds[i];
+                i++;
+            }
+            mergedMaxLength = Math.max(mergedMaxLength, mergedEnds[k] - mergedStarts[k]);
+        }
+        return size == 0 ? EMPTY : new BusyIntervals(mergedStarts, mergedEnds, mergedIds, mergedMaxLength);
+    }
+
+    // a copy without the intervals that ended at or before {@code cutoff}
+    public BusyIntervals withoutEndedBy(long cutoff) {
+        int kept = 0;
+        for (long end : ends) if (end > cutoff) kept++;
+        if (kept == size()) return this;
+
+        long[] newStarts = new long[kept];
+        long[] newEnds = new long[kept];
+        long[] newIds = new long[kept];
+        long newMaxLength = 0;
+        for (int i = 0, j = 0; i < size(); i++) {
+            if (ends[i] <= cutoff) continue;
+            newStarts[j] = starts[i];
+            newEnds[j] = ends[i];
+            newIds[j++] = bookingIds[i];
+            newMaxLength = Math.max(newMaxLength, ends[i] - starts[i]);
+        }
+        return new BusyIntervals(newStarts, newEnds, newIds, newMaxLength);
+    }
+
+    /**
+     * Copies the intervals intersecting [from, to), clipped to it, into {@code outStarts} and {@code
+     * outEnds} from {@code offset}; returns the offset after the last one. Both arrays must have room
+     * for {@code size()} more values.
+     */
+    public int copyBetween(long from, long to, long[] outStarts, long[] outEnds, int offset) {
+        for (int i = insertionPoint(from - maxLength); i < size() && starts[i] < to; i++) {
+            if (ends[i] <= from) continue;
+            outStarts[offset] = Math.max(starts[i], from);
+            outEnds[offset++] = Math.min(ends[i], to);
+        }
+        return offset;
+    }
+
+    /* Helper methods */
+
+    // the first index whose start is at or after {@code start}
+    private int insertionPoint(long start) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < start) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,115 @@
+package com._6.ems.helper;
+
+import com._6.ems.entity.ShiftTemplate;
+import com._6.ems.enums.AttendanceType;
+import com._6.ems.record.AttendancePolicy;
+
+/**
+ * A shift reduced to plain numbers for classification. Every method works on epoch seconds and
+ * primitives, so evaluating a check-in or check-out is a few integer operations and allocates
+ * nothing. Instances are immutable and cached by ShiftScheduleService.
+ */
+public final class CompiledShift {
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    // Asia/Ho_Chi_Minh has kept a fixed +07:00 offset without DST since 1975
+    private static final int LOCAL_OFFSET_SECONDS = 7 * 3_600;
+
+    private final Long templateId;
+    private final String name;
+    private final int startSecond;
+    private final boolean overnight;
+    private final int lunchMinutes;
+    private final double standardWorkHours;
+    private final double halfDayHours;
+    private final double overtimeThresholdHours;
+
+    private CompiledShift(Long templateId, String name, int startSecond, boolean overnight, int lunchMinutes,
+                          double standardWorkHours, double halfDayHours, double overtimeThresholdHours) {
+        this.templateId = templateId;
+        this.name = name;
+        this.startSecond = startSecond;
+        this.overnight = overnight;
+        this.lunchMinutes = lunchMinutes;
+        this.standardWorkHours = standardWorkHours;
+        this.halfDayHours = halfDayHours;
+        this.overtimeThresholdHours = overtimeThresholdHours;
+    }
+
+    public static CompiledShift of(ShiftTemplate template) {
+        return new CompiledShift(template.getId(), template.getName(), template.getStartTime().toSecondOfDay(),
+                template.isOvernight(), template.getLunchMinutes(), template.getStandardWorkHours(),
+                template.getHalfDayHours(), template.getOvertimeThresholdHours());
+    }
+
+    // the policy's single day shift
+    public static CompiledShift of(AttendancePolicy policy) {
+        return new CompiledShift(null, "default", policy.shiftStart().toSecondOfDay(), false, policy.lunchMinutes(),
+                policy.standardWorkHours(), policy.halfDayHours(), policy.overtimeThresholdHours());
+    }
+
+    /**
+     * The epoch day of the work date a punch belongs to. A day shift keeps the calendar date; an
+     * overnight shift starts its day half a day before the shift start, so the morning punches after
+     * midnight stay on the date the shift started.
+     */
+    public long workEpochDay(long punchEpochSecond) {
+        long local = punchEpochSecond + LOCAL_OFFSET_SECONDS;
+        return Math.floorDiv(overnight ? local - (startSecond - SECONDS_PER_DAY / 2) : local, SECONDS_PER_DAY);
+    }
+
+    public boolean isLate(long checkInEpochSecond) {
+        return secondsLate(checkInEpochSecond) > 0;
+    }
+
+    public int lateMinutes(long checkInEpochSecond) {
+        return secondsLate(checkInEpochSecond) / 60;
+    }
+
+    // worked hours between check-in and check-out, lunch break excluded
+    public double workHours(long checkInEpochSecond, long checkOutEpochSecond) {
+        long minutes = Math.max(0, (checkOutEpochSecond - checkInEpochSecond) / 60 - lunchMinutes);
+        return minutes / 60.0;
+    }
+
+    public AttendanceType classify(double workHours) {
+        if (workHours > overtimeThresholdHours) return AttendanceType.OVERTIME;
+        if (workHours >= standardWorkHours) return AttendanceType.FULL_DAY;
+        if (workHours >= halfDayHours) return AttendanceType.HALF_DAY;
+        return AttendanceType.NOT_ENOUGH_HOURS;
+    }
+
+    public boolean isNotEnoughHours(double workHours) {
+        return workHours < standardWorkHours;
+    }
+
+    public double missingHours(double workHours) {
+        return Math.max(0.0, standardWorkHours - workHours);
+    }
+
+    public Long getTemplateId() {
+        return templateId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isOvernight() {
+        return overnight;
+    }
+
+    public double getStandardWorkHours() {
+        return standardWorkHours;
+    }
+
+    /* Helper methods */
+
+    private int secondsLate(long checkInEpochSecond) {
+        int secondOfDay = (int) Math.floorMod(checkInEpochSecond + LOCAL_OFFSET_SECONDS, SECONDS_PER_DAY);
+        int sinceStart = Math.floorMod(secondOfDay - startSecond, SECONDS_PER_DAY);
+        // more than half a day after the start is an early check-in for the next shift, which also
+        // makes checking in after midnight for a shift that started the evening before count as late
+        return sinceStart >= SECONDS_PER_DAY / 2 ? 0 : sinceStart;
+    }
+}
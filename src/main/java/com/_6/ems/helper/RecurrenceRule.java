@@ -0,0 +1,98 @@
+package com._6.ems.helper;
+
+import com._6.ems.entity.MeetingSeries;
+import com._6.ems.enums.RecurrenceFrequency;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * The occurrences of a MeetingSeries, expanded on demand. The n-th occurrence starts n * interval
+ * days, weeks or months after the first one, on the same local time; a monthly series started on
+ * the 31st falls on the last day of shorter months. As in RFC 5545, the occurrence count includes
+ * the skipped dates. Nothing is materialized: {@link #between} jumps to the first occurrence of
+ * the range instead of walking the series from its start.
+ */
+public final class RecurrenceRule {
+
+    public record Occurrence(OffsetDateTime start, OffsetDateTime end) {
+    }
+
+    private final LocalDateTime firstStart;
+    private final Duration duration;
+    private final RecurrenceFrequency frequency;
+    private final int interval;
+    private final LocalDate untilDate;
+    private final Integer occurrenceCount;
+    private final Set<LocalDate> exceptionDates;
+
+    private RecurrenceRule(MeetingSeries series) {
+        this.firstStart = series.getStartTime().atZoneSameInstant(ZoneId.of("Asia/Ho_Chi_Minh")).toLocalDateTime();
+        this.duration = Duration.between(series.getStartTime(), series.getEndTime());
+        this.frequency = series.getFrequency();
+        this.interval = series.getInterval();
+        this.untilDate = series.getUntilDate();
+        this.occurrenceCount = series.getOccurrenceCount();
+        this.exceptionDates = Set.copyOf(series.getExceptionDates());
+    }
+
+    public static RecurrenceRule of(MeetingSeries series) {
+        return new RecurrenceRule(series);
+    }
+
+    public boolean isBounded() {
+        return untilDate != null || occurrenceCount != null;
+    }
+
+    // every occurrence; only call on a bounded rule
+    public Stream<Occurrence> all() {
+        return from(0);
+    }
+
+    // the occurrences intersecting [from, to), in time order
+    public Stream<Occurrence> between(OffsetDateTime from, OffsetDateTime to) {
+        LocalDateTime localFrom = from.atZoneSameInstant(ZoneId.of("Asia/Ho_Chi_Minh")).toLocalDateTime().minus(duration);
+        long periods = unit().between(firstStart, localFrom) / interval;
+        // one period back absorbs the clamping of monthly dates
+        return from(Math.max(0, periods - 1))
+                .dropWhile(occurrence -> !occurrence.end().isAfter(from))
+                .takeWhile(occurrence -> occurrence.start().isBefore(to));
+    }
+
+    // the last occurrence that is not skipped, if any; only call on a bounded rule
+    public Occurrence last() {
+        return all().reduce((first, second) -> second).orElse(null);
+    }
+
+    /* Helper methods */
+
+    private Stream<Occurrence> from(long first) {
+        LongStream indexes = LongStream.iterate(first, n -> n + 1);
+        if (occurrenceCount != null) indexes = indexes.takeWhile(n -> n < occurrenceCount);
+
+        Stream<LocalDateTime> starts = indexes.mapToObj(this::nth);
+        if (untilDate != null) starts = starts.takeWhile(start -> !start.toLocalDate().isAfter(untilDate));
+
+        return starts
+                .filter(start -> !exceptionDates.contains(start.toLocalDate()))
+                .map(start -> {
+                    OffsetDateTime offsetStart = start.atZone(ZoneId.of("Asia/Ho_Chi_Minh")).toOffsetDateTime();
+                    return new Occurrence(offsetStart, offsetStart.plus(duration));
+                });
+    }
+
+    private LocalDateTime nth(long n) {
+        return firstStart.plus(n * interval, unit());
+    }
+
+    private ChronoUnit unit() {
+        return switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS;
+            case WEEKLY -> ChronoUnit.WEEKS;
+            case MONTHLY -> ChronoUnit.MONTHS;
+        };
+    }
+}
@@ -0,0 +1,135 @@
+package com._6.ems.helper;
+
+import com._6.ems.entity.MeetingRoom;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The bookings of one meeting room as half-open [start, end) intervals in epoch seconds, sorted by
+ * start. Every write path rejects overlapping bookings of a room, so the ends are sorted as well
+ * and the only interval that can intersect [start, end) is the last one starting before end:
+ * every check is a single O(log n) lookup in the skip list.
+ */
+public final class RoomTimeline {
+
+    public record Interval(long bookingId, long roomId, long start, long end) {
+    }
+
+    private static final Comparator<Interval> BY_START =
+            Comparator.comparingLong(Interval::start).thenComparingLong(Interval::bookingId);
+
+    private final ConcurrentSkipListSet<Interval> intervals = new ConcurrentSkipListSet<>(BY_START);
+    private volatile MeetingRoom room;
+
+    public RoomTimeline(MeetingRoom room) {
+        this.room = room;
+    }
+
+    public MeetingRoom getRoom() {
+        return room;
+    }
+
+    public void setRoom(MeetingRoom room) {
+        this.room = room;
+    }
+
+    public boolean isFree(long start, long end) {
+        return isFree(start, end, null);
+    }
+
+    // free apart from the booking {@code excludeBookingId}, which is being moved
+    public boolean isFree(long start, long end, Long excludeBookingId) {
+        for (Interval interval : intervals.headSet(probe(end), false).descendingSet()) {
+            if (interval.end() <= start) return true;
+            if (excludeBookingId == null || interval.bookingId() != excludeBookingId) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The index of the first of the sorted, non-overlapping intervals [starts[i], ends[i]) that
+     * overlaps a booking, or -1. Bookings and intervals are walked together in one pass.
+     */
+    public int firstConflict(long[] starts, long[] ends) {
+        if (starts.length == 0) return -1;
+
+        Iterator<Interval> bookings = between(starts[0], ends[ends.length - 1]).iterator();
+        Interval booking = bookings.hasNext() ? bookings.next() : null;
+        for (int i = 0; i < starts.length && booking != null; i++) {
+            while (booking != null && booking.end() <= starts[i]) booking = bookings.hasNext() ? bookings.next() : null;
+            if (booking != null && booking.start() < ends[i]) return i;
+        }
+        return -1;
+    }
+
+    public boolean isBusyAt(long instant) {
+        return !isFree(instant, instant + 1);
+    }
+
+    public boolean hasBookingsEndingAfter(long instant) {
+        Interval last = lastOrNull();
+        return last != null && last.end() > instant;
+    }
+
+    // the intervals intersecting [start, end), in start order
+    public NavigableSet<Interval> between(long start, long end) {
+        Interval before = intervals.lower(probe(start));
+        Interval from = before != null && before.end() > start ? before : probe(start);
+        return intervals.subSet(from, true, probe(end), false);
+    }
+
+    // bit i is set when [base + i * slotSeconds, base + (i + 1) * slotSeconds) intersects an interval
+    public BitSet busySlots(long base, int slotSeconds, int slots) {
+        BitSet busy = new BitSet(slots);
+        for (Interval interval : between(base, base + (long) slotSeconds * slots)) {
+            int from = (int) Math.max(0, Math.floorDiv(interval.start() - base, slotSeconds));
+            int to = (int) Math.min(slots, Math.ceilDiv(interval.end() - base, slotSeconds));
+            busy.set(from, to);
+        }
+        return busy;
+    }
+
+    public void add(Interval interval) {
+        intervals.add(interval);
+    }
+
+    public void remove(Interval interval) {
+        intervals.remove(interval);
+    }
+
+    // drops the intervals that ended at or before {@code cutoff}
+    public int pruneEndedBy(long cutoff) {
+        int pruned = 0;
+        Interval first;
+        while ((first = firstOrNull()) != null && first.end() <= cutoff) {
+            if (intervals.remove(first)) pruned++;
+        }
+        return pruned;
+    }
+
+    public int size() {
+        return intervals.size();
+    }
+
+    /* Helper methods */
+
+    // sorts before every interval starting at {@code start}
+    private Interval probe(long start) {
+        return new Interval(Long.MIN_VALUE, 0, start, start);
+    }
+
+    // first()/last() throw when a concurrent remove empties the set; iterators do not
+    private Interval firstOrNull() {
+        for (Interval interval : intervals) return interval;
+        return null;
+    }
+
+    private Interval lastOrNull() {
+        for (Interval interval : intervals.descendingSet()) return interval;
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+package com._6.ems.helper;
+
+import com._6.ems.record.AttendancePolicy;
+
+/**
+ * Side-effect-free monthly salary computation: primitives and immutable rules in, an immutable
+ * {@link Result} out. Looking up the inputs and storing the result is the caller's job (see SalaryService).
+ */
+public final class SalaryCalculator {
+
+    private static final double SOCIAL_INSURANCE_RATE = 0.08;
+    private static final double HEALTH_INSURANCE_RATE = 0.015;
+    private static final double UNEMPLOYMENT_INSURANCE_RATE = 0.01;
+
+    private SalaryCalculator() {
+    }
+
+    public record Input(double basicSalary,
+                        double positionAllowance,
+                        double allowance,
+                        double bonus,
+                        double kpiPenalty,
+                        int workingDays,
+                        int fullDayWork,
+                        int halfDayWork,
+                        int absenceDays,
+                        double overtimeHours,
+                        double totalMissingHours,
+                        int totalLateMinutes,
+                        AttendancePolicy policy,
+                        TaxSchedule taxSchedule) {
+    }
+
+    public record Result(double penalty,
+                         double socialInsurance,
+                         double healthInsurance,
+                         double unemploymentInsurance,
+                         double overtimePay,
+                         double grossSalary,
+                         double personalIncomeTax,
+                         double totalDeductions,
+                         double netSalary) {
+    }
+
+    public static Result calculate(Input in) {
+        AttendancePolicy policy = in.policy();
+        double penalty = latePenalty(in.totalLateMinutes(), in.workingDays(), policy)
+                + in.totalMissingHours() * policy.missingHourPenalty();
+
+        double socialInsurance = 0.0;
+        double healthInsurance = 0.0;
+        double unemploymentInsurance = 0.0;
+        if (in.basicSalary() > 0) {
+            socialInsurance = in.basicSalary() * SOCIAL_INSURANCE_RATE;
+            healthInsurance = in.basicSalary() * HEALTH_INSURANCE_RATE;
+            unemploymentInsurance = in.basicSalary() * UNEMPLOYMENT_INSURANCE_RATE;
+        }
+
+        //lương cơ bản theo ngày và theo giờ
+        double dailySalary = in.basicSalary() / in.workingDays();
+        double hourlySalary = dailySalary / policy.standardWorkHours();
+
+        // 1️⃣ Lương theo công
+        double salaryFromWorkDays = in.fullDayWork() * dailySalary + in.halfDayWork() * (dailySalary / 2);
+
+        // 2️⃣ Lương tăng ca
+        double overtimePay = in.overtimeHours() * hourlySalary * policy.overtimeRate();
+
+        // 3️⃣ Tổng thu nhập trước khấu trừ
+        double grossSalary = salaryFromWorkDays
+                + in.positionAllowance()
+                + in.allowance()
+                + in.bonus()
+                + overtimePay
+                - (in.absenceDays() * dailySalary)
+                - in.kpiPenalty()
+                - penalty;
+
+        double insurance = socialInsurance + healthInsurance + unemploymentInsurance;
+        double personalIncomeTax = in.taxSchedule()
+                .taxOn(grossSalary - insurance - in.taxSchedule().getPersonalDeduction());
+
+        // 4️⃣ Các khoản khấu trừ
+        double totalDeductions = insurance + personalIncomeTax;
+
+        // 5️⃣ Lương thực nhận
+        double netSalary = grossSalary - totalDeductions;
+
+        return new Result(penalty, socialInsurance, healthInsurance, unemploymentInsurance,
+                overtimePay, grossSalary, personalIncomeTax, totalDeductions, netSalary);
+    }
+
+    // the tolerated late minutes per working day are free, every minute beyond is charged
+    static double latePenalty(int totalLateMinutes, int workingDays, AttendancePolicy policy) {
+        int excess = totalLateMinutes - policy.toleratedLateMinutesPerDay() * workingDays;
+        return excess > 0 ? excess * policy.latePenaltyPerMinute() : 0.0;
+    }
+}
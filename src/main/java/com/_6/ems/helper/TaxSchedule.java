@@ -0,0 +1,92 @@
+package com._6.ems.helper;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * One progressive personal income tax table. The tax owed at the lower bound of every bracket is
+ * precomputed, so a lookup is a binary search over the bracket bounds plus one multiply-add.
+ */
+public final class TaxSchedule {
+
+    private final LocalDate effectiveFrom;
+    private final double personalDeduction;
+    // upperBounds[i] closes bracket i (inclusive); the last one is +Infinity
+    private final double[] upperBounds;
+    private final double[] rates;
+    // offsets[i] = tax owed on an income of exactly the lower bound of bracket i
+    private final double[] offsets;
+
+    public TaxSchedule(LocalDate effectiveFrom, double personalDeduction, double[] upperBounds, double[] rates) {
+        if (upperBounds.length == 0 || upperBounds.length != rates.length) {
+            throw new IllegalArgumentException("Tax schedule needs one rate per bracket");
+        }
+        if (upperBounds[upperBounds.length - 1] != Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("The last tax bracket must be open-ended");
+        }
+        this.effectiveFrom = effectiveFrom;
+        this.personalDeduction = personalDeduction;
+        this.upperBounds = upperBounds.clone();
+        this.rates = rates.clone();
+        this.offsets = new double[upperBounds.length];
+
+        double lower = 0.0;
+        for (int i = 0; i < upperBounds.length; i++) {
+            if (upperBounds[i] <= lower) {
+                throw new IllegalArgumentException("Tax brackets must be in increasing order");
+            }
+            if (i > 0) {
+                offsets[i] = offsets[i - 1] + (lower - lowerBound(i - 1)) * rates[i - 1];
+            }
+            lower = upperBounds[i];
+        }
+    }
+
+    /**
+     * Parses {@code effectiveFrom;personalDeduction;upperBound:rate;...;*:rate}, the top bracket
+     * written as {@code *}. Example: {@code 2020-07-01;11000000;5000000:0.05;*:0.10}
+     */
+    public static TaxSchedule parse(String value) {
+        String[] parts = value.trim().split(";");
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Invalid tax schedule: " + value);
+        }
+
+        int brackets = parts.length - 2;
+        double[] upperBounds = new double[brackets];
+        double[] rates = new double[brackets];
+        for (int i = 0; i < brackets; i++) {
+            String[] bracket = parts[i + 2].trim().split(":");
+            if (bracket.length != 2) {
+                throw new IllegalArgumentException("Invalid tax bracket: " + parts[i + 2]);
+            }
+            upperBounds[i] = bracket[0].trim().equals("*")
+                    ? Double.POSITIVE_INFINITY
+                    : Double.parseDouble(bracket[0].trim());
+            rates[i] = Double.parseDouble(bracket[1].trim());
+        }
+
+        return new TaxSchedule(LocalDate.parse(parts[0].trim()), Double.parseDouble(parts[1].trim()),
+                upperBounds, rates);
+    }
+
+    public LocalDate getEffectiveFrom() {
+        return effectiveFrom;
+    }
+
+    public double getPersonalDeduction() {
+        return personalDeduction;
+    }
+
+    public double taxOn(double taxableIncome) {
+        if (taxableIncome <= 0) return 0.0;
+
+        int i = Arrays.binarySearch(upperBounds, taxableIncome);
+        if (i < 0) i = -i - 1;
+        return offsets[i] + (taxableIncome - lowerBound(i)) * rates[i];
+    }
+
+    private double lowerBound(int bracket) {
+        return bracket == 0 ? 0.0 : upperBounds[bracket - 1];
+    }
+}
@@ -0,0 +1,48 @@
+package com._6.ems.helper;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Effective-dated personal income tax schedules. A month is taxed with the schedule in force on its
+ * last day, so recalculating an old month keeps using that month's rules.
+ */
+@Component
+@Slf4j
+public class TaxTable {
+
+    @Value("${salary.tax.schedules}")
+    private String[] configuredSchedules;
+
+    private NavigableMap<LocalDate, TaxSchedule> schedules;
+
+    @PostConstruct
+    void init() {
+        NavigableMap<LocalDate, TaxSchedule> parsed = new TreeMap<>();
+        Arrays.stream(configuredSchedules)
+                .filter(value -> !value.isBlank())
+                .map(TaxSchedule::parse)
+                .forEach(schedule -> parsed.put(schedule.getEffectiveFrom(), schedule));
+        if (parsed.isEmpty()) {
+            throw new IllegalStateException("salary.tax.schedules must define at least one tax schedule");
+        }
+        schedules = Collections.unmodifiableNavigableMap(parsed);
+        log.info("Loaded {} income tax schedules, effective from {}", schedules.size(), schedules.keySet());
+    }
+
+    public TaxSchedule forPeriod(YearMonth period) {
+        Map.Entry<LocalDate, TaxSchedule> entry = schedules.floorEntry(period.atEndOfMonth());
+        // months before the first schedule fall back to the oldest one
+        return entry != null ? entry.getValue() : schedules.firstEntry().getValue();
+    }
+}
@@ -15,7 +15,6 @@ import java.util.stream.Collectors;
 @Mapper(componentModel = "spring")
 public interface AttendanceMapper {
     DateTimeFormatter DT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    double STANDARD_WORK_HOURS = 8.0;
 
 
     @Mapping(target = "record_id", source = "id")
@@ -32,7 +31,8 @@ public interface AttendanceMapper {
     @Mapping(target = "checkOut", expression = "java(toOffsetTime(record.getCheckOut()))")
     @Mapping(target = "workHours", expression = "java(formatWorkHours(record.getWorkHours()))")
     @Mapping(target = "status", source = "status")
-    @Mapping(target = "notEnoughHour", expression = "java(isNotEnoughHour(record.getWorkHours()))")
+    // set per shift when the record is checked out of
+    @Mapping(target = "notEnoughHour", expression = "java(Boolean.TRUE.equals(record.getNotEnoughHours()))")
     AttendanceRecordDTO toDTO(AttendanceRecord record);
 
     default List<AttendanceRecordDTO> toDTOList(List<AttendanceRecord> records) {
@@ -84,9 +84,4 @@ public interface AttendanceMapper {
 
         return hourPart + "h " + minutePart + "m";
     }
-
-    @Named("isNotEnoughHour")
-    default boolean isNotEnoughHour(Double workHours) {
-        return workHours != null && workHours < STANDARD_WORK_HOURS;
-    }
 }
@@ -0,0 +1,24 @@
+package com._6.ems.mapper;
+
+import com._6.ems.dto.response.AttendanceRecomputeRunResponse;
+import com._6.ems.entity.AttendanceRecomputeRun;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface AttendanceRecomputeRunMapper {
+
+    @Mapping(target = "progressPercent", expression = "java(progressPercent(run))")
+    @Mapping(target = "recordsPerSecond", expression = "java(recordsPerSecond(run))")
+    AttendanceRecomputeRunResponse toResponse(AttendanceRecomputeRun run);
+
+    default double progressPercent(AttendanceRecomputeRun run) {
+        if (run.getTotalRecords() == 0) return 100.0;
+        return Math.min(100.0, run.getProcessedRecords() * 100.0 / run.getTotalRecords());
+    }
+
+    default double recordsPerSecond(AttendanceRecomputeRun run) {
+        if (run.getElapsedMillis() == 0) return 0.0;
+        return Math.round(run.getProcessedRecords() * 10_000.0 / run.getElapsedMillis()) / 10.0;
+    }
+}
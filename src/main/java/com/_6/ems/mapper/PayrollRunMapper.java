@@ -0,0 +1,18 @@
+package com._6.ems.mapper;
+
+import com._6.ems.dto.response.PayrollRunResponse;
+import com._6.ems.entity.PayrollRun;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface PayrollRunMapper {
+
+    @Mapping(target = "progressPercent", expression = "java(progressPercent(run))")
+    PayrollRunResponse toResponse(PayrollRun run);
+
+    default double progressPercent(PayrollRun run) {
+        if (run.getTotalPersonnel() == 0) return 100.0;
+        return Math.min(100.0, run.getProcessedPersonnel() * 100.0 / run.getTotalPersonnel());
+    }
+}
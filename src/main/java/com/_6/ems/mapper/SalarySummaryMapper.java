@@ -0,0 +1,11 @@
+package com._6.ems.mapper;
+
+import com._6.ems.dto.response.SalarySummaryResponse;
+import com._6.ems.entity.SalarySummary;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface SalarySummaryMapper {
+
+    SalarySummaryResponse toResponse(SalarySummary summary);
+}
@@ -0,0 +1,11 @@
+package com._6.ems.mapper;
+
+import com._6.ems.dto.response.ShiftTemplateResponse;
+import com._6.ems.entity.ShiftTemplate;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface ShiftTemplateMapper {
+
+    ShiftTemplateResponse toResponse(ShiftTemplate template);
+}
@@ -0,0 +1,99 @@
+package com._6.ems.record;
+
+import com._6.ems.entity.AttendanceRecord;
+import com._6.ems.enums.AttendanceStatus;
+
+/**
+ * What a single AttendanceRecord adds to its personnel's monthly aggregate. Monthly totals are kept
+ * up to date by applying {@code of(after).minus(of(before))} whenever a record changes.
+ */
+public record AttendanceContribution(int totalDays,
+                                     int presentDays,
+                                     int lateArrivalDays,
+                                     int lateDays,
+                                     int absentDays,
+                                     int fullDayWork,
+                                     int halfDayWork,
+                                     int notEnoughHourDays,
+                                     double totalWorkHours,
+                                     double overtimeHours,
+                                     double totalMissingHours,
+                                     int totalLateMinutes) {
+
+    public static final AttendanceContribution NONE =
+            new AttendanceContribution(0, 0, 0, 0, 0, 0, 0, 0, 0.0, 0.0, 0.0, 0);
+
+    public static AttendanceContribution of(AttendanceRecord attendanceRecord) {
+        if (attendanceRecord == null) return NONE;
+
+        AttendanceStatus status = attendanceRecord.getStatus();
+        int present = status == AttendanceStatus.PRESENT ? 1 : 0;
+        int lateArrival = status == AttendanceStatus.LATE_ARRIVAL ? 1 : 0;
+        int late = Boolean.TRUE.equals(attendanceRecord.getIsLate()) ? 1 : 0;
+
+        // absent days count as a day but contribute no hours, same as the monthly salary summary
+        if (status == AttendanceStatus.ABSENT) {
+            return new AttendanceContribution(1, 0, 0, late, 1, 0, 0, 0, 0.0, 0.0, 0.0, 0);
+        }
+
+        double workHours = valueOf(attendanceRecord.getWorkHours());
+        double missingHours = valueOf(attendanceRecord.getMissingHours());
+        int lateMinutes = attendanceRecord.getLateMinutes() == null ? 0 : attendanceRecord.getLateMinutes();
+
+        int fullDay = 0;
+        int halfDay = 0;
+        int notEnough = 0;
+        double overtime = 0.0;
+        if (attendanceRecord.getType() != null) {
+            switch (attendanceRecord.getType()) {
+                case FULL_DAY -> fullDay = 1;
+                case HALF_DAY -> halfDay = 1;
+                case OVERTIME -> overtime = workHours;
+                case NOT_ENOUGH_HOURS -> notEnough = 1;
+            }
+        }
+
+        return new AttendanceContribution(1, present, lateArrival, late, 0,
+                fullDay, halfDay, notEnough, workHours, overtime, missingHours, lateMinutes);
+    }
+
+    public AttendanceContribution plus(AttendanceContribution other) {
+        return new AttendanceContribution(
+                totalDays + other.totalDays,
+                presentDays + other.presentDays,
+                lateArrivalDays + other.lateArrivalDays,
+                lateDays + other.lateDays,
+                absentDays + other.absentDays,
+                fullDayWork + other.fullDayWork,
+                halfDayWork + other.halfDayWork,
+                notEnoughHourDays + other.notEnoughHourDays,
+                totalWorkHours + other.totalWorkHours,
+                overtimeHours + other.overtimeHours,
+                totalMissingHours + other.totalMissingHours,
+                totalLateMinutes + other.totalLateMinutes);
+    }
+
+    public AttendanceContribution minus(AttendanceContribution other) {
+        return plus(new AttendanceContribution(
+                -other.totalDays,
+                -other.presentDays,
+                -other.lateArrivalDays,
+                -other.lateDays,
+                -other.absentDays,
+                -other.fullDayWork,
+                -other.halfDayWork,
+                -other.notEnoughHourDays,
+                -other.totalWorkHours,
+                -other.overtimeHours,
+                -other.totalMissingHours,
+                -other.totalLateMinutes));
+    }
+
+    public boolean isZero() {
+        return equals(NONE);
+    }
+
+    private static double valueOf(Double value) {
+        return value == null ? 0.0 : value;
+    }
+}
@@ -0,0 +1,47 @@
+package com._6.ems.record;
+
+import java.time.LocalTime;
+
+/**
+ * The default shift and the penalty rules attendance and salaries are computed with. Immutable: a
+ * policy change swaps in a new instance (see AttendancePolicyProvider), so a calculation that took
+ * a snapshot keeps consistent rules throughout.
+ */
+public record AttendancePolicy(LocalTime shiftStart,
+                               int lunchMinutes,
+                               double standardWorkHours,
+                               double halfDayHours,
+                               double overtimeThresholdHours,
+                               double overtimeRate,
+                               int toleratedLateMinutesPerDay,
+                               double latePenaltyPerMinute,
+                               double missingHourPenalty) {
+
+    public AttendancePolicy {
+        if (shiftStart == null) throw new IllegalArgumentException("shiftStart is required");
+        if (lunchMinutes < 0) throw new IllegalArgumentException("lunchMinutes must not be negative");
+        if (standardWorkHours <= 0) throw new IllegalArgumentException("standardWorkHours must be positive");
+        if (halfDayHours <= 0 || halfDayHours > standardWorkHours) {
+            throw new IllegalArgumentException("halfDayHours must be in (0, standardWorkHours]");
+        }
+        if (overtimeThresholdHours < standardWorkHours) {
+            throw new IllegalArgumentException("overtimeThresholdHours must be >= standardWorkHours");
+        }
+        if (overtimeRate <= 0) throw new IllegalArgumentException("overtimeRate must be positive");
+        if (toleratedLateMinutesPerDay < 0 || latePenaltyPerMinute < 0 || missingHourPenalty < 0) {
+            throw new IllegalArgumentException("penalties must not be negative");
+        }
+    }
+
+    public AttendancePolicy withOvertimeRate(double overtimeRate) {
+        return new AttendancePolicy(shiftStart, lunchMinutes, standardWorkHours, halfDayHours,
+                overtimeThresholdHours, overtimeRate, toleratedLateMinutesPerDay, latePenaltyPerMinute,
+                missingHourPenalty);
+    }
+
+    public AttendancePolicy withStandardWorkHours(double standardWorkHours) {
+        return new AttendancePolicy(shiftStart, lunchMinutes, standardWorkHours,
+                Math.min(halfDayHours, standardWorkHours), Math.max(overtimeThresholdHours, standardWorkHours),
+                overtimeRate, toleratedLateMinutesPerDay, latePenaltyPerMinute, missingHourPenalty);
+    }
+}
@@ -0,0 +1,44 @@
+package com._6.ems.record;
+
+import com._6.ems.enums.AttendanceStatus;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * A check-in that has been acknowledged to the user but not yet written to attendance_record.
+ * One line of the check-in journal holds exactly one of these.
+ */
+public record PendingCheckIn(String personnelCode,
+                             LocalDate date,
+                             OffsetDateTime checkIn,
+                             AttendanceStatus status,
+                             boolean late,
+                             int lateMinutes) {
+
+    private static final String SEPARATOR = "|";
+
+    public String toJournalLine() {
+        return String.join(SEPARATOR,
+                personnelCode,
+                date.toString(),
+                checkIn.toString(),
+                status.name(),
+                String.valueOf(late),
+                String.valueOf(lateMinutes));
+    }
+
+    public static PendingCheckIn fromJournalLine(String line) {
+        String[] parts = line.split("\\|");
+        if (parts.length != 6) {
+            throw new IllegalArgumentException("Malformed check-in journal line: " + line);
+        }
+        return new PendingCheckIn(
+                parts[0],
+                LocalDate.parse(parts[1]),
+                OffsetDateTime.parse(parts[2]),
+                AttendanceStatus.valueOf(parts[3]),
+                Boolean.parseBoolean(parts[4]),
+                Integer.parseInt(parts[5]));
+    }
+}
@@ -0,0 +1,23 @@
+package com._6.ems.repository;
+
+import com._6.ems.entity.AttendanceAggregateMonth;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AttendanceAggregateMonthRepository extends JpaRepository<AttendanceAggregateMonth, String> {
+
+    boolean existsByYearAndMonthAndSeededTrue(Integer year, Integer month);
+
+    // Serializes the seeding of a month; the row is created by AttendanceBatchRepository#lockAggregateMonth
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM AttendanceAggregateMonth m WHERE m.year = :year AND m.month = :month")
+    Optional<AttendanceAggregateMonth> findForUpdateByYearAndMonth(@Param("year") Integer year,
+                                                                   @Param("month") Integer month);
+}
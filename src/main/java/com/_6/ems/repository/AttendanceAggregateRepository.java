@@ -0,0 +1,86 @@
+package com._6.ems.repository;
+
+import com._6.ems.entity.AttendanceMonthlyAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AttendanceAggregateRepository extends JpaRepository<AttendanceMonthlyAggregate, String> {
+
+    Optional<AttendanceMonthlyAggregate> findByPersonnelCodeAndYearAndMonth(String personnelCode,
+                                                                            Integer year,
+                                                                            Integer month);
+
+    List<AttendanceMonthlyAggregate> findByYearAndMonthAndPersonnelCodeIn(Integer year,
+                                                                         Integer month,
+                                                                         Collection<String> personnelCodes);
+
+    @Query("""
+       select g
+       from AttendanceMonthlyAggregate g
+       join fetch g.personnel p
+       where g.year = :year and g.month = :month and g.totalDays > 0
+    """)
+    List<AttendanceMonthlyAggregate> findAllWithPersonnelByYearAndMonth(@Param("year") Integer year,
+                                                                       @Param("month") Integer month);
+
+    /* ========= REBUILD FROM attendance_record ========= */
+
+    @Modifying
+    @Query("DELETE FROM AttendanceMonthlyAggregate g WHERE g.year = :year AND g.month = :month")
+    int deleteByYearAndMonth(@Param("year") Integer year, @Param("month") Integer month);
+
+    @Modifying
+    @Query("DELETE FROM AttendanceMonthlyAggregate g " +
+            "WHERE g.year = :year AND g.month = :month AND g.personnelCode IN :codes")
+    int deleteByYearAndMonthAndPersonnelCodeIn(@Param("year") Integer year,
+                                                @Param("month") Integer month,
+                                                @Param("codes") Collection<String> codes);
+
+    // Mirrors AttendanceContribution.of(...) in SQL
+    String REBUILD_SELECT = """
+        INSERT INTO attendance_monthly_aggregate
+            (id, personnel_code, year, month, total_days, present_days, late_arrival_days, late_days,
+             absent_days, full_day_work, half_day_work, not_enough_hour_days, total_work_hours,
+             overtime_hours, total_missing_hours, total_late_minutes)
+        SELECT UUID(), a.personnel_code, :year, :month,
+               COUNT(*),
+               COALESCE(SUM(a.status = 'PRESENT'), 0),
+               COALESCE(SUM(a.status = 'LATE_ARRIVAL'), 0),
+               COALESCE(SUM(a.is_late = 1), 0),
+               COALESCE(SUM(a.status = 'ABSENT'), 0),
+               COALESCE(SUM(a.status <=> 'ABSENT' = 0 AND a.attendance_type = 'FULL_DAY'), 0),
+               COALESCE(SUM(a.status <=> 'ABSENT' = 0 AND a.attendance_type = 'HALF_DAY'), 0),
+               COALESCE(SUM(a.status <=> 'ABSENT' = 0 AND a.attendance_type = 'NOT_ENOUGH_HOURS'), 0),
+               COALESCE(SUM(IF(a.status <=> 'ABSENT', 0, COALESCE(a.work_hours, 0))), 0),
+               COALESCE(SUM(IF(a.status <=> 'ABSENT' = 0 AND a.attendance_type = 'OVERTIME',
+                               COALESCE(a.work_hours, 0), 0)), 0),
+               COALESCE(SUM(IF(a.status <=> 'ABSENT', 0, COALESCE(a.missing_hours, 0))), 0),
+               COALESCE(SUM(IF(a.status <=> 'ABSENT', 0, COALESCE(a.late_minutes, 0))), 0)
+        FROM attendance_record a
+        WHERE a.work_date >= :start AND a.work_date < :end
+        """;
+
+    @Modifying
+    @Query(value = REBUILD_SELECT + " GROUP BY a.personnel_code", nativeQuery = true)
+    int insertFromRecords(@Param("year") Integer year,
+                          @Param("month") Integer month,
+                          @Param("start") LocalDate start,
+                          @Param("end") LocalDate end);
+
+    @Modifying
+    @Query(value = REBUILD_SELECT + " AND a.personnel_code IN :codes GROUP BY a.personnel_code", nativeQuery = true)
+    int insertFromRecordsForCodes(@Param("year") Integer year,
+                                  @Param("month") Integer month,
+                                  @Param("start") LocalDate start,
+                                  @Param("end") LocalDate end,
+                                  @Param("codes") Collection<String> codes);
+}
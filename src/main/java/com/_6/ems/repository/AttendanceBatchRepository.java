@@ -0,0 +1,256 @@
+package com._6.ems.repository;
+
+import com._6.ems.entity.AttendanceRecord;
+import com._6.ems.record.AttendanceContribution;
+import com._6.ems.record.PendingCheckIn;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based writes on the attendance tables that do not fit the entity-at-a-time JpaRepository
+ * model. Statements go through the EntityManager so date/time parameters are bound exactly like
+ * the mapped entity columns.
+ */
+@Repository
+public class AttendanceBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Writes a chunk of buffered check-ins as one multi-row upsert. Relies on the
+     * (personnel_code, work_date) unique key: an existing row without a check-in (e.g. the ABSENT
+     * placeholder created at 02:00) takes the buffered values, a row that already has a check-in
+     * keeps it, so replaying the same entries is harmless.
+     */
+    @Transactional
+    public int upsertCheckIns(List<PendingCheckIn> checkIns) {
+        if (checkIns.isEmpty()) return 0;
+
+        StringBuilder sql = new StringBuilder("""
+                INSERT INTO attendance_record
+                    (id, personnel_code, work_date, check_in, status, is_late, late_minutes,
+                     work_hours, missing_hours, work_location)
+                VALUES
+                """);
+        for (int i = 0; i < checkIns.size(); i++) {
+            if (i > 0) sql.append(",\n");
+            sql.append("(?, ?, ?, ?, ?, ?, ?, 0, 0, 'OFFICE')");
+        }
+        // check_in must be assigned last: MySQL evaluates the assignments left to right
+        sql.append("""
+
+                ON DUPLICATE KEY UPDATE
+                    status       = IF(check_in IS NULL, VALUES(status), status),
+                    is_late      = IF(check_in IS NULL, VALUES(is_late), is_late),
+                    late_minutes = IF(check_in IS NULL, VALUES(late_minutes), late_minutes),
+                    check_in     = COALESCE(check_in, VALUES(check_in))
+                """);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        int position = 1;
+        for (PendingCheckIn checkIn : checkIns) {
+            query.setParameter(position++, UUID.randomUUID().toString());
+            query.setParameter(position++, checkIn.personnelCode());
+            query.setParameter(position++, checkIn.date());
+            query.setParameter(position++, checkIn.checkIn());
+            query.setParameter(position++, checkIn.status().name());
+            query.setParameter(position++, checkIn.late());
+            query.setParameter(position++, checkIn.lateMinutes());
+        }
+        return query.executeUpdate();
+    }
+
+    /**
+     * Writes fully evaluated records as one multi-row upsert on the (personnel_code, work_date)
+     * unique key, overwriting the check-in/out, everything derived from them and the notes. The work
+     * location of an existing row is kept. Used by the punch import, which merges existing rows
+     * (notes included) before evaluating, so writing the same records twice leaves the table
+     * unchanged.
+     */
+    @Transactional
+    public int upsertRecords(List<AttendanceRecord> records) {
+        if (records.isEmpty()) return 0;
+
+        StringBuilder sql = new StringBuilder("""
+                INSERT INTO attendance_record
+                    (id, personnel_code, work_date, check_in, check_out, status, attendance_type, is_late,
+                     late_minutes, work_hours, not_enough_hours, missing_hours, notes, work_location)
+                VALUES
+                """);
+        for (int i = 0; i < records.size(); i++) {
+            if (i > 0) sql.append(",\n");
+            sql.append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'OFFICE')");
+        }
+        sql.append("""
+
+                ON DUPLICATE KEY UPDATE
+                    check_in         = VALUES(check_in),
+                    check_out        = VALUES(check_out),
+                    status           = VALUES(status),
+                    attendance_type  = VALUES(attendance_type),
+                    is_late          = VALUES(is_late),
+                    late_minutes     = VALUES(late_minutes),
+                    work_hours       = VALUES(work_hours),
+                    not_enough_hours = VALUES(not_enough_hours),
+                    missing_hours    = VALUES(missing_hours),
+                    notes            = VALUES(notes)
+                """);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        int position = 1;
+        for (AttendanceRecord attendanceRecord : records) {
+            query.setParameter(position++, UUID.randomUUID().toString());
+            query.setParameter(position++, attendanceRecord.getPersonnel().getCode());
+            query.setParameter(position++, attendanceRecord.getDate());
+            query.setParameter(position++, attendanceRecord.getCheckIn());
+            query.setParameter(position++, attendanceRecord.getCheckOut());
+            query.setParameter(position++, attendanceRecord.getStatus().name());
+            query.setParameter(position++, attendanceRecord.getType() != null ? attendanceRecord.getType().name() : null);
+            query.setParameter(position++, attendanceRecord.getIsLate());
+            query.setParameter(position++, attendanceRecord.getLateMinutes());
+            query.setParameter(position++, attendanceRecord.getWorkHours());
+            query.setParameter(position++, attendanceRecord.getNotEnoughHours());
+            query.setParameter(position++, attendanceRecord.getMissingHours());
+            query.setParameter(position++, attendanceRecord.getNotes());
+        }
+        return query.executeUpdate();
+    }
+
+    /**
+     * Adds per-personnel deltas to the monthly aggregates of one month in a single multi-row
+     * upsert; a missing aggregate row is created from the delta. The month must be seeded (see
+     * AttendanceAggregateService#ensureMonth), or the rows would hold the deltas only.
+     */
+    @Transactional
+    public int addToMonthlyAggregates(YearMonth period, Map<String, AttendanceContribution> deltas) {
+        List<Map.Entry<String, AttendanceContribution>> rows = deltas.entrySet().stream()
+                .filter(entry -> !entry.getValue().isZero())
+                .toList();
+        if (rows.isEmpty()) return 0;
+
+        StringBuilder sql = new StringBuilder("""
+                INSERT INTO attendance_monthly_aggregate
+                    (id, personnel_code, year, month, total_days, present_days, late_arrival_days,
+                     late_days, absent_days, full_day_work, half_day_work, not_enough_hour_days,
+                     total_work_hours, overtime_hours, total_missing_hours, total_late_minutes)
+                VALUES
+                """);
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) sql.append(",\n");
+            sql.append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+        sql.append("""
+
+                ON DUPLICATE KEY UPDATE
+                    total_days           = total_days + VALUES(total_days),
+                    present_days         = present_days + VALUES(present_days),
+                    late_arrival_days    = late_arrival_days + VALUES(late_arrival_days),
+                    late_days            = late_days + VALUES(late_days),
+                    absent_days          = absent_days + VALUES(absent_days),
+                    full_day_work        = full_day_work + VALUES(full_day_work),
+                    half_day_work        = half_day_work + VALUES(half_day_work),
+                    not_enough_hour_days = not_enough_hour_days + VALUES(not_enough_hour_days),
+                    total_work_hours     = total_work_hours + VALUES(total_work_hours),
+                    overtime_hours       = overtime_hours + VALUES(overtime_hours),
+                    total_missing_hours  = total_missing_hours + VALUES(total_missing_hours),
+                    total_late_minutes   = total_late_minutes + VALUES(total_late_minutes)
+                """);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        int position = 1;
+        for (Map.Entry<String, AttendanceContribution> row : rows) {
+            AttendanceContribution delta = row.getValue();
+            query.setParameter(position++, UUID.randomUUID().toString());
+            query.setParameter(position++, row.getKey());
+            query.setParameter(position++, period.getYear());
+            query.setParameter(position++, period.getMonthValue());
+            query.setParameter(position++, delta.totalDays());
+            query.setParameter(position++, delta.presentDays());
+            query.setParameter(position++, delta.lateArrivalDays());
+            query.setParameter(position++, delta.lateDays());
+            query.setParameter(position++, delta.absentDays());
+            query.setParameter(position++, delta.fullDayWork());
+            query.setParameter(position++, delta.halfDayWork());
+            query.setParameter(position++, delta.notEnoughHourDays());
+            query.setParameter(position++, delta.totalWorkHours());
+            query.setParameter(position++, delta.overtimeHours());
+            query.setParameter(position++, delta.totalMissingHours());
+            query.setParameter(position++, delta.totalLateMinutes());
+        }
+        return query.executeUpdate();
+    }
+
+    /**
+     * Creates the unseeded marker of {@code period} if it is missing. ON DUPLICATE KEY UPDATE takes
+     * the exclusive lock on an existing row directly, so concurrent seeders queue up here instead
+     * of deadlocking on a shared-to-exclusive upgrade.
+     */
+    @Transactional
+    public void lockAggregateMonth(YearMonth period) {
+        entityManager.createNativeQuery("""
+                INSERT INTO attendance_aggregate_month (id, year, month, seeded)
+                VALUES (UUID(), :year, :month, 0)
+                ON DUPLICATE KEY UPDATE seeded = seeded
+                """)
+                .setParameter("year", period.getYear())
+                .setParameter("month", period.getMonthValue())
+                .executeUpdate();
+    }
+
+    /**
+     * Creates the ABSENT placeholder of {@code date} for every personnel that has no row yet, in one
+     * INSERT ... SELECT. Returns the number of rows created.
+     */
+    @Transactional
+    public int insertAbsentPlaceholders(LocalDate date) {
+        return entityManager.createNativeQuery("""
+                INSERT INTO attendance_record
+                    (id, personnel_code, work_date, status, work_hours, late_minutes, missing_hours,
+                     work_location)
+                SELECT UUID(), p.code, :date, 'ABSENT', 0, 0, 0, 'OFFICE'
+                FROM personnel p
+                WHERE NOT EXISTS (SELECT 1
+                                  FROM attendance_record a
+                                  WHERE a.personnel_code = p.code AND a.work_date = :date)
+                """)
+                .setParameter("date", date)
+                .executeUpdate();
+    }
+
+    /**
+     * Adds one absent day to the monthly aggregate of every personnel that {@link
+     * #insertAbsentPlaceholders} is about to cover. Must run first, in the same transaction, since
+     * it selects the personnel that have no row for {@code date} yet.
+     */
+    @Transactional
+    public int addAbsentPlaceholdersToMonthlyAggregates(LocalDate date) {
+        return entityManager.createNativeQuery("""
+                INSERT INTO attendance_monthly_aggregate
+                    (id, personnel_code, year, month, total_days, present_days, late_arrival_days,
+                     late_days, absent_days, full_day_work, half_day_work, not_enough_hour_days,
+                     total_work_hours, overtime_hours, total_missing_hours, total_late_minutes)
+                SELECT UUID(), p.code, :year, :month, 1, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0
+                FROM personnel p
+                WHERE NOT EXISTS (SELECT 1
+                                  FROM attendance_record a
+                                  WHERE a.personnel_code = p.code AND a.work_date = :date)
+                ON DUPLICATE KEY UPDATE
+                    total_days  = total_days + 1,
+                    absent_days = absent_days + 1
+                """)
+                .setParameter("year", date.getYear())
+                .setParameter("month", date.getMonthValue())
+                .setParameter("date", date)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,14 @@
+package com._6.ems.repository;
+
+import com._6.ems.entity.AttendanceRecomputeRun;
+import com._6.ems.enums.AttendanceRecomputeStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AttendanceRecomputeRunRepository extends JpaRepository<AttendanceRecomputeRun, String> {
+
+    List<AttendanceRecomputeRun> findByStatus(AttendanceRecomputeStatus status);
+}
@@ -1,19 +1,28 @@
 package com._6.ems.repository;
 
+import com._6.ems.dto.request.AttendanceRecordKeyProjection;
 import com._6.ems.entity.Personnel;
 import com._6.ems.enums.AttendanceType;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com._6.ems.entity.AttendanceRecord;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 
 @Repository
@@ -23,6 +32,8 @@ public interface AttendanceRepository extends JpaRepository<AttendanceRecord, St
 
     List<AttendanceRecord> findByDateAndCheckOutIsNull(LocalDate date);
 
+    List<AttendanceRecord> findByDateAndPersonnel_CodeIn(LocalDate date, Collection<String> codes);
+
     /* ========= BASIC LOOKUPS ========= */
     // Non-locking read (just need to check today’s row exists)
     Optional<AttendanceRecord> findByPersonnel_CodeAndDate(String code, LocalDate date);
@@ -50,6 +61,35 @@ public interface AttendanceRepository extends JpaRepository<AttendanceRecord, St
                                                                 @Param("start") LocalDate start,
                                                                 @Param("end") LocalDate end);
 
+    /* ========= KEYSET PAGES ========= */
+
+    // work_date is unique per personnel, so it is a complete key for one person's history
+    @Query("""
+       select a
+       from AttendanceRecord a
+       join fetch a.personnel p
+       where p.code = :code
+         and a.date >= :start and a.date < :before
+       order by a.date desc
+    """)
+    List<AttendanceRecord> findPageByPersonnelCode(@Param("code") String code,
+                                                   @Param("start") LocalDate start,
+                                                   @Param("before") LocalDate before,
+                                                   Limit limit);
+
+    // (work_date, personnel_code) is the unique key; check_in is nullable so it cannot break ties
+    @Query("""
+       select a from AttendanceRecord a
+       join fetch a.personnel p
+       where a.date <= :end
+         and (a.date > :afterDate or (a.date = :afterDate and p.code > :afterCode))
+       order by a.date, p.code
+    """)
+    List<AttendanceRecord> findPageWithPersonnelByDateBetween(@Param("afterDate") LocalDate afterDate,
+                                                              @Param("afterCode") String afterCode,
+                                                              @Param("end") LocalDate end,
+                                                              Limit limit);
+
     /* ========= FETCH-JOIN VARIANTS ========= */
 
     @Query("""
@@ -67,6 +107,22 @@ public interface AttendanceRepository extends JpaRepository<AttendanceRecord, St
     """)
     List<AttendanceRecord> findAllWithPersonnelByDate(@Param("today") LocalDate today);
 
+    /* ========= STREAMING (exports) ========= */
+
+    // MySQL Connector/J only streams row by row with a fetch size of Integer.MIN_VALUE
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+       select a from AttendanceRecord a
+       join fetch a.personnel p
+       where a.date between :start and :end
+       order by p.code, a.checkIn
+    """)
+    Stream<AttendanceRecord> streamAllWithPersonnelByDateBetween(@Param("start") LocalDate start,
+                                                                 @Param("end") LocalDate end);
+
     /* ========= PESSIMISTIC-LOCKING (use in checkIn / checkOut) ========= */
 
     // Lock the (person, day) row to prevent duplicate concurrent check-ins/updates
@@ -80,26 +136,87 @@ public interface AttendanceRepository extends JpaRepository<AttendanceRecord, St
     Optional<AttendanceRecord> findByPersonnel_CodeAndDateForUpdate(@Param("code") String code,
                                                                     @Param("date") LocalDate date);
 
-    // Lock the latest open attendance (no checkout yet) for a person
+    // Lock the latest open attendance (checked in, no checkout yet) of a person dated since
+    // {@code since}; the ABSENT placeholder created at 02:00 has no check-in and must not catch an
+    // overnight check-out. Pass Limit.of(1): an older day left open must not fail the lookup
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("""
         select a
         from AttendanceRecord a
         join fetch a.personnel p
-        where p.code = :code and a.checkOut is null
+        where p.code = :code and a.date >= :since and a.checkIn is not null and a.checkOut is null
         order by a.date desc, a.checkIn desc
         """)
-    Optional<AttendanceRecord> findOpenForUpdate(@Param("code") String code);
+    Optional<AttendanceRecord> findOpenForUpdate(@Param("code") String code, @Param("since") LocalDate since,
+                                                 Limit limit);
+
+    // Lock the rows a recompute chunk is about to re-derive
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        select a
+        from AttendanceRecord a
+        join fetch a.personnel p
+        where a.id in :ids
+        """)
+    List<AttendanceRecord> findForUpdateByIdIn(@Param("ids") Collection<String> ids);
+
+    // Lock the rows a punch import chunk is about to merge into, one personnel's date range at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        select a
+        from AttendanceRecord a
+        join fetch a.personnel p
+        where p.code = :code and a.date >= :start and a.date <= :end
+        """)
+    List<AttendanceRecord> findForUpdateByCodeAndDateBetween(@Param("code") String code,
+                                                             @Param("start") LocalDate start,
+                                                             @Param("end") LocalDate end);
 //
+    // Half-open [start, end) on the bare column, so MySQL range-scans the (personnel_code, work_date) key
     @Query("SELECT a FROM AttendanceRecord a WHERE a.personnel.code = :personnelCode " +
-            "AND MONTH(a.date) = :month AND YEAR(a.date) = :year " +
+            "AND a.date >= :start AND a.date < :end " +
             "ORDER BY a.date ASC")
-    List<AttendanceRecord> findByPersonnelCodeAndMonthAndYear(
+    List<AttendanceRecord> findByPersonnelCodeAndDateRange(
             @Param("personnelCode") String personnelCode,
-            @Param("month") Integer month,
-            @Param("year") Integer year
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end
     );
 
+    @Query("SELECT a.personnel.code FROM AttendanceRecord a " +
+            "WHERE a.date = :date AND a.checkIn IS NOT NULL")
+    Set<String> findCheckedInCodesByDate(@Param("date") LocalDate date);
+
+    /* ========= RECOMPUTE (keyset over (personnel_code, work_date)) ========= */
+
+    @Query("SELECT COUNT(a) FROM AttendanceRecord a " +
+            "WHERE a.date >= :start AND a.date <= :end AND a.checkIn IS NOT NULL")
+    long countWithCheckInBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Rows without a check-in are ABSENT placeholders and have nothing to re-derive
+    @Query("SELECT a.id AS id, a.personnel.code AS personnelCode, a.date AS date FROM AttendanceRecord a " +
+            "WHERE a.date >= :start AND a.date <= :end AND a.checkIn IS NOT NULL " +
+            "AND (a.personnel.code > :afterCode OR (a.personnel.code = :afterCode AND a.date > :afterDate)) " +
+            "ORDER BY a.personnel.code, a.date")
+    List<AttendanceRecordKeyProjection> findKeysWithCheckInAfter(@Param("start") LocalDate start,
+                                                                 @Param("end") LocalDate end,
+                                                                 @Param("afterCode") String afterCode,
+                                                                 @Param("afterDate") LocalDate afterDate,
+                                                                 Limit limit);
+
+    @Query("SELECT a.personnel.code FROM AttendanceRecord a " +
+            "WHERE a.date = :date AND a.checkOut IS NULL")
+    List<String> findOpenCodesByDate(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query("UPDATE AttendanceRecord a " +
+            "SET a.status = com._6.ems.enums.AttendanceStatus.ABSENT, a.notEnoughHours = true, " +
+            "a.missingHours = :missingHours, a.notes = :notes " +
+            "WHERE a.date = :date AND a.checkOut IS NULL AND a.personnel.code IN :codes")
+    int markOpenAsAbsent(@Param("date") LocalDate date,
+                         @Param("codes") Collection<String> codes,
+                         @Param("missingHours") Double missingHours,
+                         @Param("notes") String notes);
+
     @Query("SELECT a FROM AttendanceRecord a " +
             "WHERE a.personnel.code = :personnelCode AND a.date = :today")
     Optional<AttendanceRecord> findTodayRecordByPersonnelCode(@Param("personnelCode") String personnelCode,
@@ -1,32 +1,31 @@
 package com._6.ems.repository;
 
+import com._6.ems.dto.request.MeetingBookingIntervalProjection;
+import com._6.ems.dto.request.MeetingParticipantIntervalProjection;
 import com._6.ems.entity.MeetingBooking;
-import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 @Repository
 public interface MeetingBookingRepository extends JpaRepository<MeetingBooking, Long> {
 
     boolean existsByRoomIdAndStartTimeBeforeAndEndTimeAfter(Long roomId, OffsetDateTime startTime, OffsetDateTime endTime);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END " +
             "FROM MeetingBooking b " +
             "WHERE b.roomId = :roomId " +
             "AND b.startTime < :endTime " +
             "AND b.endTime > :startTime")
-    boolean existsConflictingBookingWithLock(@Param("roomId") Long roomId,
-                                             @Param("startTime") OffsetDateTime startTime,
-                                             @Param("endTime") OffsetDateTime endTime);
+    boolean existsConflictingBooking(@Param("roomId") Long roomId,
+                                     @Param("startTime") OffsetDateTime startTime,
+                                     @Param("endTime") OffsetDateTime endTime);
 
     @Query("SELECT DISTINCT b FROM MeetingBooking b " +
             "LEFT JOIN FETCH b.attendees a " +
@@ -45,7 +44,6 @@ public interface MeetingBookingRepository extends JpaRepository<MeetingBooking,
             "ORDER BY b.startTime DESC")
     List<MeetingBooking> findAllWithAttendees();
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END " +
             "FROM MeetingBooking b " +
             "WHERE b.id != :excludeId " +
@@ -58,13 +56,43 @@ public interface MeetingBookingRepository extends JpaRepository<MeetingBooking,
             @Param("startTime") OffsetDateTime startTime,
             @Param("endTime") OffsetDateTime endTime);
 
-    @Query("SELECT DISTINCT b.roomId FROM MeetingBooking b " +
-            "WHERE b.roomId IN :roomIds " +
-            "AND b.startTime <= :now " +
-            "AND b.endTime > :now")
-    Set<Long> findBookedRoomIds(
-            @Param("roomIds") Set<Long> roomIds,
-            @Param("now") OffsetDateTime now);
+    // what RoomAvailabilityIndex loads: every booking that can still conflict
+    @Query("SELECT b.id AS id, b.roomId AS roomId, b.startTime AS startTime, b.endTime AS endTime " +
+            "FROM MeetingBooking b WHERE b.endTime > :now")
+    List<MeetingBookingIntervalProjection> findIntervalsEndingAfter(@Param("now") OffsetDateTime now);
+
+    // what MeetingFreeBusyService loads: one row per organizer and per attendee of a booking
+    @Query("SELECT b.id AS bookingId, b.organizerCode AS personnelCode, " +
+            "b.startTime AS startTime, b.endTime AS endTime " +
+            "FROM MeetingBooking b WHERE b.endTime > :now")
+    List<MeetingParticipantIntervalProjection> findOrganizerIntervalsEndingAfter(@Param("now") OffsetDateTime now);
+
+    @Query("SELECT b.id AS bookingId, a.attendeeCode AS personnelCode, " +
+            "b.startTime AS startTime, b.endTime AS endTime " +
+            "FROM MeetingAttendee a JOIN a.booking b WHERE b.endTime > :now")
+    List<MeetingParticipantIntervalProjection> findAttendeeIntervalsEndingAfter(@Param("now") OffsetDateTime now);
+
+    @Query("SELECT b.id AS bookingId, b.organizerCode AS personnelCode, " +
+            "b.startTime AS startTime, b.endTime AS endTime " +
+            "FROM MeetingBooking b " +
+            "WHERE b.organizerCode IN :codes " +
+            "AND b.startTime < :endTime " +
+            "AND b.endTime > :startTime")
+    List<MeetingParticipantIntervalProjection> findOrganizerIntervalsBetween(
+            @Param("codes") Collection<String> codes,
+            @Param("startTime") OffsetDateTime startTime,
+            @Param("endTime") OffsetDateTime endTime);
+
+    @Query("SELECT b.id AS bookingId, a.attendeeCode AS personnelCode, " +
+            "b.startTime AS startTime, b.endTime AS endTime " +
+            "FROM MeetingAttendee a JOIN a.booking b " +
+            "WHERE a.attendeeCode IN :codes " +
+            "AND b.startTime < :endTime " +
+            "AND b.endTime > :startTime")
+    List<MeetingParticipantIntervalProjection> findAttendeeIntervalsBetween(
+            @Param("codes") Collection<String> codes,
+            @Param("startTime") OffsetDateTime startTime,
+            @Param("endTime") OffsetDateTime endTime);
 
     @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END " +
             "FROM MeetingBooking b " +
@@ -74,5 +102,8 @@ public interface MeetingBookingRepository extends JpaRepository<MeetingBooking,
             @Param("roomId") Long roomId,
             @Param("now") OffsetDateTime now);
 
+    @Query("SELECT b.id FROM MeetingBooking b WHERE b.organizerCode = :organizerCode")
+    List<Long> findIdsByOrganizerCode(@Param("organizerCode") String organizerCode);
+
     void deleteByOrganizerCode(String organizerCode);
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com._6.ems.repository;
+
+import com._6.ems.entity.MeetingSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MeetingSeriesRepository extends JpaRepository<MeetingSeries, Long> {
+
+    @Query("SELECT s FROM MeetingSeries s " +
+            "LEFT JOIN FETCH s.exceptionDates " +
+            "LEFT JOIN FETCH s.attendeeCodes " +
+            "WHERE s.id = :id")
+    Optional<MeetingSeries> findByIdWithDetails(@Param("id") Long id);
+
+    // what RoomAvailabilityIndex and MeetingFreeBusyService load: every series that can still conflict
+    @Query("SELECT DISTINCT s FROM MeetingSeries s " +
+            "LEFT JOIN FETCH s.exceptionDates " +
+            "LEFT JOIN FETCH s.attendeeCodes " +
+            "WHERE s.lastEndTime > :now")
+    List<MeetingSeries> findWithDetailsEndingAfter(@Param("now") OffsetDateTime now);
+
+    @Query("SELECT DISTINCT s FROM MeetingSeries s " +
+            "LEFT JOIN FETCH s.exceptionDates " +
+            "LEFT JOIN FETCH s.attendeeCodes " +
+            "WHERE (s.organizerCode IN :codes OR s.id IN " +
+            "(SELECT s2.id FROM MeetingSeries s2 JOIN s2.attendeeCodes c WHERE c IN :codes)) " +
+            "AND s.startTime < :endTime " +
+            "AND s.lastEndTime > :startTime")
+    List<MeetingSeries> findWithDetailsByParticipantsBetween(
+            @Param("codes") Collection<String> codes,
+            @Param("startTime") OffsetDateTime startTime,
+            @Param("endTime") OffsetDateTime endTime);
+
+    @Query("SELECT DISTINCT s FROM MeetingSeries s " +
+            "LEFT JOIN FETCH s.exceptionDates " +
+            "LEFT JOIN FETCH s.attendeeCodes " +
+            "WHERE s.organizerCode = :userCode " +
+            "OR s.id IN (SELECT s2.id FROM MeetingSeries s2 JOIN s2.attendeeCodes c WHERE c = :userCode) " +
+            "ORDER BY s.startTime DESC")
+    List<MeetingSeries> findWithDetailsByUserCode(@Param("userCode") String userCode);
+
+    boolean existsByRoomIdAndLastEndTimeAfter(Long roomId, OffsetDateTime now);
+
+    List<MeetingSeries> findByOrganizerCode(String organizerCode);
+}
@@ -0,0 +1,17 @@
+package com._6.ems.repository;
+
+import com._6.ems.entity.PayrollRun;
+import com._6.ems.enums.PayrollRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PayrollRunRepository extends JpaRepository<PayrollRun, String> {
+
+    Optional<PayrollRun> findByYearAndMonth(Integer year, Integer month);
+
+    List<PayrollRun> findByStatus(PayrollRunStatus status);
+}
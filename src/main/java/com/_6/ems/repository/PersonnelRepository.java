@@ -1,16 +1,40 @@
 package com._6.ems.repository;
 
 import com._6.ems.entity.Personnel;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface PersonnelRepository extends JpaRepository<Personnel, String> {
     Optional<Personnel> findByAccount_Id(String accountId);
     Optional<Personnel> findByCode(String code);
     List<Personnel> findByCodeIn(Collection<String> codes);
+
+    @Query("SELECT p FROM Personnel p LEFT JOIN FETCH p.account WHERE p.code IN :codes")
+    List<Personnel> findWithAccountByCodeIn(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT p FROM Personnel p LEFT JOIN FETCH p.account")
+    List<Personnel> findAllWithAccount();
+
+    // employees and managers each reference their department from their own table
+    @Query("SELECT COALESCE(ed.id, md.id) FROM Personnel p " +
+            "LEFT JOIN Employee e ON e.code = p.code LEFT JOIN e.department ed " +
+            "LEFT JOIN Manager m ON m.code = p.code LEFT JOIN m.department md " +
+            "WHERE p.code = :code")
+    Optional<Integer> findDepartmentIdByCode(@Param("code") String code);
+
+    @Query("SELECT p.code FROM Personnel p WHERE p.code IN :codes")
+    Set<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    // keyset walk over all personnel codes, used to chunk payroll runs
+    @Query("SELECT p.code FROM Personnel p WHERE p.code > :after ORDER BY p.code")
+    List<String> findCodesAfter(@Param("after") String after, Limit limit);
 }
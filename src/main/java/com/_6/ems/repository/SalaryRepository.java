@@ -1,10 +1,15 @@
 package com._6.ems.repository;
 
 import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-import com._6.ems.dto.request.SalaryStatisticsProjection;
+import com._6.ems.dto.request.SalaryAllowanceProjection;
+import com._6.ems.dto.request.SalaryFigureProjection;
 import com._6.ems.entity.Personnel;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -21,6 +26,26 @@ public interface SalaryRepository extends JpaRepository<Salary, String> {
 
     boolean existsByPersonnelAndMonthAndYear(Personnel personnel, Integer month, Integer year);
 
+    @Query("SELECT s.personnel.code FROM Salary s " +
+            "WHERE s.personnel.code IN :codes AND s.month = :month AND s.year = :year")
+    Set<String> findPersonnelCodesWithSalary(@Param("codes") Collection<String> codes,
+                                             @Param("month") Integer month,
+                                             @Param("year") Integer year);
+
+    @Query("SELECT s FROM Salary s JOIN FETCH s.personnel p LEFT JOIN FETCH p.account " +
+            "WHERE s.month = :month AND s.year = :year AND p.code IN :codes")
+    List<Salary> findWithPersonnelByPeriodAndPersonnelCodeIn(@Param("month") Integer month,
+                                                             @Param("year") Integer year,
+                                                             @Param("codes") Collection<String> codes);
+
+    // keyset walk over one month's salaries in personnel code order
+    @Query("SELECT s FROM Salary s JOIN FETCH s.personnel p " +
+            "WHERE s.month = :month AND s.year = :year AND p.code > :after ORDER BY p.code")
+    List<Salary> findWithPersonnelByPeriodAfterCode(@Param("month") Integer month,
+                                                    @Param("year") Integer year,
+                                                    @Param("after") String after,
+                                                    Limit limit);
+
     Page<Salary> findByPersonnelCodeOrderByYearDescMonthDesc(String personnelCode, Pageable pageable);
 
     @Query("SELECT s FROM Salary s WHERE " +
@@ -33,15 +58,20 @@ public interface SalaryRepository extends JpaRepository<Salary, String> {
                               @Param("toYear") Integer toYear,
                               Pageable pageable);
 
-    // Thống kê tổng lương theo tháng/năm
-    @Query("SELECT " +
-            "COUNT(s) as totalEmployees, " +
-            "SUM(s.grossSalary) as totalGross, " +
-            "SUM(s.netSalary) as totalNet, " +
-            "SUM(s.totalDeductions) as totalDeductions, " +
-            "AVG(s.netSalary) as avgNetSalary " +
+    // one row per salary of the month with what salary_summary groups by
+    @Query("SELECT s.grossSalary AS grossSalary, s.netSalary AS netSalary, s.totalDeductions AS totalDeductions, " +
+            "a.role AS role, COALESCE(ed.id, md.id) AS departmentId, COALESCE(ed.name, md.name) AS departmentName " +
+            "FROM Salary s JOIN s.personnel p LEFT JOIN p.account a " +
+            "LEFT JOIN Employee e ON e.code = p.code LEFT JOIN e.department ed " +
+            "LEFT JOIN Manager m ON m.code = p.code LEFT JOIN m.department md " +
+            "WHERE s.month = :month AND s.year = :year")
+    List<SalaryFigureProjection> findFiguresByMonthAndYear(@Param("month") Integer month, @Param("year") Integer year);
+
+    // the position allowance each salary of the month was calculated with
+    @Query("SELECT s.personnel.code AS personnelCode, s.positionAllowance AS positionAllowance " +
             "FROM Salary s WHERE s.month = :month AND s.year = :year")
-    SalaryStatisticsProjection getStatistics(@Param("month") Integer month, @Param("year") Integer year);
+    List<SalaryAllowanceProjection> findAllowancesByMonthAndYear(@Param("month") Integer month,
+                                                                 @Param("year") Integer year);
 
     Page<Salary> findByPersonnelCodeAndMonthAndYearOrderByYearDescMonthDesc(
             String personnelCode, Integer month, Integer year, Pageable pageable
@@ -0,0 +1,30 @@
+package com._6.ems.repository;
+
+import com._6.ems.entity.SalarySummary;
+import com._6.ems.enums.SalarySummaryScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SalarySummaryRepository extends JpaRepository<SalarySummary, String> {
+
+    boolean existsByYearAndMonth(Integer year, Integer month);
+
+    Optional<SalarySummary> findFirstByYearAndMonthAndScope(Integer year, Integer month, SalarySummaryScope scope);
+
+    List<SalarySummary> findByYearAndMonthOrderByScopeAscDepartmentNameAscRoleAsc(Integer year, Integer month);
+
+    List<SalarySummary> findByYearAndMonthAndScopeOrderByDepartmentNameAscRoleAsc(Integer year,
+                                                                                Integer month,
+                                                                                SalarySummaryScope scope);
+
+    @Modifying
+    @Query("DELETE FROM SalarySummary s WHERE s.year = :year AND s.month = :month")
+    int deleteByYearAndMonth(@Param("year") Integer year, @Param("month") Integer month);
+}
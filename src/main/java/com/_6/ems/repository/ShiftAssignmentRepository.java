@@ -0,0 +1,28 @@
+package com._6.ems.repository;
+
+import com._6.ems.entity.ShiftAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ShiftAssignmentRepository extends JpaRepository<ShiftAssignment, Long> {
+
+    Optional<ShiftAssignment> findByPersonnelCode(String personnelCode);
+
+    Optional<ShiftAssignment> findByDepartmentId(Integer departmentId);
+
+    @Query("SELECT a.shiftTemplate.id FROM ShiftAssignment a WHERE a.personnelCode = :code")
+    Optional<Long> findTemplateIdByPersonnelCode(@Param("code") String personnelCode);
+
+    @Query("SELECT a.shiftTemplate.id FROM ShiftAssignment a WHERE a.departmentId = :departmentId")
+    Optional<Long> findTemplateIdByDepartmentId(@Param("departmentId") Integer departmentId);
+
+    @Modifying
+    @Query("DELETE FROM ShiftAssignment a WHERE a.shiftTemplate.id = :templateId")
+    int deleteByShiftTemplateId(@Param("templateId") Long templateId);
+}
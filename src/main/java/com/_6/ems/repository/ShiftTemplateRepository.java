@@ -0,0 +1,11 @@
+package com._6.ems.repository;
+
+import com._6.ems.entity.ShiftTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ShiftTemplateRepository extends JpaRepository<ShiftTemplate, Long> {
+
+    boolean existsByName(String name);
+}
@@ -1,62 +1,87 @@
 package com._6.ems.schedule;
 
 import com._6.ems.entity.AttendanceRecord;
-import com._6.ems.entity.Personnel;
-import com._6.ems.enums.AttendanceStatus;
+import com._6.ems.event.AttendanceAutoAbsentEvent;
+import com._6.ems.event.AttendanceRecordsChangedEvent;
+import com._6.ems.repository.AttendanceBatchRepository;
 import com._6.ems.repository.AttendanceRepository;
-import com._6.ems.repository.PersonnelRepository;
+import com._6.ems.service.AttendanceAggregateService;
+import com._6.ems.service.ShiftScheduleService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class AttendanceScheduler {
-    private final PersonnelRepository personnelRepository;
     private final AttendanceRepository attendanceRepository;
+    private final AttendanceBatchRepository attendanceBatchRepository;
+    private final AttendanceAggregateService attendanceAggregateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShiftScheduleService shiftScheduleService;
 
     @Scheduled(cron = "0 0 2 * * 1-5", zone = "Asia/Ho_Chi_Minh")
     @Transactional
     public void createAttendanceRecordForToday() {
         LocalDate today = LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh"));
-        List<Personnel> personnelList = personnelRepository.findAll();
-
-        for (Personnel p : personnelList) {
-            boolean hasRecord = attendanceRepository.existsByPersonnelAndDate(p, today);
-            if (!hasRecord) {
-                AttendanceRecord attendance = AttendanceRecord.builder()
-                        .personnel(p)
-                        .date(today)
-                        .status(AttendanceStatus.ABSENT)
-                        .build();
-                attendanceRepository.save(attendance);
-            }
+
+        long started = System.currentTimeMillis();
+        // on the 1st the month is seeded before its first placeholders are added to it
+        attendanceAggregateService.ensureMonth(YearMonth.from(today));
+        // aggregates first: both statements pick the personnel that have no row for today yet
+        attendanceBatchRepository.addAbsentPlaceholdersToMonthlyAggregates(today);
+        int created = attendanceBatchRepository.insertAbsentPlaceholders(today);
+
+        log.info("Created {} absent attendance records for {} in {} ms",
+                created, today, System.currentTimeMillis() - started);
+
+        if (created > 0) {
+            eventPublisher.publishEvent(new AttendanceRecordsChangedEvent(today, null));
         }
     }
 
-    @Scheduled(cron = "0 0 5 * * TUE-SAT", zone = "Asia/Ho_Chi_Minh")
+    // a day shift left open since yesterday, or an overnight shift that started the day before and
+    // ended yesterday morning, is closed as absent; daily, since shifts can start on any weekday
+    // (a Friday night shift ends on Saturday and is closed on Sunday)
+    @Scheduled(cron = "0 0 5 * * *", zone = "Asia/Ho_Chi_Minh")
     @Transactional
     public void markIncompleteCheckoutsAsAbsent() {
         LocalDate yesterday = LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh")).minusDays(1);
 
+        markAsAbsent(yesterday, false);
+        markAsAbsent(yesterday.minusDays(1), true);
+    }
 
-        List<AttendanceRecord> incompleteRecords =
-                attendanceRepository.findByDateAndCheckOutIsNull(yesterday);
+    private void markAsAbsent(LocalDate date, boolean overnight) {
+        // grouped by the shift's standard hours, which become the missing hours
+        Map<Double, List<String>> codesByStandardHours = attendanceRepository.findOpenCodesByDate(date).stream()
+                .map(code -> Map.entry(code, shiftScheduleService.shiftFor(code)))
+                .filter(entry -> entry.getValue().isOvernight() == overnight)
+                .collect(Collectors.groupingBy(entry -> entry.getValue().getStandardWorkHours(),
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        if (codesByStandardHours.isEmpty()) return;
 
-        for (AttendanceRecord attendanceRecord : incompleteRecords) {
-            attendanceRecord.setStatus(AttendanceStatus.ABSENT);
-            attendanceRecord.setNotEnoughHours(true);
-            attendanceRecord.setMissingHours(8.0);
-            attendanceRecord.setNotes("Auto-marked absent due to missing check-out");
+        int updated = 0;
+        List<String> personnelCodes = new ArrayList<>();
+        for (Map.Entry<Double, List<String>> group : codesByStandardHours.entrySet()) {
+            updated += attendanceRepository.markOpenAsAbsent(
+                    date, group.getValue(), group.getKey(), AttendanceRecord.MISSING_CHECK_OUT_NOTE);
+            personnelCodes.addAll(group.getValue());
         }
 
-        if (!incompleteRecords.isEmpty()) {
-            attendanceRepository.saveAll(incompleteRecords);
-        }
+        eventPublisher.publishEvent(new AttendanceAutoAbsentEvent(date, personnelCodes));
+        log.info("Auto-marked {} attendance records of {} as absent", updated, date);
     }
 }
@@ -0,0 +1,84 @@
+package com._6.ems.schedule;
+
+import com._6.ems.event.AttendanceAutoAbsentEvent;
+import com._6.ems.event.SalaryDirtyEvent;
+import com._6.ems.service.SalaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces SalaryDirtyEvents: every (personnel, month) marked dirty during a window is
+ * recomputed once when the window closes, however many checkouts touched it. A failed
+ * recomputation is retried in the next windows, up to MAX_ATTEMPTS times.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SalaryRecalculationWorker {
+
+    private final SalaryService salaryService;
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final Set<SalaryDirtyEvent> dirty = ConcurrentHashMap.newKeySet();
+    // failed recomputations so far, per dirty key; cleared when it succeeds or is given up
+    private final Map<SalaryDirtyEvent, Integer> failures = new ConcurrentHashMap<>();
+
+    // only after commit: a rolled-back checkout must not trigger a recomputation
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalaryDirty(SalaryDirtyEvent event) {
+        dirty.add(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAutoAbsent(AttendanceAutoAbsentEvent event) {
+        markDirty(event.personnelCodes(), YearMonth.from(event.date()));
+    }
+
+    public void markDirty(Collection<String> personnelCodes, YearMonth period) {
+        personnelCodes.forEach(code -> dirty.add(new SalaryDirtyEvent(code, period)));
+    }
+
+    @Scheduled(fixedDelayString = "${salary.recalculation.window-ms:30000}")
+    public void recalculateDirtySalaries() {
+        if (dirty.isEmpty()) return;
+
+        List<SalaryDirtyEvent> batch = new ArrayList<>(dirty);
+        dirty.removeAll(batch);
+
+        long started = System.currentTimeMillis();
+        int failed = 0;
+        for (SalaryDirtyEvent event : batch) {
+            try {
+                salaryService.recalculateSalary(event.personnelCode(), event.period());
+                failures.remove(event);
+            } catch (RuntimeException e) {
+                failed++;
+                int attempts = failures.merge(event, 1, Integer::sum);
+                if (attempts < MAX_ATTEMPTS) {
+                    log.warn("Salary recalculation failed for {} {} (attempt {}), retrying in the next window",
+                            event.personnelCode(), event.period(), attempts, e);
+                    dirty.add(event);
+                } else {
+                    failures.remove(event);
+                    log.error("Giving up salary recalculation for {} {} after {} attempts; recalculate it manually",
+                            event.personnelCode(), event.period(), attempts, e);
+                }
+            }
+        }
+
+        log.info("Recalculated {} salaries ({} failed) in {} ms",
+                batch.size() - failed, failed, System.currentTimeMillis() - started);
+    }
+}
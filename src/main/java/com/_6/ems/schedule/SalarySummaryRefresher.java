@@ -0,0 +1,60 @@
+package com._6.ems.schedule;
+
+import com._6.ems.event.SalariesChangedEvent;
+import com._6.ems.service.SalarySummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces SalariesChangedEvents: a month whose salaries changed during a window has its
+ * salary_summary rows rebuilt once when the window closes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SalarySummaryRefresher {
+
+    private final SalarySummaryService salarySummaryService;
+
+    private final Set<YearMonth> dirty = ConcurrentHashMap.newKeySet();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalariesChanged(SalariesChangedEvent event) {
+        dirty.add(event.period());
+    }
+
+    // changes made right before a restart were never summarized
+    @EventListener(ApplicationReadyEvent.class)
+    public void markCurrentMonth() {
+        dirty.add(YearMonth.now(ZoneId.of("Asia/Ho_Chi_Minh")));
+    }
+
+    @Scheduled(fixedDelayString = "${salary.summary.refresh-window-ms:60000}")
+    public void refreshDirtyMonths() {
+        if (dirty.isEmpty()) return;
+
+        List<YearMonth> batch = new ArrayList<>(dirty);
+        dirty.removeAll(batch);
+
+        for (YearMonth period : batch) {
+            try {
+                salarySummaryService.refresh(period);
+            } catch (RuntimeException e) {
+                dirty.add(period);
+                log.error("Salary summary refresh failed for {}", period, e);
+            }
+        }
+    }
+}
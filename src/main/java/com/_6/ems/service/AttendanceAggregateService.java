@@ -0,0 +1,188 @@
+package com._6.ems.service;
+
+import com._6.ems.entity.AttendanceAggregateMonth;
+import com._6.ems.entity.AttendanceMonthlyAggregate;
+import com._6.ems.entity.AttendanceRecord;
+import com._6.ems.event.AttendanceAutoAbsentEvent;
+import com._6.ems.record.AttendanceContribution;
+import com._6.ems.repository.AttendanceAggregateMonthRepository;
+import com._6.ems.repository.AttendanceAggregateRepository;
+import com._6.ems.repository.AttendanceBatchRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class AttendanceAggregateService {
+
+    AttendanceAggregateRepository attendanceAggregateRepository;
+    AttendanceAggregateMonthRepository attendanceAggregateMonthRepository;
+    AttendanceBatchRepository attendanceBatchRepository;
+    PlatformTransactionManager transactionManager;
+
+    @NonFinal
+    TransactionTemplate seedTransaction;
+
+    @PostConstruct
+    void init() {
+        seedTransaction = new TransactionTemplate(transactionManager);
+        seedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Applies the change of one attendance record to its month. {@code before} is the record's
+     * contribution prior to the change ({@link AttendanceContribution#NONE} for a new record).
+     */
+    @Transactional
+    public void recordChanged(AttendanceContribution before, AttendanceRecord after) {
+        AttendanceContribution delta = AttendanceContribution.of(after).minus(before);
+        if (delta.isZero()) return;
+
+        YearMonth period = YearMonth.from(after.getDate());
+        // a month seeded just now already counts the change
+        if (ensureMonth(period)) return;
+        attendanceBatchRepository.addToMonthlyAggregates(period, Map.of(after.getPersonnel().getCode(), delta));
+    }
+
+    /**
+     * Adds per-personnel deltas of records already written in the current transaction. Nothing is
+     * added to a month that gets seeded here, since the seed reads those records.
+     */
+    @Transactional
+    public void addAll(YearMonth period, Map<String, AttendanceContribution> deltas) {
+        if (ensureMonth(period)) return;
+        attendanceBatchRepository.addToMonthlyAggregates(period, deltas);
+    }
+
+    /**
+     * Seeds the month from attendance_record unless it already is; returns whether it was seeded by
+     * this call. Concurrent callers are serialized on the month's marker row, and the check is made
+     * again under the lock, so a month is seeded exactly once. Writers call it before writing the
+     * month's records, or use the result to skip their delta.
+     */
+    @Transactional
+    public boolean ensureMonth(YearMonth period) {
+        // a month never goes back to unseeded, so the plain read can only be stale the safe way
+        if (attendanceAggregateMonthRepository.existsByYearAndMonthAndSeededTrue(
+                period.getYear(), period.getMonthValue())) {
+            return false;
+        }
+
+        attendanceBatchRepository.lockAggregateMonth(period);
+        AttendanceAggregateMonth marker = attendanceAggregateMonthRepository
+                .findForUpdateByYearAndMonth(period.getYear(), period.getMonthValue())
+                .orElseThrow();
+        if (marker.isSeeded()) return false;
+
+        // rows created by deltas before the marker existed hold the deltas only
+        attendanceAggregateRepository.deleteByYearAndMonth(period.getYear(), period.getMonthValue());
+        int rows = attendanceAggregateRepository.insertFromRecords(
+                period.getYear(), period.getMonthValue(),
+                period.atDay(1), period.plusMonths(1).atDay(1));
+        marker.setSeeded(true);
+        log.info("Seeded {} attendance aggregates for {}", rows, period);
+        return true;
+    }
+
+    /**
+     * Returns the month's totals for one personnel. Months that predate the aggregate table are
+     * rebuilt from attendance_record on first access.
+     */
+    @Transactional
+    public AttendanceMonthlyAggregate getMonthly(String personnelCode, YearMonth period) {
+        ensureMonthForRead(period);
+        return attendanceAggregateRepository
+                .findByPersonnelCodeAndYearAndMonth(personnelCode, period.getYear(), period.getMonthValue())
+                .orElseGet(() -> AttendanceMonthlyAggregate.builder()
+                        .personnelCode(personnelCode)
+                        .year(period.getYear())
+                        .month(period.getMonthValue())
+                        .build());
+    }
+
+    /**
+     * Same as {@link #getMonthly(String, YearMonth)} for many personnel at once, in one query.
+     */
+    @Transactional
+    public Map<String, AttendanceMonthlyAggregate> getMonthly(Collection<String> personnelCodes, YearMonth period) {
+        ensureMonthForRead(period);
+        Map<String, AttendanceMonthlyAggregate> result = new HashMap<>();
+        attendanceAggregateRepository
+                .findByYearAndMonthAndPersonnelCodeIn(period.getYear(), period.getMonthValue(), personnelCodes)
+                .forEach(aggregate -> result.put(aggregate.getPersonnelCode(), aggregate));
+        personnelCodes.forEach(code -> result.computeIfAbsent(code, missing -> AttendanceMonthlyAggregate.builder()
+                .personnelCode(missing)
+                .year(period.getYear())
+                .month(period.getMonthValue())
+                .build()));
+        return result;
+    }
+
+    @Transactional
+    public List<AttendanceMonthlyAggregate> getAllMonthly(YearMonth period) {
+        ensureMonthForRead(period);
+        return attendanceAggregateRepository
+                .findAllWithPersonnelByYearAndMonth(period.getYear(), period.getMonthValue());
+    }
+
+    @Transactional
+    public int rebuild(YearMonth period, Collection<String> personnelCodes) {
+        if (personnelCodes.isEmpty() || ensureMonth(period)) return 0;
+
+        attendanceAggregateRepository.deleteByYearAndMonthAndPersonnelCodeIn(
+                period.getYear(), period.getMonthValue(), personnelCodes);
+        return attendanceAggregateRepository.insertFromRecordsForCodes(
+                period.getYear(), period.getMonthValue(),
+                period.atDay(1), period.plusMonths(1).atDay(1),
+                personnelCodes);
+    }
+
+    // Seed the running month at startup rather than on the first check-in
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seedCurrentMonth() {
+        ensureMonth(YearMonth.from(LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh"))));
+    }
+
+    // Synchronous on purpose: the refresh commits or rolls back together with the bulk update
+    @EventListener
+    @Transactional
+    public void onAutoAbsent(AttendanceAutoAbsentEvent event) {
+        rebuild(YearMonth.from(event.date()), event.personnelCodes());
+    }
+
+    /* Helper methods */
+
+    // A read-only caller cannot write the seed in its own transaction. It holds no locks on the
+    // month's records either, so seeding in a separate one cannot wait on the caller.
+    private void ensureMonthForRead(YearMonth period) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ensureMonth(period);
+        } else if (!attendanceAggregateMonthRepository.existsByYearAndMonthAndSeededTrue(
+                period.getYear(), period.getMonthValue())) {
+            seedTransaction.executeWithoutResult(status -> ensureMonth(period));
+        }
+    }
+}
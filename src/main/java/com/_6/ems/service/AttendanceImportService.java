@@ -0,0 +1,359 @@
+package com._6.ems.service;
+
+import com._6.ems.dto.response.AttendanceImportResponse;
+import com._6.ems.entity.AttendanceRecord;
+import com._6.ems.entity.Personnel;
+import com._6.ems.enums.AttendanceStatus;
+import com._6.ems.event.AttendanceRecordsChangedEvent;
+import com._6.ems.event.SalaryDirtyEvent;
+import com._6.ems.helper.CompiledShift;
+import com._6.ems.record.AttendanceContribution;
+import com._6.ems.repository.AttendanceBatchRepository;
+import com._6.ems.repository.AttendanceRepository;
+import com._6.ems.repository.PersonnelRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+
+/**
+ * Bulk ingestion of badge-reader punch logs. Each line is {@code personnel_code,timestamp}; further
+ * columns (reader id, direction, ...) are ignored. A timestamp without an offset is read as
+ * Asia/Ho_Chi_Minh local time.
+ * <p>
+ * Punches are paired per personnel and work date: the first one is the check-in, the last one the
+ * check-out. Existing check-ins and check-outs of that date count as punches too, and the result
+ * is evaluated with the personnel's shift exactly like a live check-in/check-out, so importing the
+ * same file twice, or a file overlapping live punches, converges on the same rows. That is also
+ * what lets the file be read in bounded flushes of {@code attendance.import.flush-size} punches
+ * instead of being held in memory whole.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceImportService {
+
+    private static final int MAX_REPORTED = 50;
+    // MySQL copes with far larger IN lists, but the statement cache does not
+    private static final int CODE_LOOKUP_SIZE = 1000;
+    // a second badge tap within a minute of the first is not a check-out
+    private static final int DEBOUNCE_SECONDS = 60;
+
+    private static final DateTimeFormatter PUNCH_TIME = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .optionalStart().appendLiteral('T').optionalEnd()
+            .optionalStart().appendLiteral(' ').optionalEnd()
+            .append(DateTimeFormatter.ISO_LOCAL_TIME)
+            .optionalStart().appendOffsetId().optionalEnd()
+            .toFormatter();
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceBatchRepository attendanceBatchRepository;
+    private final AttendanceAggregateService attendanceAggregateService;
+    private final PersonnelRepository personnelRepository;
+    private final ShiftScheduleService shiftScheduleService;
+    private final SalaryService salaryService;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${attendance.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${attendance.import.flush-size:100000}")
+    private int flushSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    private record WorkDay(String personnelCode, long epochDay) {
+    }
+
+    // what an import has done so far, over all of its flushes
+    private static final class Progress {
+        private final Set<String> known = new HashSet<>();
+        private final Set<String> unknown = new HashSet<>();
+        private final List<String> unknownReported = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private long punchesAccepted;
+        private long linesRejected;
+        private int recordsWritten;
+        private long firstDay = Long.MAX_VALUE;
+        private long lastDay = Long.MIN_VALUE;
+    }
+
+    // a personnel's punches in file order, kept as primitives
+    private static final class Punches {
+        private long[] epochSeconds = new long[8];
+        private int size;
+
+        void add(long epochSecond) {
+            if (size == epochSeconds.length) epochSeconds = Arrays.copyOf(epochSeconds, size * 2);
+            epochSeconds[size++] = epochSecond;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        // every chunk commits on its own, so a failure late in a large file keeps the earlier chunks
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public AttendanceImportResponse importPunches(InputStream in) throws IOException {
+        long started = System.currentTimeMillis();
+        long linesRead = 0;
+        Progress progress = new Progress();
+        Map<String, Punches> punchesByCode = new HashMap<>();
+        int buffered = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                linesRead++;
+                if (line.isBlank() || line.startsWith("#")) continue;
+
+                int first = line.indexOf(',');
+                int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+                String code = first < 0 ? line.trim() : line.substring(0, first).trim();
+                String time = first < 0 ? "" : (second < 0 ? line.substring(first + 1) : line.substring(first + 1, second)).trim();
+
+                // header row
+                if (linesRead == 1 && (time.isEmpty() || !Character.isDigit(time.charAt(0)))) continue;
+
+                if (code.isEmpty() || time.isEmpty()) {
+                    progress.linesRejected++;
+                    report(progress.errors, "line " + linesRead + ": expected personnel_code,timestamp");
+                    continue;
+                }
+                try {
+                    punchesByCode.computeIfAbsent(code, c -> new Punches()).add(parsePunchTime(time));
+                } catch (DateTimeParseException e) {
+                    progress.linesRejected++;
+                    report(progress.errors, "line " + linesRead + ": unreadable timestamp '" + time + "'");
+                    continue;
+                }
+
+                if (++buffered >= flushSize) {
+                    flush(punchesByCode, progress);
+                    punchesByCode.clear();
+                    buffered = 0;
+                }
+            }
+        }
+        flush(punchesByCode, progress);
+
+        log.info("Imported {} punches into {} attendance records ({} lines rejected) in {} ms",
+                progress.punchesAccepted, progress.recordsWritten, progress.linesRejected,
+                System.currentTimeMillis() - started);
+
+        boolean empty = progress.firstDay == Long.MAX_VALUE;
+        return AttendanceImportResponse.builder()
+                .linesRead(linesRead)
+                .punchesAccepted(progress.punchesAccepted)
+                .linesRejected(progress.linesRejected)
+                .recordsWritten(progress.recordsWritten)
+                .firstDate(empty ? null : LocalDate.ofEpochDay(progress.firstDay))
+                .lastDate(empty ? null : LocalDate.ofEpochDay(progress.lastDay))
+                .unknownPersonnelCodes(progress.unknownReported)
+                .errors(progress.errors)
+                .build();
+    }
+
+    /* Helper methods */
+
+    // Pairs the buffered punches per work day and writes them chunk by chunk. A work day whose
+    // punches straddle two flushes is written twice; the second write merges the stored check-in and
+    // check-out, so it ends up as if all punches had been read at once.
+    private void flush(Map<String, Punches> punchesByCode, Progress progress) {
+        List<String> unresolved = punchesByCode.keySet().stream()
+                .filter(code -> !progress.known.contains(code) && !progress.unknown.contains(code))
+                .toList();
+        for (int from = 0; from < unresolved.size(); from += CODE_LOOKUP_SIZE) {
+            progress.known.addAll(personnelRepository.findExistingCodes(
+                    unresolved.subList(from, Math.min(from + CODE_LOOKUP_SIZE, unresolved.size()))));
+        }
+        unresolved.stream()
+                .filter(code -> !progress.known.contains(code))
+                .forEach(code -> {
+                    progress.unknown.add(code);
+                    report(progress.unknownReported, code);
+                });
+
+        // work day -> {first punch, last punch}
+        Map<WorkDay, long[]> spans = new HashMap<>();
+        for (Map.Entry<String, Punches> entry : punchesByCode.entrySet()) {
+            String code = entry.getKey();
+            Punches punches = entry.getValue();
+            if (progress.unknown.contains(code)) {
+                progress.linesRejected += punches.size;
+                continue;
+            }
+
+            CompiledShift shift = shiftScheduleService.shiftFor(code);
+            for (int i = 0; i < punches.size; i++) {
+                long punch = punches.epochSeconds[i];
+                long[] span = spans.computeIfAbsent(new WorkDay(code, shift.workEpochDay(punch)),
+                        day -> new long[]{punch, punch});
+                span[0] = Math.min(span[0], punch);
+                span[1] = Math.max(span[1], punch);
+            }
+            progress.punchesAccepted += punches.size;
+        }
+
+        // by personnel then date, so a chunk locks a few personnel over a short date range
+        List<WorkDay> days = new ArrayList<>(spans.keySet());
+        days.sort(Comparator.comparing(WorkDay::personnelCode).thenComparingLong(WorkDay::epochDay));
+
+        for (int from = 0; from < days.size(); from += batchSize) {
+            List<WorkDay> chunk = days.subList(from, Math.min(from + batchSize, days.size()));
+            prepareMonths(chunk);
+            progress.recordsWritten += transactionTemplate.execute(status -> writeChunk(chunk, spans));
+        }
+        for (WorkDay day : days) {
+            progress.firstDay = Math.min(progress.firstDay, day.epochDay());
+            progress.lastDay = Math.max(progress.lastDay, day.epochDay());
+        }
+    }
+
+    // Before the chunk locks its rows: each of its months gets seeded aggregates, for the deltas to
+    // land on full totals, and a salary for each of its personnel, for the SalaryDirtyEvents to find
+    private void prepareMonths(List<WorkDay> chunk) {
+        Map<YearMonth, Set<String>> codesByMonth = new HashMap<>();
+        for (WorkDay day : chunk) {
+            codesByMonth.computeIfAbsent(YearMonth.from(LocalDate.ofEpochDay(day.epochDay())), period -> new HashSet<>())
+                    .add(day.personnelCode());
+        }
+        codesByMonth.forEach((period, codes) -> {
+            attendanceAggregateService.ensureMonth(period);
+            salaryService.createMissingMonthlySalaries(codes, period);
+        });
+    }
+
+    // Merges the chunk into the existing rows, upserts it and moves the monthly aggregates by the difference
+    private int writeChunk(List<WorkDay> chunk, Map<WorkDay, long[]> spans) {
+        // code -> {first day, last day}; the chunk is sorted, so each personnel's days are contiguous
+        Map<String, long[]> dayRanges = new HashMap<>();
+        for (WorkDay day : chunk) {
+            long[] range = dayRanges.computeIfAbsent(day.personnelCode(), code -> new long[]{day.epochDay(), day.epochDay()});
+            range[0] = Math.min(range[0], day.epochDay());
+            range[1] = Math.max(range[1], day.epochDay());
+        }
+
+        // per personnel: one range over all codes would also lock the other personnel's days in it
+        Map<WorkDay, AttendanceRecord> existing = new HashMap<>();
+        dayRanges.forEach((code, range) -> attendanceRepository.findForUpdateByCodeAndDateBetween(
+                        code, LocalDate.ofEpochDay(range[0]), LocalDate.ofEpochDay(range[1]))
+                .forEach(row -> existing.put(new WorkDay(code, row.getDate().toEpochDay()), row)));
+
+        List<AttendanceRecord> rows = new ArrayList<>(chunk.size());
+        Map<YearMonth, Map<String, AttendanceContribution>> deltas = new HashMap<>();
+        Map<LocalDate, Set<String>> codesByDate = new TreeMap<>();
+        for (WorkDay day : chunk) {
+            AttendanceRecord before = existing.get(day);
+            AttendanceRecord after = evaluate(day, spans.get(day), before);
+            rows.add(after);
+
+            AttendanceContribution delta = AttendanceContribution.of(after).minus(AttendanceContribution.of(before));
+            if (delta.isZero()) continue;
+
+            deltas.computeIfAbsent(YearMonth.from(after.getDate()), period -> new HashMap<>())
+                    .merge(day.personnelCode(), delta, AttendanceContribution::plus);
+            codesByDate.computeIfAbsent(after.getDate(), date -> new HashSet<>()).add(day.personnelCode());
+        }
+
+        attendanceBatchRepository.upsertRecords(rows);
+        deltas.forEach(attendanceAggregateService::addAll);
+
+        // a re-import that changes nothing triggers no recalculation
+        codesByDate.forEach((date, changed) -> {
+            eventPublisher.publishEvent(new AttendanceRecordsChangedEvent(date, changed));
+            changed.forEach(code -> eventPublisher.publishEvent(new SalaryDirtyEvent(code, YearMonth.from(date))));
+        });
+        return rows.size();
+    }
+
+    // The row after merging the imported span with what is stored, evaluated like checkIn()/checkOut()
+    private AttendanceRecord evaluate(WorkDay day, long[] span, AttendanceRecord before) {
+        long first = span[0];
+        long last = span[1];
+        if (before != null) {
+            for (OffsetDateTime stored : new OffsetDateTime[]{before.getCheckIn(), before.getCheckOut()}) {
+                if (stored == null) continue;
+                first = Math.min(first, stored.toEpochSecond());
+                last = Math.max(last, stored.toEpochSecond());
+            }
+        }
+
+        CompiledShift shift = shiftScheduleService.shiftFor(day.personnelCode());
+        int lateMinutes = shift.lateMinutes(first);
+
+        AttendanceRecord after = AttendanceRecord.builder()
+                .personnel(Personnel.builder().code(day.personnelCode()).build())
+                .date(LocalDate.ofEpochDay(day.epochDay()))
+                .checkIn(toTime(first))
+                .status(shift.isLate(first) ? AttendanceStatus.LATE_ARRIVAL : AttendanceStatus.PRESENT)
+                .isLate(lateMinutes > 0)
+                .lateMinutes(lateMinutes)
+                .build();
+
+        if (last - first >= DEBOUNCE_SECONDS) {
+            double hours = shift.workHours(first, last);
+            after.setCheckOut(toTime(last));
+            after.setWorkHours(Math.round(hours * 100.0) / 100.0);
+            after.setNotEnoughHours(shift.isNotEnoughHours(hours));
+            after.setMissingHours(shift.missingHours(hours));
+            after.setType(shift.classify(after.getWorkHours()));
+        } else if (isPastAutoClose(day, shift)) {
+            // a single punch on a day the scheduler no longer looks at is closed the way it would have
+            after.setStatus(AttendanceStatus.ABSENT);
+            after.setNotEnoughHours(true);
+            after.setMissingHours(shift.getStandardWorkHours());
+            after.setNotes(AttendanceRecord.MISSING_CHECK_OUT_NOTE);
+        }
+        // a day the import completes loses the note of an earlier auto-close, other notes are kept
+        if (after.getNotes() == null && before != null
+                && !AttendanceRecord.MISSING_CHECK_OUT_NOTE.equals(before.getNotes())) {
+            after.setNotes(before.getNotes());
+        }
+        return after;
+    }
+
+    // AttendanceScheduler.markIncompleteCheckoutsAsAbsent closes a day shift's open records at 05:00
+    // the next day and an overnight shift's a day later; past that, nothing closes them any more
+    private boolean isPastAutoClose(WorkDay day, CompiledShift shift) {
+        LocalDateTime closedAt = LocalDate.ofEpochDay(day.epochDay() + (shift.isOvernight() ? 2 : 1)).atTime(5, 0);
+        return !LocalDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh")).isBefore(closedAt);
+    }
+
+    private long parsePunchTime(String value) {
+        TemporalAccessor parsed = PUNCH_TIME.parseBest(value, OffsetDateTime::from, LocalDateTime::from);
+        if (parsed instanceof OffsetDateTime time) return time.toEpochSecond();
+        return ((LocalDateTime) parsed).atZone(ZoneId.of("Asia/Ho_Chi_Minh")).toEpochSecond();
+    }
+
+    private OffsetDateTime toTime(long epochSecond) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.of("Asia/Ho_Chi_Minh"));
+    }
+
+    private void report(List<String> messages, String message) {
+        if (messages.size() < MAX_REPORTED) messages.add(message);
+    }
+}
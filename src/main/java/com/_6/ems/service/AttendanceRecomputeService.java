@@ -0,0 +1,227 @@
+package com._6.ems.service;
+
+import com._6.ems.dto.request.AttendanceRecordKeyProjection;
+import com._6.ems.dto.response.AttendanceRecomputeRunResponse;
+import com._6.ems.entity.AttendanceRecomputeRun;
+import com._6.ems.enums.AttendanceRecomputeStatus;
+import com._6.ems.exception.AppException;
+import com._6.ems.exception.ErrorCode;
+import com._6.ems.mapper.AttendanceRecomputeRunMapper;
+import com._6.ems.repository.AttendanceRecomputeRunRepository;
+import com._6.ems.repository.AttendanceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Replays the attendance of a date range through the current shifts and policy. Records are walked
+ * in (personnel code, work date) order and cut into chunks; a wave of chunks is re-derived in
+ * parallel on a bounded pool, each chunk committing in its own transaction
+ * (AttendanceService.recomputeRecords), which also moves the monthly aggregates and marks the
+ * affected salaries for recalculation. After each wave the run's checkpoint moves past the chunks
+ * that committed, up to the first failure, so a failed or interrupted run resumes there.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceRecomputeService {
+
+    private final AttendanceRecomputeRunRepository attendanceRecomputeRunRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceService attendanceService;
+    private final AttendanceAggregateService attendanceAggregateService;
+    private final SalaryService salaryService;
+    private final AttendanceRecomputeRunMapper attendanceRecomputeRunMapper;
+
+    @Value("${attendance.recompute.chunk-size:500}")
+    private int chunkSize;
+
+    // also bounds the database connections a run holds at once
+    @Value("${attendance.recompute.parallelism:4}")
+    private int parallelism;
+
+    private final Set<String> activeRuns = ConcurrentHashMap.newKeySet();
+    private ExecutorService workers;
+
+    @PostConstruct
+    void init() {
+        workers = Executors.newFixedThreadPool(parallelism, Thread.ofVirtual().name("recompute-worker-", 0).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Starts a recompute of the records between {@code start} and {@code end} (inclusive) in the
+     * background and returns its progress.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public AttendanceRecomputeRunResponse start(LocalDate start, LocalDate end) {
+        AttendanceRecomputeRun run = attendanceRecomputeRunRepository.save(AttendanceRecomputeRun.builder()
+                .startDate(start)
+                .endDate(end)
+                .checkpointDate(start)
+                .status(AttendanceRecomputeStatus.RUNNING)
+                .totalRecords(attendanceRepository.countWithCheckInBetween(start, end))
+                .startedAt(now())
+                .build());
+        launch(run);
+        return attendanceRecomputeRunMapper.toResponse(run);
+    }
+
+    /**
+     * Resumes a failed run after its checkpoint; a running or completed run is returned as is.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public AttendanceRecomputeRunResponse resume(String id) {
+        AttendanceRecomputeRun run = findRun(id);
+        if (run.getStatus() == AttendanceRecomputeStatus.FAILED && !activeRuns.contains(id)) {
+            run.setStatus(AttendanceRecomputeStatus.RUNNING);
+            run.setFinishedAt(null);
+            run.setLastError(null);
+            run = attendanceRecomputeRunRepository.save(run);
+            launch(run);
+        }
+        return attendanceRecomputeRunMapper.toResponse(run);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public AttendanceRecomputeRunResponse getRun(String id) {
+        return attendanceRecomputeRunMapper.toResponse(findRun(id));
+    }
+
+    // A run still RUNNING at startup was interrupted by a shutdown or crash
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRuns() {
+        for (AttendanceRecomputeRun run : attendanceRecomputeRunRepository.findByStatus(AttendanceRecomputeStatus.RUNNING)) {
+            log.info("Resuming interrupted attendance recompute {} after {} {}",
+                    run.getId(), run.getCheckpointCode(), run.getCheckpointDate());
+            launch(run);
+        }
+    }
+
+    /* Helper methods */
+
+    private AttendanceRecomputeRun findRun(String id) {
+        return attendanceRecomputeRunRepository.findById(id)
+                .orElseThrow(() -> new AppException(ErrorCode.ATTENDANCE_RECOMPUTE_NOT_FOUND));
+    }
+
+    // Before the wave locks its rows: each of its months gets seeded aggregates, for the deltas to
+    // land on full totals, and a salary for each of its personnel, for the SalaryDirtyEvents to find
+    private void prepareMonths(List<AttendanceRecordKeyProjection> keys) {
+        Map<YearMonth, Set<String>> codesByMonth = new HashMap<>();
+        for (AttendanceRecordKeyProjection key : keys) {
+            codesByMonth.computeIfAbsent(YearMonth.from(key.getDate()), period -> new HashSet<>())
+                    .add(key.getPersonnelCode());
+        }
+        codesByMonth.forEach((period, codes) -> {
+            attendanceAggregateService.ensureMonth(period);
+            salaryService.createMissingMonthlySalaries(codes, period);
+        });
+    }
+
+    private void launch(AttendanceRecomputeRun run) {
+        if (!activeRuns.add(run.getId())) return;
+        Thread.ofVirtual().name("attendance-recompute-" + run.getId()).start(() -> {
+            try {
+                execute(run);
+            } finally {
+                activeRuns.remove(run.getId());
+            }
+        });
+    }
+
+    private AttendanceRecomputeRun execute(AttendanceRecomputeRun run) {
+        try {
+            List<AttendanceRecordKeyProjection> keys;
+            while (!(keys = attendanceRepository.findKeysWithCheckInAfter(
+                    run.getStartDate(), run.getEndDate(), run.getCheckpointCode(), run.getCheckpointDate(),
+                    Limit.of(chunkSize * parallelism))).isEmpty()) {
+
+                long waveStarted = System.currentTimeMillis();
+                List<List<AttendanceRecordKeyProjection>> chunks = new ArrayList<>();
+                for (int from = 0; from < keys.size(); from += chunkSize) {
+                    chunks.add(keys.subList(from, Math.min(from + chunkSize, keys.size())));
+                }
+                prepareMonths(keys);
+                List<Future<Integer>> results = new ArrayList<>();
+                for (List<AttendanceRecordKeyProjection> chunk : chunks) {
+                    List<String> ids = chunk.stream().map(AttendanceRecordKeyProjection::getId).toList();
+                    results.add(workers.submit(() -> attendanceService.recomputeRecords(ids)));
+                }
+
+                // the checkpoint only moves over an unbroken prefix of committed chunks
+                try {
+                    for (int i = 0; i < chunks.size(); i++) {
+                        AttendanceRecordKeyProjection first = chunks.get(i).getFirst();
+                        AttendanceRecordKeyProjection last = chunks.get(i).getLast();
+                        int changed;
+                        try {
+                            changed = results.get(i).get();
+                        } catch (ExecutionException e) {
+                            throw new IllegalStateException("Recompute chunk starting at " + first.getPersonnelCode()
+                                    + " " + first.getDate() + " failed", e.getCause());
+                        }
+                        run.setCheckpointCode(last.getPersonnelCode());
+                        run.setCheckpointDate(last.getDate());
+                        run.setProcessedRecords(run.getProcessedRecords() + chunks.get(i).size());
+                        run.setChangedRecords(run.getChangedRecords() + changed);
+                    }
+                } finally {
+                    run.setElapsedMillis(run.getElapsedMillis() + System.currentTimeMillis() - waveStarted);
+                }
+                run = attendanceRecomputeRunRepository.save(run);
+                log.info("Attendance recompute {}: {}/{} records, {} changed, {} records/s", run.getId(),
+                        run.getProcessedRecords(), run.getTotalRecords(), run.getChangedRecords(),
+                        attendanceRecomputeRunMapper.recordsPerSecond(run));
+            }
+
+            run.setStatus(AttendanceRecomputeStatus.COMPLETED);
+            run.setFinishedAt(now());
+            log.info("Attendance recompute {} completed: {} records, {} changed in {} ms",
+                    run.getId(), run.getProcessedRecords(), run.getChangedRecords(), run.getElapsedMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // left RUNNING: resumed on the next startup
+            return attendanceRecomputeRunRepository.save(run);
+        } catch (RuntimeException e) {
+            log.error("Attendance recompute {} failed after {} {}",
+                    run.getId(), run.getCheckpointCode(), run.getCheckpointDate(), e);
+            run.setStatus(AttendanceRecomputeStatus.FAILED);
+            run.setFinishedAt(now());
+            run.setLastError(describe(e));
+        }
+        return attendanceRecomputeRunRepository.save(run);
+    }
+
+    private String describe(RuntimeException e) {
+        String message = e.getCause() != null ? e.getMessage() + ": " + e.getCause().getMessage() : e.getMessage();
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+    }
+}
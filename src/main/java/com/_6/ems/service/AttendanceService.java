@@ -1,29 +1,43 @@
 package com._6.ems.service;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.time.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com._6.ems.dto.response.*;
+import com._6.ems.entity.AttendanceMonthlyAggregate;
 import com._6.ems.entity.Personnel;
 import com._6.ems.enums.AttendanceStatus;
-import com._6.ems.enums.AttendanceType;
+import com._6.ems.enums.ExportFormat;
+import com._6.ems.event.AttendanceRecordChangedEvent;
+import com._6.ems.event.SalaryDirtyEvent;
 import com._6.ems.exception.AppException;
 import com._6.ems.exception.ErrorCode;
+import com._6.ems.helper.CompiledShift;
 import com._6.ems.mapper.AttendanceMapper;
+import com._6.ems.record.AttendanceContribution;
+import com._6.ems.record.PendingCheckIn;
 import com._6.ems.repository.PersonnelRepository;
 import com._6.ems.repository.SalaryRepository;
 import com._6.ems.utils.PersonnelUtil;
+import com._6.ems.utils.SecurityUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com._6.ems.entity.AttendanceRecord;
 import com._6.ems.repository.AttendanceRepository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -32,12 +46,9 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class AttendanceService {
 
-    @Value("${salary.standard-work-hours}")
-    private static double standardWorkHours;
-
-    private static final OffsetTime SHIFT_START = OffsetTime.of(9, 0, 0, 0 , ZoneOffset.ofHours(7));
-//    private static final OffsetTime SHIFT_END = OffsetTime.of(18, 0);
-    private static final int LUNCH_MINUTES = 60;
+    // open bounds for keyset pages; LATEST_DATE + 1 day must still fit MySQL's DATE range
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 30);
 
     AttendanceRepository attendanceRepository;
     PersonnelRepository personnelRepository;
@@ -45,62 +56,143 @@ public class AttendanceService {
     SalaryRepository salaryRepository;
     SalaryService salaryService;
     PersonnelUtil personnelUtil;
+    CheckInLedger checkInLedger;
+    AttendanceAggregateService attendanceAggregateService;
+    TodayAttendanceBoard todayAttendanceBoard;
+    ApplicationEventPublisher eventPublisher;
+    ObjectMapper objectMapper;
+    EntityManager entityManager;
+    ShiftScheduleService shiftScheduleService;
 
     @Transactional
     public AttendanceRecordResponse checkIn() {
+        if (checkInLedger.isEnabled()) return bufferedCheckIn();
+
         Personnel personnel = personnelUtil.getCurrentPersonnel();
 
-        LocalDate today = LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+        OffsetDateTime now = OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+        CompiledShift shift = shiftScheduleService.shiftFor(personnel.getCode());
+        // an overnight shift keeps the date it started on past midnight, like the punch import
+        LocalDate workDate = LocalDate.ofEpochDay(shift.workEpochDay(now.toEpochSecond()));
 
         AttendanceRecord attendanceRecord = attendanceRepository
-                .findByPersonnel_CodeAndDateForUpdate(personnel.getCode(), today)
+                .findByPersonnel_CodeAndDateForUpdate(personnel.getCode(), workDate)
                 .orElseGet(() -> AttendanceRecord.builder()
                         .personnel(personnel)
-                        .date(today)
+                        .date(workDate)
                         .status(AttendanceStatus.PRESENT)
                         .build());
 
         if (attendanceRecord.getCheckIn() != null) throw new AppException(ErrorCode.ATTENDANCE_ALREADY_CHECKIN);
 
-        attendanceRecord.setCheckIn(OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh")));
+        AttendanceContribution before = attendanceRecord.getId() == null
+                ? AttendanceContribution.NONE
+                : AttendanceContribution.of(attendanceRecord);
 
-        if(OffsetTime.now(ZoneId.of("Asia/Ho_Chi_Minh")).isAfter(SHIFT_START)) {
+        attendanceRecord.setCheckIn(now);
+
+        if (shift.isLate(attendanceRecord.getCheckIn().toEpochSecond())) {
             attendanceRecord.setStatus(AttendanceStatus.LATE_ARRIVAL);
         }
 
-        checkLate(attendanceRecord);
+        checkLate(attendanceRecord, shift);
 
         boolean exists = salaryRepository
-                .existsByPersonnelAndMonthAndYear(personnel, today.getMonthValue(), today.getYear());
+                .existsByPersonnelAndMonthAndYear(personnel, workDate.getMonthValue(), workDate.getYear());
         if (!exists) {
-            salaryService.createMonthlySalary(personnel);
+            salaryService.createMonthlySalary(personnel, YearMonth.from(workDate));
+        }
+
+        AttendanceRecord saved = attendanceRepository.save(attendanceRecord);
+        attendanceAggregateService.recordChanged(before, saved);
+
+        AttendanceRecordResponse response = attendanceMapper.toAttendanceRecordResponse(saved);
+        eventPublisher.publishEvent(new AttendanceRecordChangedEvent(workDate, response));
+        return response;
+    }
+
+    // Acknowledges from memory; the row and the monthly salary are written by CheckInLedger.flush()
+    private AttendanceRecordResponse bufferedCheckIn() {
+        String personnelCode = SecurityUtil.getCurrentUserCode();
+        OffsetDateTime now = OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+        CompiledShift shift = shiftScheduleService.shiftFor(personnelCode);
+        LocalDate workDate = LocalDate.ofEpochDay(shift.workEpochDay(now.toEpochSecond()));
+
+        AttendanceRecord attendanceRecord = AttendanceRecord.builder()
+                .personnel(Personnel.builder().code(personnelCode).build())
+                .date(workDate)
+                .status(AttendanceStatus.PRESENT)
+                .checkIn(now)
+                .build();
+
+        if (shift.isLate(attendanceRecord.getCheckIn().toEpochSecond())) {
+            attendanceRecord.setStatus(AttendanceStatus.LATE_ARRIVAL);
         }
 
-        return attendanceMapper.toAttendanceRecordResponse(attendanceRepository.save(attendanceRecord));
+        checkLate(attendanceRecord, shift);
+
+        checkInLedger.record(new PendingCheckIn(
+                personnelCode,
+                workDate,
+                attendanceRecord.getCheckIn(),
+                attendanceRecord.getStatus(),
+                attendanceRecord.getIsLate(),
+                attendanceRecord.getLateMinutes()));
+
+        return attendanceMapper.toAttendanceRecordResponse(attendanceRecord);
     }
 
     @Transactional
     public AttendanceRecordResponse checkOut() {
         Personnel personnel = personnelUtil.getCurrentPersonnel();
 
-        AttendanceRecord attendanceRecord = attendanceRepository.findOpenForUpdate(personnel.getCode())
+        // the check-in (of today, or of yesterday for an overnight shift) may still be buffered; the
+        // flush commits in its own transaction
+        LocalDate today = LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+        if (checkInLedger.hasPending(personnel.getCode(), today)
+                || checkInLedger.hasPending(personnel.getCode(), today.minusDays(1))) {
+            checkInLedger.flush();
+        }
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+        CompiledShift shift = shiftScheduleService.shiftFor(personnel.getCode());
+        // only the current or the previous work date can still be checked out of
+        LocalDate since = LocalDate.ofEpochDay(shift.workEpochDay(now.toEpochSecond()) - 1);
+        AttendanceRecord attendanceRecord = attendanceRepository.findOpenForUpdate(personnel.getCode(), since, Limit.of(1))
                 .orElseThrow(() -> new AppException(ErrorCode.ATTENDANCE_NOT_CHECKIN));
 
         if (attendanceRecord.getCheckOut() != null) throw new AppException(ErrorCode.ATTENDANCE_ALREADY_CHECKOUT);
 
-        attendanceRecord.setCheckOut(OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh")));
-        calculateWorkHours(attendanceRecord);
-        classify(attendanceRecord);
+        AttendanceContribution before = AttendanceContribution.of(attendanceRecord);
 
-        salaryService.calculateSalary(personnel);
+        attendanceRecord.setCheckOut(now);
+        calculateWorkHours(attendanceRecord, shift);
+        classify(attendanceRecord, shift);
 
         attendanceRepository.save(attendanceRecord);
+        attendanceAggregateService.recordChanged(before, attendanceRecord);
 
-        return attendanceMapper.toAttendanceRecordResponse(attendanceRecord);
+        eventPublisher.publishEvent(new SalaryDirtyEvent(
+                personnel.getCode(), YearMonth.from(attendanceRecord.getDate())));
+
+        AttendanceRecordResponse response = attendanceMapper.toAttendanceRecordResponse(attendanceRecord);
+        eventPublisher.publishEvent(new AttendanceRecordChangedEvent(attendanceRecord.getDate(), response));
+        return response;
     }
 
     public AttendanceStatusResponse getTodayStatusByPersonnelCode(String personnelCode) {
-        return attendanceRepository.findTodayRecordByPersonnelCode(personnelCode, LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh")))
+        // "today" is the work date of the person's shift, which for an overnight shift lasts past midnight
+        LocalDate workDate = LocalDate.ofEpochDay(shiftScheduleService.shiftFor(personnelCode)
+                .workEpochDay(OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh")).toEpochSecond()));
+        Optional<PendingCheckIn> pending = checkInLedger.getPending(personnelCode, workDate);
+        if (pending.isPresent()) {
+            return AttendanceStatusResponse.builder()
+                    .status(pending.get().status())
+                    .checkIn(pending.get().checkIn())
+                    .build();
+        }
+
+        return attendanceRepository.findTodayRecordByPersonnelCode(personnelCode, workDate)
                 .map(attendanceRecord -> AttendanceStatusResponse.builder()
                         .status(attendanceRecord.getStatus())
                         .checkIn(attendanceRecord.getCheckIn())
@@ -119,15 +211,15 @@ public class AttendanceService {
         return attendanceMapper.toAttendanceRecordResponse(attendanceRecord);
     }
 
-    @Transactional(readOnly = true)
+    // served from memory, see TodayAttendanceBoard
     @PreAuthorize("hasRole('ADMIN')")
     public List<AttendanceRecordResponse> getTodayAttendanceSummary() {
-        LocalDate today = LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh"));
-        List<AttendanceRecord> records = attendanceRepository.findAllWithPersonnelByDate(today);
-        return records.stream()
-                .map(attendanceMapper::toAttendanceRecordResponse)
-                .sorted(Comparator.comparing(AttendanceRecordResponse::getEmployee_code))
-                .toList();
+        return todayAttendanceBoard.snapshot();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter subscribeTodayAttendance() {
+        return todayAttendanceBoard.subscribe();
     }
 
     @Transactional(readOnly = true)
@@ -185,218 +277,261 @@ public class AttendanceService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN') or #code == authentication.name")
+    public ApiCursorResponse<AttendanceRecordResponse> getRecordPageByEmployeeCode(
+            String code, String cursor, int size) {
+        return getRecordPageByEmployeeCodeInterval(code, EARLIEST_DATE, LATEST_DATE, cursor, size);
+    }
+
+    /**
+     * One page of an employee's records between {@code start} and {@code end} (inclusive), newest
+     * first. The cursor is the last returned work date, so every page is a single index range seek.
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN') or #code == authentication.name")
+    public ApiCursorResponse<AttendanceRecordResponse> getRecordPageByEmployeeCodeInterval(
+            String code, LocalDate start, LocalDate end, String cursor, int size) {
+        Personnel personnel = personnelRepository.findById(code)
+                .orElseThrow(() -> new AppException(ErrorCode.PROFILE_NOT_EXISTED));
+
+        LocalDate before = cursor != null
+                ? LocalDate.parse(decodeCursor(cursor, 1)[0])
+                : end.plusDays(1);
+
+        List<AttendanceRecord> records = attendanceRepository.findPageByPersonnelCode(
+                personnel.getCode(), start, before, Limit.of(size + 1));
+
+        boolean last = records.size() <= size;
+        List<AttendanceRecord> page = last ? records : records.subList(0, size);
+
+        return ApiCursorResponse.<AttendanceRecordResponse>builder()
+                .content(page.stream().map(attendanceMapper::toAttendanceRecordResponse).toList())
+                .pageSize(size)
+                .nextCursor(last ? null : encodeCursor(page.getLast().getDate().toString()))
+                .last(last)
+                .build();
+    }
+
+    /**
+     * One page of all employees' records between {@code start} and {@code end} (inclusive), ordered
+     * by work date then employee code. The cursor is the last returned (work date, employee code).
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiCursorResponse<AttendanceRecordResponse> getRecordPageByDateOrInterval(
+            LocalDate start, LocalDate end, String cursor, int size) {
+        LocalDate afterDate = start;
+        String afterCode = "";
+        if (cursor != null) {
+            String[] parts = decodeCursor(cursor, 2);
+            afterDate = LocalDate.parse(parts[0]);
+            afterCode = parts[1];
+        }
+
+        List<AttendanceRecord> records = attendanceRepository.findPageWithPersonnelByDateBetween(
+                afterDate, afterCode, end, Limit.of(size + 1));
+
+        boolean last = records.size() <= size;
+        List<AttendanceRecord> page = last ? records : records.subList(0, size);
+        AttendanceRecord tail = page.isEmpty() ? null : page.getLast();
+
+        return ApiCursorResponse.<AttendanceRecordResponse>builder()
+                .content(page.stream().map(attendanceMapper::toAttendanceRecordResponse).toList())
+                .pageSize(size)
+                .nextCursor(last ? null : encodeCursor(tail.getDate().toString(), tail.getPersonnel().getCode()))
+                .last(last)
+                .build();
+    }
+
+    /**
+     * Writes every record between {@code start} and {@code end} (inclusive) to {@code out}, one per
+     * line, ordered by employee code then check-in. Rows are read through a database cursor and
+     * detached once written, so memory use does not grow with the range.
+     */
+    @Transactional(readOnly = true)
+    public void exportRecords(LocalDate start, LocalDate end, ExportFormat format, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write("record_id,employee_code,check_in,check_out,duration\n");
+        }
+
+        try (Stream<AttendanceRecord> records = attendanceRepository.streamAllWithPersonnelByDateBetween(start, end)) {
+            Iterator<AttendanceRecord> iterator = records.iterator();
+            while (iterator.hasNext()) {
+                AttendanceRecord attendanceRecord = iterator.next();
+                AttendanceRecordResponse response = attendanceMapper.toAttendanceRecordResponse(attendanceRecord);
+                if (format == ExportFormat.CSV) {
+                    writer.write(String.join(",",
+                            csv(response.getRecord_id()),
+                            csv(response.getEmployee_code()),
+                            csv(response.getCheckIn()),
+                            csv(response.getCheckOut()),
+                            csv(response.getDuration())));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(response));
+                }
+                writer.write('\n');
+                entityManager.detach(attendanceRecord);
+            }
+        }
+        writer.flush();
+    }
+
     public AttendanceOverviewResponse getAttendanceOverview(
             String personnelCode,
             Integer month,
             Integer year) {
 
-        List<AttendanceRecord> records = attendanceRepository
-                .findByPersonnelCodeAndMonthAndYear(personnelCode, month, year);
+        YearMonth period = YearMonth.of(year, month);
+        AttendanceMonthlyAggregate totals = attendanceAggregateService.getMonthly(personnelCode, period);
 
-        Metrics m = computeMetrics(records);
+        List<AttendanceRecord> records = attendanceRepository.findByPersonnelCodeAndDateRange(
+                personnelCode, period.atDay(1), period.plusMonths(1).atDay(1));
         List<AttendanceRecordDTO> recordDTOs = attendanceMapper.toDTOList(records);
 
         return AttendanceOverviewResponse.builder()
-                .totalDays(m.totalDays)
-                .presentDays(m.presentDays)
-                .lateDays(m.lateDays)
-                .absentDays(m.absentDays)
-                .averageHours(m.avgHours)
+                .totalDays(totals.getTotalDays())
+                .presentDays(totals.getPresentDays())
+                .lateDays(totals.getLateDays())
+                .absentDays(totals.getAbsentDays())
+                .averageHours(totals.getAverageHours())
                 .records(recordDTOs)
                 .build();
     }
 
 
-    @Transactional(readOnly = true)
+    @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public List<AttendanceMonthlySummary> getMonthlySummary(int month, int year) {
-        LocalDate start = LocalDate.of(year, month, 1);
-        LocalDate end = start.withDayOfMonth(start.lengthOfMonth());
-
-        List<AttendanceRecord> records =
-                attendanceRepository.findAllWithPersonnelByDateBetween(start, end);
-
-        // group by employee code
-        Map<String, List<AttendanceRecord>> data = records.stream()
-                .collect(Collectors.groupingBy(attendanceRecord -> attendanceRecord.getPersonnel().getCode()));
-
-        return data.entrySet().stream()
-                .map(entry -> {
-                    String code = entry.getKey();
-                    List<AttendanceRecord> attendances = entry.getValue();
-
-                    Metrics m = computeMetrics(attendances);
-
-                    Personnel p = attendances.getFirst().getPersonnel();
+        return attendanceAggregateService.getAllMonthly(YearMonth.of(year, month)).stream()
+                .map(totals -> {
+                    Personnel p = totals.getPersonnel();
                     String first = p.getFirstName() != null ? p.getFirstName() : "";
                     String last  = p.getLastName()  != null ? p.getLastName()  : "";
                     String name  = (first + " " + last).trim();
 
                     return AttendanceMonthlySummary.builder()
-                            .code(code)
+                            .code(totals.getPersonnelCode())
                             .name(name)
-                            .presentDays(m.presentDays)
-                            .lateDays(m.lateDays)
-                            .absentDays(m.absentDays)
-                            .avgHours(m.avgHours)
+                            .presentDays(totals.getPresentDays())
+                            .lateDays(totals.getLateDays())
+                            .absentDays(totals.getAbsentDays())
+                            .avgHours(totals.getAverageHours())
                             .build();
                 })
                 .toList();
-
     }
 
-//    @Transactional
-//    @PreAuthorize("hasRole('ADMIN')")
-//    public int syncBetween(LocalDate start, LocalDate end) {
-//        List<AttendanceRecord> records = attendanceRepository.findByDateBetween(start, end);
-//        int updated = 0;
-//        for (AttendanceRecord r : records) {
-//            sync(r);
-//            updated++;
-//        }
-//        return updated;
-//    }
+    /**
+     * Re-derives lateness, work hours and classification of the given records from their stored
+     * check-in/check-out with the current shifts and policy, in a transaction of its own. ABSENT
+     * stays ABSENT. Moves the monthly aggregates by what changed and marks the affected salaries
+     * dirty. Returns the number of records that changed.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int recomputeRecords(Collection<String> ids) {
+        Map<YearMonth, Map<String, AttendanceContribution>> deltas = new HashMap<>();
+        Set<SalaryDirtyEvent> dirtySalaries = new HashSet<>();
+        int changed = 0;
+
+        // changes are flushed as batched updates (hibernate.jdbc.batch_size) at commit
+        for (AttendanceRecord attendanceRecord : attendanceRepository.findForUpdateByIdIn(ids)) {
+            String code = attendanceRecord.getPersonnel().getCode();
+            AttendanceContribution before = AttendanceContribution.of(attendanceRecord);
+            if (!rederive(attendanceRecord, shiftScheduleService.shiftFor(code))) continue;
+
+            changed++;
+            YearMonth period = YearMonth.from(attendanceRecord.getDate());
+            AttendanceContribution delta = AttendanceContribution.of(attendanceRecord).minus(before);
+            if (!delta.isZero()) {
+                deltas.computeIfAbsent(period, month -> new HashMap<>()).merge(code, delta, AttendanceContribution::plus);
+            }
+            dirtySalaries.add(new SalaryDirtyEvent(code, period));
+        }
+
+        deltas.forEach(attendanceAggregateService::addAll);
+        dirtySalaries.forEach(eventPublisher::publishEvent);
+        return changed;
+    }
 
     /* Helper methods */
-//    private long duration(OffsetDateTime start, OffsetDateTime end) {
-//        return Duration.between(start, end).toMinutes();
-//    }
 
-    private void checkLate(AttendanceRecord attendanceRecord) {
+    private String encodeCursor(String... parts) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join("|", parts).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor, int expectedParts) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\|", -1);
+            if (parts.length != expectedParts) throw new AppException(ErrorCode.ATTENDANCE_INVALID_CURSOR);
+            LocalDate.parse(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new AppException(ErrorCode.ATTENDANCE_INVALID_CURSOR);
+        }
+    }
+
+    private String csv(String value) {
+        if (value == null) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private void checkLate(AttendanceRecord attendanceRecord, CompiledShift shift) {
         if (attendanceRecord.getCheckIn() == null) return;
-        int late = Math.max(0, (int) Duration.between(
-                attendanceRecord.getDate().atTime(SHIFT_START),
-                attendanceRecord.getCheckIn()).toMinutes());
+        int late = shift.lateMinutes(attendanceRecord.getCheckIn().toEpochSecond());
         boolean isLate = late > 0;
         attendanceRecord.setIsLate(isLate);
         attendanceRecord.setLateMinutes(isLate ? late : 0);
     }
 
-    private void classify(AttendanceRecord attendanceRecord) {
+    private void classify(AttendanceRecord attendanceRecord, CompiledShift shift) {
         double hrs = attendanceRecord.getWorkHours() == null ? 0.0 : attendanceRecord.getWorkHours();
-        if (hrs > 9.0) attendanceRecord.setType(AttendanceType.OVERTIME);
-        else if (hrs >= 8.0) attendanceRecord.setType(AttendanceType.FULL_DAY);
-        else if (hrs >= 4.0) attendanceRecord.setType(AttendanceType.HALF_DAY);
-        else attendanceRecord.setType(AttendanceType.NOT_ENOUGH_HOURS);
+        attendanceRecord.setType(shift.classify(hrs));
     }
 
     // Calculate work hours from duration(check-in,check-out)
-    private void calculateWorkHours(AttendanceRecord attendanceRecord) {
+    private void calculateWorkHours(AttendanceRecord attendanceRecord, CompiledShift shift) {
         if (attendanceRecord.getCheckIn() != null && attendanceRecord.getCheckOut() != null) {
-            Duration duration = Duration.between(
-                    attendanceRecord.getCheckIn(),
-                    attendanceRecord.getCheckOut()
-            );
-
-            // skip lunch break
-            long totalMinutes = (duration.toMinutes() - LUNCH_MINUTES) < 0
-                    ? 0
-                    : duration.toMinutes() - LUNCH_MINUTES;
-            double hours = totalMinutes / 60.0;
+            // lunch break excluded
+            double hours = shift.workHours(
+                    attendanceRecord.getCheckIn().toEpochSecond(),
+                    attendanceRecord.getCheckOut().toEpochSecond());
 
             attendanceRecord.setWorkHours(Math.round(hours * 100.0) / 100.0);
             // Check if not enough standard work hours
-            attendanceRecord.setNotEnoughHours(hours < standardWorkHours);
-
-            if (hours < standardWorkHours) {
-                attendanceRecord.setMissingHours(standardWorkHours - hours);
-            } else {
-                attendanceRecord.setMissingHours(0.0);
-            }
+            attendanceRecord.setNotEnoughHours(shift.isNotEnoughHours(hours));
+            attendanceRecord.setMissingHours(shift.missingHours(hours));
         }
     }
 
-//    private void sync(AttendanceRecord r) {
-//        LocalDate date = r.getDate();
-//        OffsetDateTime in  = r.getCheckIn();
-//        OffsetDateTime out = r.getCheckOut();
-//
-//        double workHours = 0.0;
-//        boolean isLate = false;
-//        int lateMins = 0;
-//        boolean notEnough = true;
-//        double missing = STANDARD_WORK_HOURS;
-//        WorkLocation loc = WorkLocation.OFFICE;
-//        AttendanceStatus status = AttendanceStatus.ABSENT;
-//        AttendanceType type = AttendanceType.ABSENCE;
-//
-//        if (in != null) {
-//            if (out != null) {
-//                long totalMinutes = duration(in, out);
-//                if (overlapsLunch(in.toOffsetTime(), out.toOffsetTime())) {
-//                    totalMinutes = Math.max(0, totalMinutes - LUNCH_MINUTES);
-//                    workHours = Math.round((totalMinutes / 60.0) * 100.0) / 100.0;
-//                }
-//            }
-//
-//            // Late logic
-//            OffsetDateTime shiftStart = date.atTime(SHIFT_START);
-//            lateMins = (in.isAfter(shiftStart)) ? (int) duration(shiftStart, in) : 0;
-//            isLate = lateMins > 0;
-//
-//            // Missing / not enough
-//            missing = Math.round(Math.max(0.0, STANDARD_WORK_HOURS - workHours) * 100.0) / 100.0;;
-//            notEnough = workHours < STANDARD_WORK_HOURS;
-//
-//            loc = WorkLocation.OFFICE;
-//
-//            if (isLate) status = AttendanceStatus.LATE_ARRIVAL;
-//            else status = AttendanceStatus.WORK_FROM_OFFICE;
-//
-//            if (workHours >= STANDARD_WORK_HOURS) {
-//                type = (workHours > STANDARD_WORK_HOURS) ? AttendanceType.OVERTIME : AttendanceType.FULL_DAY;
-//            } else if (workHours >= 4.0) {
-//                type = AttendanceType.HALF_DAY;
-//            } else {
-//                status = AttendanceStatus.ABSENT;
-//            }
-//
-//            r.setWorkHours(workHours);
-//            r.setIsLate(isLate);
-//            r.setLateMinutes(lateMins);
-//            r.setNotEnoughHours(notEnough);
-//            r.setMissingHours(missing);
-//            r.setWorkLocation(loc);
-//            r.setStatus(status);
-//            r.setType(type);
-//
-//            attendanceRepository.save(r);
-//        }
-//    }
-
-//    private boolean overlapsLunch(OffsetTime start, OffsetTime end) {
-//        if (start == null || end == null) return false;
-//        if (end.isBefore(start)) return false;
-//        // Typical lunch window 12:00–13:00
-//        OffsetTime LUNCH_START = OffsetTime.NOON;
-//        OffsetTime LUNCH_END   = OffsetTime.NOON.plusHours(1);
-//        return !(end.isBefore(LUNCH_START) || start.isAfter(LUNCH_END));
-//    }
-
-    private record Metrics(int totalDays, int presentDays, int lateDays, int absentDays, double avgHours) {
-    }
-
-    private Metrics computeMetrics(List<AttendanceRecord> records) {
-        int totalDays = records.size();
-
-        int presentDays = (int) records.stream()
-                .filter(r -> AttendanceStatus.PRESENT.equals(r.getStatus()))
-                .count();
+    // Applies the shift to the stored check-in/check-out; returns whether any derived field changed
+    private boolean rederive(AttendanceRecord attendanceRecord, CompiledShift shift) {
+        List<Object> derived = derivedFields(attendanceRecord);
 
-        int lateDays = (int) records.stream()
-                .filter(r -> Boolean.TRUE.equals(r.getIsLate()))
-                .count();
-
-        int absentDays = (int) records.stream()
-                .filter(r -> r.getStatus() == AttendanceStatus.ABSENT)
-                .count();
+        if (attendanceRecord.getStatus() != AttendanceStatus.ABSENT) {
+            attendanceRecord.setStatus(shift.isLate(attendanceRecord.getCheckIn().toEpochSecond())
+                    ? AttendanceStatus.LATE_ARRIVAL
+                    : AttendanceStatus.PRESENT);
+        }
+        checkLate(attendanceRecord, shift);
+        if (attendanceRecord.getCheckOut() != null) {
+            calculateWorkHours(attendanceRecord, shift);
+            classify(attendanceRecord, shift);
+        }
 
-        double avgHours = records.stream()
-                .mapToDouble(r -> r.getWorkHours() != null ? r.getWorkHours() : 0.0)
-                .average()
-                .orElse(0.0);
+        return !derived.equals(derivedFields(attendanceRecord));
+    }
 
-        return new Metrics(totalDays, presentDays, lateDays, absentDays, avgHours);
+    private List<Object> derivedFields(AttendanceRecord attendanceRecord) {
+        return Arrays.asList(attendanceRecord.getStatus(), attendanceRecord.getType(), attendanceRecord.getIsLate(),
+                attendanceRecord.getLateMinutes(), attendanceRecord.getWorkHours(),
+                attendanceRecord.getNotEnoughHours(), attendanceRecord.getMissingHours());
     }
 }
-
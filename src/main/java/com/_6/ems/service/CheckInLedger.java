@@ -0,0 +1,401 @@
+package com._6.ems.service;
+
+import com._6.ems.entity.AttendanceRecord;
+import com._6.ems.event.AttendanceRecordsChangedEvent;
+import com._6.ems.exception.AppException;
+import com._6.ems.exception.ErrorCode;
+import com._6.ems.record.AttendanceContribution;
+import com._6.ems.record.PendingCheckIn;
+import com._6.ems.repository.AttendanceBatchRepository;
+import com._6.ems.repository.AttendanceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Buffered check-in path. A check-in is accepted against an in-memory view of who already checked
+ * in for its work date, appended to a local journal, fsync'ed together with the check-ins arriving
+ * alongside it (group commit), acknowledged, and written to attendance_record later in batches. Journal segments are only deleted once their entries are
+ * committed, and are replayed on startup, so an acknowledged check-in survives a crash.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CheckInLedger {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceBatchRepository attendanceBatchRepository;
+    private final AttendanceAggregateService attendanceAggregateService;
+    private final SalaryService salaryService;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${attendance.check-in.buffered:false}")
+    private boolean enabled;
+
+    @Value("${attendance.check-in.batch-size:500}")
+    private int batchSize;
+
+    @Value("${attendance.check-in.journal-dir:${java.io.tmpdir}/ems/check-in-journal}")
+    private String journalDir;
+
+    // (personnel code, work date) -> check-in waiting to be flushed; an entry stays until its row is
+    // committed, so a check-out during a flush still finds it. ConcurrentHashMap keeps per-key
+    // contention local
+    private final Map<PendingKey, PendingCheckIn> pending = new ConcurrentHashMap<>();
+    private final Deque<Path> sealedSegments = new ArrayDeque<>();
+    private final ReentrantLock journalLock = new ReentrantLock();
+    // taken before journalLock: held by the check-in forcing the journal and by segment rotation
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // work date -> who has a check-in for it; an overnight shift still checks in on yesterday's date
+    // after midnight, so the last few dates are kept
+    private final Map<LocalDate, Set<String>> checkedInDays = new ConcurrentHashMap<>();
+    private FileChannel segment;
+    private Path segmentPath;
+    private long segmentSequence;
+    // entries appended to the journal, and how many of them are known to be on disk
+    private long appended;
+    private volatile long synced;
+    private TransactionTemplate transactionTemplate;
+
+    private record PendingKey(String personnelCode, LocalDate date) {
+        static PendingKey of(PendingCheckIn checkIn) {
+            return new PendingKey(checkIn.personnelCode(), checkIn.date());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void recover() throws IOException {
+        // a flush triggered from checkOut() must commit on its own, whatever happens to the caller
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (!enabled) return;
+
+        Path dir = Paths.get(journalDir);
+        Files.createDirectories(dir);
+
+        List<Path> leftovers;
+        try (Stream<Path> files = Files.list(dir)) {
+            leftovers = files
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        int replayed = 0;
+        for (Path path : leftovers) {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                try {
+                    PendingCheckIn checkIn = PendingCheckIn.fromJournalLine(line);
+                    pending.putIfAbsent(PendingKey.of(checkIn), checkIn);
+                    replayed++;
+                } catch (RuntimeException e) {
+                    // a torn last line from a crash mid-append was never acknowledged
+                    log.warn("Skipping unreadable check-in journal line in {}: {}", path, line);
+                }
+            }
+            sealedSegments.add(path);
+        }
+        segmentSequence = leftovers.size();
+        openSegment();
+
+        if (replayed > 0) {
+            log.info("Replayed {} buffered check-ins from {} journal segment(s)", replayed, leftovers.size());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        if (!enabled) return;
+        flush();
+        syncLock.lock();
+        journalLock.lock();
+        try {
+            if (segment != null) segment.close();
+        } finally {
+            journalLock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Records a check-in. Throws ATTENDANCE_ALREADY_CHECKIN when the person already has a check-in
+     * for that day, either buffered here or already stored.
+     */
+    public void record(PendingCheckIn checkIn) {
+        Set<String> codes = checkedInCodes(checkIn.date());
+        if (!codes.add(checkIn.personnelCode())) {
+            throw new AppException(ErrorCode.ATTENDANCE_ALREADY_CHECKIN);
+        }
+
+        long sequence;
+        journalLock.lock();
+        try {
+            sequence = append(checkIn);
+            pending.put(PendingKey.of(checkIn), checkIn);
+        } catch (IOException e) {
+            codes.remove(checkIn.personnelCode());
+            throw new UncheckedIOException("Could not journal check-in", e);
+        } finally {
+            journalLock.unlock();
+        }
+
+        try {
+            awaitDurable(sequence);
+        } catch (IOException e) {
+            // never acknowledged
+            pending.remove(PendingKey.of(checkIn), checkIn);
+            codes.remove(checkIn.personnelCode());
+            throw new UncheckedIOException("Could not journal check-in", e);
+        }
+    }
+
+    public boolean hasPending(String personnelCode, LocalDate date) {
+        return pending.containsKey(new PendingKey(personnelCode, date));
+    }
+
+    public Optional<PendingCheckIn> getPending(String personnelCode, LocalDate date) {
+        return Optional.ofNullable(pending.get(new PendingKey(personnelCode, date)));
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.check-in.flush-interval-ms:1000}")
+    public void flush() {
+        if (!enabled) return;
+
+        flushLock.lock();
+        try {
+            List<PendingCheckIn> batch;
+            List<Path> covered;
+
+            syncLock.lock();
+            journalLock.lock();
+            try {
+                if (pending.isEmpty()) return;
+                rotateSegment();
+                batch = new ArrayList<>(pending.values());
+                covered = new ArrayList<>(sealedSegments);
+            } finally {
+                journalLock.unlock();
+                syncLock.unlock();
+            }
+
+            List<PendingCheckIn> failed = write(batch);
+            // only what was committed (or dropped) leaves; a failed entry stays for the next flush
+            Set<PendingCheckIn> kept = new HashSet<>(failed);
+            batch.stream()
+                    .filter(checkIn -> !kept.contains(checkIn))
+                    .forEach(checkIn -> pending.remove(PendingKey.of(checkIn), checkIn));
+
+            if (failed.isEmpty()) {
+                for (Path path : covered) {
+                    Files.deleteIfExists(path);
+                }
+                journalLock.lock();
+                try {
+                    sealedSegments.removeAll(covered);
+                } finally {
+                    journalLock.unlock();
+                }
+            }
+            // otherwise keep the segments, they will be deleted by the first flush that gets everything in
+        } catch (IOException e) {
+            log.error("Check-in journal maintenance failed", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /* Helper methods */
+
+    private List<PendingCheckIn> write(List<PendingCheckIn> batch) {
+        List<PendingCheckIn> failed = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<PendingCheckIn> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+            try {
+                writeChunk(chunk);
+            } catch (RuntimeException chunkFailure) {
+                log.warn("Batched check-in flush failed, retrying {} entries one by one", chunk.size(), chunkFailure);
+                for (PendingCheckIn checkIn : chunk) {
+                    try {
+                        writeChunk(List.of(checkIn));
+                    } catch (DataIntegrityViolationException e) {
+                        // e.g. personnel deleted since the check-in; retrying can never succeed
+                        log.error("Dropping check-in that violates constraints: {}", checkIn, e);
+                    } catch (RuntimeException e) {
+                        failed.add(checkIn);
+                    }
+                }
+            }
+        }
+
+        // a check-in just after midnight on the 1st may belong to the month before
+        Map<YearMonth, Set<String>> written = batch.stream()
+                .filter(checkIn -> !failed.contains(checkIn))
+                .collect(Collectors.groupingBy(checkIn -> YearMonth.from(checkIn.date()),
+                        Collectors.mapping(PendingCheckIn::personnelCode, Collectors.toSet())));
+        try {
+            written.forEach((period, codes) -> salaryService.createMissingMonthlySalaries(codes, period));
+        } catch (RuntimeException e) {
+            // the check-ins are stored; the salary row is created again on the next flush or at month start
+            log.error("Could not create monthly salaries after check-in flush", e);
+        }
+        return failed;
+    }
+
+    // Upserts the chunk and moves the monthly aggregates by what the upsert changed, in one transaction
+    private void writeChunk(List<PendingCheckIn> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // pending is keyed by (code, date), so a chunk holds at most one entry per person and day
+            Map<PendingKey, AttendanceRecord> existing = new HashMap<>();
+            chunk.stream()
+                    .collect(Collectors.groupingBy(PendingCheckIn::date,
+                            Collectors.mapping(PendingCheckIn::personnelCode, Collectors.toList())))
+                    .forEach((date, codes) -> attendanceRepository.findByDateAndPersonnel_CodeIn(date, codes)
+                            .forEach(row -> existing.put(new PendingKey(row.getPersonnel().getCode(), date), row)));
+
+            attendanceBatchRepository.upsertCheckIns(chunk);
+
+            Map<YearMonth, Map<String, AttendanceContribution>> deltas = new HashMap<>();
+            for (PendingCheckIn checkIn : chunk) {
+                AttendanceRecord before = existing.get(PendingKey.of(checkIn));
+                // the upsert leaves a row that already has a check-in untouched
+                if (before != null && before.getCheckIn() != null) continue;
+
+                AttendanceContribution delta = AttendanceContribution.of(afterUpsert(checkIn, before))
+                        .minus(AttendanceContribution.of(before));
+                deltas.computeIfAbsent(YearMonth.from(checkIn.date()), period -> new HashMap<>())
+                        .merge(checkIn.personnelCode(), delta, AttendanceContribution::plus);
+            }
+            deltas.forEach(attendanceAggregateService::addAll);
+
+            chunk.stream()
+                    .collect(Collectors.groupingBy(PendingCheckIn::date,
+                            Collectors.mapping(PendingCheckIn::personnelCode, Collectors.toList())))
+                    .forEach((date, codes) -> eventPublisher.publishEvent(new AttendanceRecordsChangedEvent(date, codes)));
+        });
+    }
+
+    // The row as upsertCheckIns() leaves it, built without touching the (now stale) managed entity
+    private AttendanceRecord afterUpsert(PendingCheckIn checkIn, AttendanceRecord before) {
+        return AttendanceRecord.builder()
+                .date(checkIn.date())
+                .checkIn(checkIn.checkIn())
+                .status(checkIn.status())
+                .isLate(checkIn.late())
+                .lateMinutes(checkIn.lateMinutes())
+                .type(before != null ? before.getType() : null)
+                .workHours(before != null ? before.getWorkHours() : 0.0)
+                .missingHours(before != null ? before.getMissingHours() : 0.0)
+                .build();
+    }
+
+    private Set<String> checkedInCodes(LocalDate date) {
+        Set<String> cached = checkedInDays.get(date);
+        if (cached != null) return cached;
+
+        synchronized (this) {
+            cached = checkedInDays.get(date);
+            if (cached != null) return cached;
+
+            Set<String> codes = ConcurrentHashMap.newKeySet();
+            codes.addAll(attendanceRepository.findCheckedInCodesByDate(date));
+            pending.values().stream()
+                    .filter(checkIn -> checkIn.date().equals(date))
+                    .forEach(checkIn -> codes.add(checkIn.personnelCode()));
+            checkedInDays.keySet().removeIf(day -> day.isBefore(date.minusDays(2)));
+            checkedInDays.put(date, codes);
+            return codes;
+        }
+    }
+
+    // Callers hold journalLock; returns the entry's sequence number for awaitDurable()
+    private long append(PendingCheckIn checkIn) throws IOException {
+        byte[] line = (checkIn.toJournalLine() + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        return ++appended;
+    }
+
+    // Group commit: the first waiter forces everything appended so far, outside journalLock so
+    // appends go on meanwhile; the waiters queued behind it mostly find their entry covered, so a
+    // burst of check-ins costs one fsync per round instead of one each
+    private void awaitDurable(long sequence) throws IOException {
+        if (synced >= sequence) return;
+
+        syncLock.lock();
+        try {
+            if (synced >= sequence) return;
+            long target;
+            journalLock.lock();
+            try {
+                target = appended;
+            } finally {
+                journalLock.unlock();
+            }
+            segment.force(false);
+            synced = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Callers hold syncLock and journalLock
+    private void rotateSegment() throws IOException {
+        segment.force(false);
+        synced = appended;
+        segment.close();
+        sealedSegments.add(segmentPath);
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        String name = SEGMENT_PREFIX
+                + LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh"))
+                + "-" + System.currentTimeMillis()
+                + "-" + String.format("%06d", segmentSequence++)
+                + SEGMENT_SUFFIX;
+        segmentPath = Paths.get(journalDir, name);
+        segment = FileChannel.open(segmentPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -46,6 +46,7 @@ public class EmailService {
         context.setVariable("roomLocation", meetingInvitation.getRoomLocation());
         context.setVariable("duration", calculateDuration(meetingInvitation.getStartTime(), meetingInvitation.getEndTime()));
         context.setVariable("capacity", meetingInvitation.getCapacity());
+        context.setVariable("recurrence", meetingInvitation.getRecurrence());
 
         String htmlContent = templateEngine.process("meeting-invitation", context);
         helper.setText(htmlContent, true);
@@ -77,6 +78,7 @@ public class EmailService {
             context.setVariable("roomLocation", meetingInvitation.getRoomLocation());
             context.setVariable("duration", calculateDuration(meetingInvitation.getStartTime(), meetingInvitation.getEndTime()));
             context.setVariable("capacity", meetingInvitation.getCapacity());
+            context.setVariable("recurrence", meetingInvitation.getRecurrence());
 
             context.setVariable("cancellationReason", cancelReason);
 
@@ -110,6 +112,7 @@ public class EmailService {
             context.setVariable("roomLocation", meetingInvitation.getRoomLocation());
             context.setVariable("duration", calculateDuration(meetingInvitation.getStartTime(), meetingInvitation.getEndTime()));
             context.setVariable("capacity", meetingInvitation.getCapacity());
+            context.setVariable("recurrence", meetingInvitation.getRecurrence());
 
             String htmlContent = templateEngine.process("meeting-invitation", context);
             helper.setText(htmlContent, true);
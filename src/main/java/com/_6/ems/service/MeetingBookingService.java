@@ -7,6 +7,7 @@ import com._6.ems.entity.Department;
 import com._6.ems.entity.MeetingAttendee;
 import com._6.ems.entity.MeetingBooking;
 import com._6.ems.entity.MeetingRoom;
+import com._6.ems.event.MeetingBookingChangedEvent;
 import com._6.ems.exception.AppException;
 import com._6.ems.exception.ErrorCode;
 import com._6.ems.record.PersonnelInfo;
@@ -17,6 +18,7 @@ import com._6.ems.utils.PersonnelUtil;
 import com._6.ems.utils.SecurityUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -38,15 +40,12 @@ public class MeetingBookingService {
     private final MeetingRoomRepository meetingRoomRepository;
     private final EmailService emailService;
     private final DepartmentRepository departmentRepository;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public MeetingBookingResponse createBooking(BookingRequest request) {
-        if (bookingRepository.existsConflictingBookingWithLock(
-                request.getRoomId(),
-                request.getStartTime(),
-                request.getEndTime())) {
-            throw new AppException(ErrorCode.MEETING_ROOM_CONFLICT);
-        }
+        reserveRoom(request, null);
 
         MeetingBooking booking = MeetingBooking.builder()
                 .roomId(request.getRoomId())
@@ -67,6 +66,7 @@ public class MeetingBookingService {
         booking.setAttendees(attendees);
 
         MeetingBooking savedBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(toChangedEvent(savedBooking));
 
         CompletableFuture.runAsync(() -> {
             try {
@@ -161,13 +161,7 @@ public class MeetingBookingService {
                 || !booking.getEndTime().equals(request.getEndTime());
 
         if (isRoomOrTimeChanged) {
-            if (bookingRepository.existsConflictingBookingExcept(
-                    id,
-                    request.getRoomId(),
-                    request.getStartTime(),
-                    request.getEndTime())) {
-                throw new AppException(ErrorCode.MEETING_ROOM_CONFLICT);
-            }
+            reserveRoom(request, id);
         }
 
         booking.setRoomId(request.getRoomId());
@@ -186,6 +180,8 @@ public class MeetingBookingService {
         booking.getAttendees().addAll(newAttendees);
 
         MeetingBooking updatedBooking = bookingRepository.save(booking);
+        // the attendees may have changed even when the room and time did not
+        eventPublisher.publishEvent(toChangedEvent(updatedBooking));
 
         CompletableFuture.runAsync(() -> {
             try {
@@ -212,6 +208,7 @@ public class MeetingBookingService {
         MeetingInvitation cancellationInfo = buildMeetingInvitation(booking);
 
         bookingRepository.delete(booking);
+        eventPublisher.publishEvent(MeetingBookingChangedEvent.deleted(id));
 
         CompletableFuture.runAsync(() -> {
             try {
@@ -222,6 +219,33 @@ public class MeetingBookingService {
         });
     }
 
+    // Holds the room in the availability index until the transaction completes. Only a range
+    // starting before the index horizon, i.e. in the past, is still checked against the database.
+    private void reserveRoom(BookingRequest request, Long excludeBookingId) {
+        if (roomAvailabilityIndex.covers(request.getStartTime())) {
+            roomAvailabilityIndex.tryReserve(
+                    request.getRoomId(), request.getStartTime(), request.getEndTime(), excludeBookingId);
+            return;
+        }
+
+        boolean conflict = excludeBookingId == null
+                ? bookingRepository.existsConflictingBooking(
+                        request.getRoomId(), request.getStartTime(), request.getEndTime())
+                : bookingRepository.existsConflictingBookingExcept(
+                        excludeBookingId, request.getRoomId(), request.getStartTime(), request.getEndTime());
+        if (conflict) throw new AppException(ErrorCode.MEETING_ROOM_CONFLICT);
+    }
+
+    private MeetingBookingChangedEvent toChangedEvent(MeetingBooking booking) {
+        Set<String> participantCodes = Stream.concat(
+                Stream.of(booking.getOrganizerCode()),
+                booking.getAttendees().stream().map(MeetingAttendee::getAttendeeCode)
+        ).collect(Collectors.toSet());
+
+        return new MeetingBookingChangedEvent(booking.getId(), booking.getRoomId(),
+                booking.getStartTime(), booking.getEndTime(), participantCodes);
+    }
+
     private MeetingInvitation buildMeetingInvitation(MeetingBooking booking) {
         Set<String> allCodes = Stream.concat(
                 Stream.of(booking.getOrganizerCode()),
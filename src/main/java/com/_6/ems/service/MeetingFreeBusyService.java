@@ -0,0 +1,256 @@
+package com._6.ems.service;
+
+import com._6.ems.dto.request.MeetingParticipantIntervalProjection;
+import com._6.ems.dto.response.FreeWindowResponse;
+import com._6.ems.entity.MeetingSeries;
+import com._6.ems.event.MeetingBookingChangedEvent;
+import com._6.ems.event.MeetingSeriesChangedEvent;
+import com._6.ems.helper.BusyIntervals;
+import com._6.ems.helper.RecurrenceRule;
+import com._6.ems.helper.RecurrenceRule.Occurrence;
+import com._6.ems.repository.MeetingBookingRepository;
+import com._6.ems.repository.MeetingSeriesRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Free/busy of the personnel as organizers and attendees of the meetings that end after the
+ * horizon (the last load or prune), one BusyIntervals per personnel code. Loaded once at startup
+ * from two flat projections and kept current by MeetingBookingChangedEvent after commit, so common
+ * free windows are computed from a few arrays per person instead of the booking graphs. The
+ * occurrences of a meeting series are kept under the series' interval id. A window starting
+ * before the horizon is read from the database for the requested codes only.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MeetingFreeBusyService {
+
+    private final MeetingBookingRepository meetingBookingRepository;
+    private final MeetingSeriesRepository meetingSeriesRepository;
+
+    // personnel code -> busy intervals
+    private final Map<String, BusyIntervals> calendars = new ConcurrentHashMap<>();
+    // booking or series interval id -> its end and participants, to find them again when it moves
+    // or is deleted
+    private final Map<Long, Participants> bookings = new ConcurrentHashMap<>();
+
+    // epoch second; nothing is covered until the first load
+    private volatile long horizon = Long.MAX_VALUE;
+
+    private record Participants(long end, Set<String> codes) {
+    }
+
+    /**
+     * The windows of at least {@code minDuration} seconds within [start, end) in which none of the
+     * given personnel is in a meeting, in time order.
+     */
+    public List<FreeWindowResponse> findCommonFreeWindows(Collection<String> codes, OffsetDateTime start,
+                                                          OffsetDateTime end, long minDuration) {
+        long from = start.toEpochSecond();
+        long to = end.toEpochSecond();
+        Set<String> distinctCodes = new HashSet<>(codes);
+
+        Map<String, BusyIntervals> source = from >= horizon ? calendars : loadBetween(distinctCodes, start, end);
+
+        List<BusyIntervals> selected = distinctCodes.stream()
+                .map(source::get)
+                .filter(Objects::nonNull)
+                .toList();
+        int capacity = selected.stream().mapToInt(BusyIntervals::size).sum();
+        long[] starts = new long[capacity];
+        long[] ends = new long[capacity];
+        int count = 0;
+        for (BusyIntervals busy : selected) count = busy.copyBetween(from, to, starts, ends, count);
+
+        // the union of the busy intervals only needs its starts and ends in order, not as pairs
+        Arrays.sort(starts, 0, count);
+        Arrays.sort(ends, 0, count);
+
+        List<FreeWindowResponse> windows = new ArrayList<>();
+        long freeFrom = from;
+        int active = 0;
+        for (int i = 0, j = 0; i < count || j < count; ) {
+            if (i < count && starts[i] <= ends[j]) {
+                if (active++ == 0 && starts[i] - freeFrom >= minDuration) windows.add(toResponse(freeFrom, starts[i]));
+                i++;
+            } else {
+                if (--active == 0) freeFrom = ends[j];
+                j++;
+            }
+        }
+        if (to - freeFrom >= minDuration) windows.add(toResponse(freeFrom, to));
+        return windows;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long started = System.currentTimeMillis();
+        OffsetDateTime now = now();
+
+        List<MeetingParticipantIntervalProjection> rows = Stream.concat(
+                meetingBookingRepository.findOrganizerIntervalsEndingAfter(now).stream(),
+                meetingBookingRepository.findAttendeeIntervalsEndingAfter(now).stream()).toList();
+
+        calendars.clear();
+        bookings.clear();
+        calendars.putAll(group(rows));
+        for (MeetingParticipantIntervalProjection row : rows) {
+            bookings.computeIfAbsent(row.getBookingId(),
+                            id -> new Participants(row.getEndTime().toEpochSecond(), new HashSet<>()))
+                    .codes().add(row.getPersonnelCode());
+        }
+        for (MeetingSeries meetingSeries : meetingSeriesRepository.findWithDetailsEndingAfter(now)) {
+            List<Occurrence> upcoming = RecurrenceRule.of(meetingSeries).all()
+                    .filter(occurrence -> occurrence.end().isAfter(now))
+                    .toList();
+            addSeries(MeetingSeries.intervalIdOf(meetingSeries.getId()), participantsOf(meetingSeries), upcoming);
+        }
+        horizon = now.toEpochSecond();
+
+        log.info("Loaded the meetings of {} personnel into the free/busy calendars in {} ms",
+                calendars.size(), System.currentTimeMillis() - started);
+    }
+
+    // Ended meetings can no longer overlap a free window anyone asks for
+    @Scheduled(cron = "0 0 * * * *", zone = "Asia/Ho_Chi_Minh")
+    public synchronized void prune() {
+        if (horizon == Long.MAX_VALUE) return;
+
+        long cutoff = now().toEpochSecond();
+        calendars.replaceAll((code, busy) -> busy.withoutEndedBy(cutoff));
+        calendars.values().removeIf(BusyIntervals::isEmpty);
+        bookings.values().removeIf(booking -> booking.end() <= cutoff);
+        horizon = cutoff;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingChanged(MeetingBookingChangedEvent event) {
+        long bookingId = event.bookingId();
+        Participants previous = bookings.remove(bookingId);
+        if (previous != null) {
+            for (String code : previous.codes()) {
+                calendars.computeIfPresent(code, (c, busy) -> {
+                    BusyIntervals remaining = busy.without(bookingId);
+                    return remaining.isEmpty() ? null : remaining;
+                });
+            }
+        }
+        if (event.participantCodes() == null || event.endTime().toEpochSecond() <= horizon) return;
+
+        long start = event.startTime().toEpochSecond();
+        long end = event.endTime().toEpochSecond();
+        Set<String> codes = new HashSet<>(event.participantCodes());
+        for (String code : codes) {
+            calendars.merge(code, BusyIntervals.EMPTY.with(bookingId, start, end),
+                    (busy, added) -> busy.with(bookingId, start, end));
+        }
+        bookings.put(bookingId, new Participants(end, codes));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSeriesChanged(MeetingSeriesChangedEvent event) {
+        long intervalId = event.intervalId();
+        Participants previous = bookings.remove(intervalId);
+        if (previous != null) {
+            for (String code : previous.codes()) {
+                calendars.computeIfPresent(code, (c, busy) -> {
+                    BusyIntervals remaining = busy.without(intervalId);
+                    return remaining.isEmpty() ? null : remaining;
+                });
+            }
+        }
+        if (event.participantCodes() == null) return;
+
+        long cutoff = horizon;
+        List<Occurrence> upcoming = event.occurrences().stream()
+                .filter(occurrence -> occurrence.end().toEpochSecond() > cutoff)
+                .toList();
+        addSeries(intervalId, new HashSet<>(event.participantCodes()), upcoming);
+    }
+
+    /* Helper methods */
+
+    // the requested personnel's meetings and series occurrences in the window, from the database
+    private Map<String, BusyIntervals> loadBetween(Set<String> codes, OffsetDateTime start, OffsetDateTime end) {
+        Map<String, BusyIntervals> loaded = group(Stream.concat(
+                meetingBookingRepository.findOrganizerIntervalsBetween(codes, start, end).stream(),
+                meetingBookingRepository.findAttendeeIntervalsBetween(codes, start, end).stream()).toList());
+        for (MeetingSeries meetingSeries : meetingSeriesRepository.findWithDetailsByParticipantsBetween(codes, start, end)) {
+            addOccurrences(loaded, MeetingSeries.intervalIdOf(meetingSeries.getId()), participantsOf(meetingSeries),
+                    RecurrenceRule.of(meetingSeries).between(start, end).toList());
+        }
+        return loaded;
+    }
+
+    private void addSeries(long intervalId, Set<String> codes, List<Occurrence> occurrences) {
+        if (occurrences.isEmpty()) return;
+        addOccurrences(calendars, intervalId, codes, occurrences);
+        bookings.put(intervalId, new Participants(occurrences.getLast().end().toEpochSecond(), codes));
+    }
+
+    private void addOccurrences(Map<String, BusyIntervals> target, long intervalId, Set<String> codes,
+                                List<Occurrence> occurrences) {
+        long[] starts = occurrences.stream().mapToLong(occurrence -> occurrence.start().toEpochSecond()).toArray();
+        long[] ends = occurrences.stream().mapToLong(occurrence -> occurrence.end().toEpochSecond()).toArray();
+        for (String code : codes) {
+            target.merge(code, BusyIntervals.EMPTY.replace(intervalId, starts, ends),
+                    (busy, added) -> busy.replace(intervalId, starts, ends));
+        }
+    }
+
+    private Set<String> participantsOf(MeetingSeries meetingSeries) {
+        Set<String> codes = new HashSet<>(meetingSeries.getAttendeeCodes());
+        codes.add(meetingSeries.getOrganizerCode());
+        return codes;
+    }
+
+    // one calendar per code; a booking listed twice for a code (organizer and attendee) counts once
+    private Map<String, BusyIntervals> group(List<MeetingParticipantIntervalProjection> rows) {
+        Map<String, Map<Long, MeetingParticipantIntervalProjection>> byCode = new HashMap<>();
+        for (MeetingParticipantIntervalProjection row : rows) {
+            byCode.computeIfAbsent(row.getPersonnelCode(), code -> new HashMap<>()).putIfAbsent(row.getBookingId(), row);
+        }
+
+        Map<String, BusyIntervals> grouped = new HashMap<>();
+        byCode.forEach((code, byBooking) -> {
+            List<MeetingParticipantIntervalProjection> sorted = byBooking.values().stream()
+                    .sorted(Comparator.comparing(MeetingParticipantIntervalProjection::getStartTime))
+                    .toList();
+            long[] starts = new long[sorted.size()];
+            long[] ends = new long[sorted.size()];
+            long[] bookingIds = new long[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                starts[i] = sorted.get(i).getStartTime().toEpochSecond();
+                ends[i] = sorted.get(i).getEndTime().toEpochSecond();
+                bookingIds[i] = sorted.get(i).getBookingId();
+            }
+            grouped.put(code, BusyIntervals.of(starts, ends, bookingIds));
+        });
+        return grouped;
+    }
+
+    private FreeWindowResponse toResponse(long start, long end) {
+        ZoneId zone = ZoneId.of("Asia/Ho_Chi_Minh");
+        return FreeWindowResponse.builder()
+                .startTime(OffsetDateTime.ofInstant(Instant.ofEpochSecond(start), zone))
+                .endTime(OffsetDateTime.ofInstant(Instant.ofEpochSecond(end), zone))
+                .build();
+    }
+
+    private OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+    }
+}
@@ -3,18 +3,19 @@ package com._6.ems.service;
 import com._6.ems.dto.request.MeetingRoomRequest;
 import com._6.ems.dto.response.MeetingRoomResponse;
 import com._6.ems.entity.MeetingRoom;
+import com._6.ems.event.MeetingRoomChangedEvent;
 import com._6.ems.exception.AppException;
 import com._6.ems.exception.ErrorCode;
 import com._6.ems.repository.MeetingBookingRepository;
 import com._6.ems.repository.MeetingRoomRepository;
+import com._6.ems.repository.MeetingSeriesRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,25 +23,24 @@ public class MeetingRoomService {
 
     private final MeetingRoomRepository meetingRoomRepository;
     private final MeetingBookingRepository meetingBookingRepository;
+    private final MeetingSeriesRepository meetingSeriesRepository;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<MeetingRoomResponse> getAllRooms() {
-        List<MeetingRoom> rooms = meetingRoomRepository.findAll();
-
         OffsetDateTime now = OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
-        Set<Long> roomIds = rooms.stream()
-                .map(MeetingRoom::getId)
-                .collect(Collectors.toSet());
-
-        Set<Long> bookedRoomIds = meetingBookingRepository
-                .findBookedRoomIds(roomIds, now);
+        List<MeetingRoom> rooms = roomAvailabilityIndex.covers(now)
+                ? roomAvailabilityIndex.rooms()
+                : meetingRoomRepository.findAll();
 
         return rooms.stream()
-                .map(room -> convertToDTO(room, bookedRoomIds.contains(room.getId())))
+                .map(room -> convertToDTO(room, isRoomBooked(room.getId(), now)))
                 .toList();
     }
 
     public MeetingRoomResponse getRoomById(Long id) {
-        MeetingRoom meetingRoom = meetingRoomRepository.findById(id)
+        MeetingRoom meetingRoom = roomAvailabilityIndex.room(id)
+                .or(() -> meetingRoomRepository.findById(id))
                 .orElseThrow(() -> new AppException(ErrorCode.MEETING_ROOM_NOT_FOUND));
 
         OffsetDateTime now = OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
@@ -51,8 +51,10 @@ public class MeetingRoomService {
 
     public List<MeetingRoomResponse> getAvailableRoomsInTimeRange(
             OffsetDateTime startTime, OffsetDateTime endTime) {
-        List<MeetingRoom> availableRooms = meetingRoomRepository
-                .findAvailableRoomsInTimeRange(startTime, endTime);
+        // the index only holds bookings that had not ended when it was loaded or pruned
+        List<MeetingRoom> availableRooms = roomAvailabilityIndex.covers(startTime)
+                ? roomAvailabilityIndex.freeRooms(startTime, endTime)
+                : meetingRoomRepository.findAvailableRoomsInTimeRange(startTime, endTime);
 
         return availableRooms.stream()
                 .map(room -> convertToDTO(room, false))
@@ -73,6 +75,7 @@ public class MeetingRoomService {
                 .build();
 
         MeetingRoom savedRoom = meetingRoomRepository.save(room);
+        eventPublisher.publishEvent(new MeetingRoomChangedEvent(savedRoom.getId(), savedRoom));
         return convertToDTO(savedRoom, false);
     }
 
@@ -92,6 +95,7 @@ public class MeetingRoomService {
         room.setEquipment(request.getEquipment());
 
         MeetingRoom updatedRoom = meetingRoomRepository.save(room);
+        eventPublisher.publishEvent(new MeetingRoomChangedEvent(updatedRoom.getId(), updatedRoom));
 
         OffsetDateTime now = OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
         boolean isBooked = isRoomBooked(updatedRoom.getId(), now);
@@ -105,17 +109,19 @@ public class MeetingRoomService {
                 .orElseThrow(() -> new AppException(ErrorCode.MEETING_ROOM_NOT_FOUND));
 
         OffsetDateTime now = OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
-        if (meetingBookingRepository.existsFutureBookingsByRoomId(id, now)) {
+        if (meetingBookingRepository.existsFutureBookingsByRoomId(id, now)
+                || meetingSeriesRepository.existsByRoomIdAndLastEndTimeAfter(id, now)) {
             throw new AppException(ErrorCode.MEETING_ROOM_HAS_FUTURE_BOOKINGS);
         }
 
         meetingRoomRepository.delete(room);
+        eventPublisher.publishEvent(new MeetingRoomChangedEvent(id, null));
     }
 
 
     private boolean isRoomBooked(Long roomId, OffsetDateTime now) {
-        return meetingBookingRepository
-                .existsByRoomIdAndStartTimeBeforeAndEndTimeAfter(roomId, now, now);
+        if (roomAvailabilityIndex.covers(now)) return roomAvailabilityIndex.isBusyAt(roomId, now);
+        return meetingBookingRepository.existsByRoomIdAndStartTimeBeforeAndEndTimeAfter(roomId, now, now);
     }
 
     private MeetingRoomResponse convertToDTO(MeetingRoom room, boolean isBooked) {
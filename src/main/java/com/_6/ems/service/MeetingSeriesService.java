@@ -0,0 +1,304 @@
+package com._6.ems.service;
+
+import com._6.ems.dto.request.MeetingInvitation;
+import com._6.ems.dto.request.MeetingSeriesRequest;
+import com._6.ems.dto.response.MeetingOccurrenceResponse;
+import com._6.ems.dto.response.MeetingSeriesResponse;
+import com._6.ems.entity.Department;
+import com._6.ems.entity.MeetingRoom;
+import com._6.ems.entity.MeetingSeries;
+import com._6.ems.event.MeetingSeriesChangedEvent;
+import com._6.ems.exception.AppException;
+import com._6.ems.exception.ErrorCode;
+import com._6.ems.helper.RecurrenceRule;
+import com._6.ems.helper.RecurrenceRule.Occurrence;
+import com._6.ems.record.PersonnelInfo;
+import com._6.ems.repository.DepartmentRepository;
+import com._6.ems.repository.MeetingRoomRepository;
+import com._6.ems.repository.MeetingSeriesRepository;
+import com._6.ems.utils.PersonnelUtil;
+import com._6.ems.utils.SecurityUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring meetings. A series is stored once with its rule and skipped dates; its occurrences are
+ * expanded by RecurrenceRule when they are checked, listed or loaded into the in-memory indexes.
+ * The whole series is checked for conflicts in one pass over its room's timeline, and the
+ * attendees get one invitation for the series rather than one per occurrence.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MeetingSeriesService {
+
+    private static final int MAX_OCCURRENCES = 500;
+    private static final int DEFAULT_LISTING_DAYS = 30;
+
+    private final MeetingSeriesRepository meetingSeriesRepository;
+    private final MeetingRoomRepository meetingRoomRepository;
+    private final DepartmentRepository departmentRepository;
+    private final PersonnelUtil personnelUtil;
+    private final EmailService emailService;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public MeetingSeriesResponse createSeries(MeetingSeriesRequest request) {
+        MeetingSeries series = MeetingSeries.builder()
+                .roomId(request.getRoomId())
+                .organizerCode(request.getOrganizerCode())
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .frequency(request.getFrequency())
+                .interval(request.getInterval())
+                .untilDate(request.getUntilDate())
+                .occurrenceCount(request.getOccurrenceCount())
+                .exceptionDates(request.getExceptionDates() == null
+                        ? new HashSet<>() : new HashSet<>(request.getExceptionDates()))
+                .attendeeCodes(request.getAttendeeCodes() == null
+                        ? new HashSet<>() : new HashSet<>(request.getAttendeeCodes()))
+                .build();
+
+        List<Occurrence> occurrences = expand(series);
+        series.setLastEndTime(occurrences.getLast().end());
+        // held until the transaction completes, like a single booking
+        roomAvailabilityIndex.tryReserveSeries(series.getRoomId(), occurrences);
+
+        MeetingSeries savedSeries = meetingSeriesRepository.save(series);
+        eventPublisher.publishEvent(new MeetingSeriesChangedEvent(savedSeries.getId(), savedSeries.getRoomId(),
+                participantsOf(savedSeries), occurrences));
+
+        MeetingInvitation invitation = buildMeetingInvitation(savedSeries, occurrences.getFirst());
+        CompletableFuture.runAsync(() -> {
+            try {
+                emailService.sendMeetingInvitation(invitation);
+            } catch (Exception e) {
+                log.error("Failed to send meeting invitation email for series: {}", savedSeries.getId(), e);
+            }
+        });
+
+        OffsetDateTime from = now();
+        return convertToDTO(savedSeries, from, from.plusDays(DEFAULT_LISTING_DAYS));
+    }
+
+    // the series with its occurrences in [from, to), by default the next 30 days
+    public MeetingSeriesResponse getSeriesById(Long id, OffsetDateTime from, OffsetDateTime to) {
+        MeetingSeries series = findSeries(id);
+        OffsetDateTime start = from != null ? from : now();
+        return convertToDTO(series, start, to != null ? to : start.plusDays(DEFAULT_LISTING_DAYS));
+    }
+
+    public List<MeetingSeriesResponse> getMySeries() {
+        String currentUserCode = SecurityUtil.getCurrentUserCode();
+        OffsetDateTime from = now();
+        OffsetDateTime to = from.plusDays(DEFAULT_LISTING_DAYS);
+
+        return meetingSeriesRepository.findWithDetailsByUserCode(currentUserCode).stream()
+                .map(series -> convertToDTO(series, from, to))
+                .toList();
+    }
+
+    /**
+     * Cancels the occurrence on {@code date}: the date becomes an exception of the series and the
+     * attendees are told about that occurrence only.
+     */
+    @Transactional
+    public MeetingSeriesResponse cancelOccurrence(Long id, LocalDate date, String cancelReason) {
+        MeetingSeries series = findSeries(id);
+        if (!series.getOrganizerCode().equals(SecurityUtil.getCurrentUserCode())) {
+            throw new AppException(ErrorCode.UNAUTHORIZED_UPDATE_BOOKING);
+        }
+
+        OffsetDateTime now = now();
+        OffsetDateTime dayStart = date.atStartOfDay(ZoneId.of("Asia/Ho_Chi_Minh")).toOffsetDateTime();
+        Occurrence cancelled = RecurrenceRule.of(series).between(dayStart, dayStart.plusDays(1))
+                .filter(occurrence -> occurrence.start().isAfter(now))
+                .filter(occurrence -> occurrence.start().atZoneSameInstant(ZoneId.of("Asia/Ho_Chi_Minh"))
+                        .toLocalDate().equals(date))
+                .findFirst()
+                .orElseThrow(() -> new AppException(ErrorCode.MEETING_SERIES_INVALID));
+
+        series.getExceptionDates().add(date);
+        RecurrenceRule rule = RecurrenceRule.of(series);
+        Occurrence last = rule.last();
+        if (last != null) series.setLastEndTime(last.end());
+
+        MeetingSeries updatedSeries = meetingSeriesRepository.save(series);
+        eventPublisher.publishEvent(new MeetingSeriesChangedEvent(updatedSeries.getId(), updatedSeries.getRoomId(),
+                participantsOf(updatedSeries), rule.all().filter(occurrence -> occurrence.end().isAfter(now)).toList()));
+
+        MeetingInvitation cancellationInfo = buildMeetingInvitation(updatedSeries, cancelled);
+        cancellationInfo.setRecurrence(null);
+        CompletableFuture.runAsync(() -> {
+            try {
+                emailService.sendMeetingCancellationNotification(cancellationInfo, cancelReason);
+            } catch (Exception e) {
+                log.error("Failed to send meeting cancellation notification for series: {}", id, e);
+            }
+        });
+
+        return convertToDTO(updatedSeries, now, now.plusDays(DEFAULT_LISTING_DAYS));
+    }
+
+    @Transactional
+    public void deleteSeries(Long id, String cancelReason) {
+        MeetingSeries series = findSeries(id);
+        if (!series.getOrganizerCode().equals(SecurityUtil.getCurrentUserCode())) {
+            throw new AppException(ErrorCode.UNAUTHORIZED_DELETE_BOOKING);
+        }
+
+        OffsetDateTime now = now();
+        Occurrence next = RecurrenceRule.of(series).between(now, series.getLastEndTime().plusSeconds(1))
+                .findFirst()
+                .orElse(null);
+
+        meetingSeriesRepository.delete(series);
+        eventPublisher.publishEvent(MeetingSeriesChangedEvent.deleted(id));
+
+        // attendees of a series that is already over are not notified
+        if (next == null) return;
+        MeetingInvitation cancellationInfo = buildMeetingInvitation(series, next);
+        CompletableFuture.runAsync(() -> {
+            try {
+                emailService.sendMeetingCancellationNotification(cancellationInfo, cancelReason);
+            } catch (Exception e) {
+                log.error("Failed to send meeting cancellation notification for series: {}", id, e);
+            }
+        });
+    }
+
+    /* Helper methods */
+
+    private MeetingSeries findSeries(Long id) {
+        return meetingSeriesRepository.findByIdWithDetails(id)
+                .orElseThrow(() -> new AppException(ErrorCode.MEETING_SERIES_NOT_FOUND));
+    }
+
+    // A series must start after the index horizon, i.e. in the future, end within MAX_OCCURRENCES
+    // occurrences, and not overlap itself
+    private List<Occurrence> expand(MeetingSeries series) {
+        RecurrenceRule rule = RecurrenceRule.of(series);
+        Duration duration = Duration.between(series.getStartTime(), series.getEndTime());
+        if (!rule.isBounded()
+                || duration.isNegative() || duration.isZero() || duration.compareTo(Duration.ofDays(1)) > 0
+                || !roomAvailabilityIndex.covers(series.getStartTime())) {
+            throw new AppException(ErrorCode.MEETING_SERIES_INVALID);
+        }
+
+        List<Occurrence> occurrences = rule.all().limit(MAX_OCCURRENCES + 1).toList();
+        if (occurrences.isEmpty() || occurrences.size() > MAX_OCCURRENCES) {
+            throw new AppException(ErrorCode.MEETING_SERIES_INVALID);
+        }
+        return occurrences;
+    }
+
+    private Set<String> participantsOf(MeetingSeries series) {
+        Set<String> codes = new HashSet<>(series.getAttendeeCodes());
+        codes.add(series.getOrganizerCode());
+        return codes;
+    }
+
+    private String describeRecurrence(MeetingSeries series) {
+        DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        String unit = switch (series.getFrequency()) {
+            case DAILY -> "ngày";
+            case WEEKLY -> "tuần";
+            case MONTHLY -> "tháng";
+        };
+
+        StringBuilder description = new StringBuilder(series.getInterval() == 1
+                ? "Hàng " + unit
+                : "Mỗi " + series.getInterval() + " " + unit);
+        if (series.getOccurrenceCount() != null) description.append(", ").append(series.getOccurrenceCount()).append(" lần");
+        if (series.getUntilDate() != null) description.append(", đến ").append(series.getUntilDate().format(dateFormat));
+        if (!series.getExceptionDates().isEmpty()) {
+            description.append(", trừ ").append(series.getExceptionDates().stream()
+                    .sorted()
+                    .map(dateFormat::format)
+                    .collect(Collectors.joining(", ")));
+        }
+        return description.toString();
+    }
+
+    private MeetingInvitation buildMeetingInvitation(MeetingSeries series, Occurrence occurrence) {
+        Set<String> allCodes = participantsOf(series);
+        Map<String, PersonnelInfo> personnelMap = personnelUtil.getPersonnelInfoByCodes(allCodes);
+
+        Department department = departmentRepository.findDepartmentByPersonnelCode(series.getOrganizerCode());
+
+        MeetingRoom meetingRoom = meetingRoomRepository.findById(series.getRoomId())
+                .orElseThrow(() -> new AppException(ErrorCode.MEETING_ROOM_NOT_FOUND));
+
+        List<String> recipientEmails = series.getAttendeeCodes()
+                .stream()
+                .map(code -> personnelMap.get(code).email())
+                .filter(Objects::nonNull)
+                .toList();
+
+        return MeetingInvitation.builder()
+                .meetingTitle(series.getTitle())
+                .meetingDescription(series.getDescription())
+                .organizer(personnelMap.get(series.getOrganizerCode()).fullName())
+                .organizerDepartment(department.getName())
+                .startTime(occurrence.start())
+                .endTime(occurrence.end())
+                .roomName(meetingRoom.getName())
+                .roomLocation(meetingRoom.getLocation())
+                .recipientEmails(recipientEmails)
+                .capacity(meetingRoom.getCapacity())
+                .recurrence(describeRecurrence(series))
+                .build();
+    }
+
+    private MeetingSeriesResponse convertToDTO(MeetingSeries series, OffsetDateTime from, OffsetDateTime to) {
+        Map<String, PersonnelInfo> personnelMap = personnelUtil.getPersonnelInfoByCodes(participantsOf(series));
+        MeetingRoom meetingRoom = roomAvailabilityIndex.room(series.getRoomId())
+                .or(() -> meetingRoomRepository.findById(series.getRoomId()))
+                .orElseThrow(() -> new AppException(ErrorCode.MEETING_ROOM_NOT_FOUND));
+
+        List<MeetingOccurrenceResponse> occurrences = RecurrenceRule.of(series).between(from, to)
+                .map(occurrence -> MeetingOccurrenceResponse.builder()
+                        .startTime(occurrence.start())
+                        .endTime(occurrence.end())
+                        .build())
+                .toList();
+
+        return MeetingSeriesResponse.builder()
+                .id(series.getId())
+                .roomName(meetingRoom.getName())
+                .organizerName(personnelMap.get(series.getOrganizerCode()).fullName())
+                .title(series.getTitle())
+                .description(series.getDescription())
+                .frequency(series.getFrequency())
+                .interval(series.getInterval())
+                .untilDate(series.getUntilDate())
+                .occurrenceCount(series.getOccurrenceCount())
+                .exceptionDates(series.getExceptionDates().stream().sorted().toList())
+                .attendeeNames(series.getAttendeeCodes().stream()
+                        .map(code -> personnelMap.get(code).fullName())
+                        .filter(Objects::nonNull)
+                        .toList())
+                .occurrences(occurrences)
+                .createdAt(series.getCreatedAt())
+                .build();
+    }
+
+    private OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+    }
+}
@@ -0,0 +1,204 @@
+package com._6.ems.service;
+
+import com._6.ems.dto.response.PayrollRunResponse;
+import com._6.ems.entity.PayrollRun;
+import com._6.ems.enums.PayrollRunStatus;
+import com._6.ems.exception.AppException;
+import com._6.ems.exception.ErrorCode;
+import com._6.ems.mapper.PayrollRunMapper;
+import com._6.ems.repository.PayrollRunRepository;
+import com._6.ems.repository.PersonnelRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Month-end payroll. Personnel codes are walked in order and cut into chunks; a wave of chunks is
+ * computed in parallel on a bounded pool, each chunk committing in its own transaction
+ * (SalaryService.generateMonthlySalaries). After each wave the run's checkpoint moves past the
+ * chunks that committed, up to the first failure, so a failed or interrupted run resumes there.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PayrollRunService {
+
+    private final PayrollRunRepository payrollRunRepository;
+    private final PersonnelRepository personnelRepository;
+    private final SalaryService salaryService;
+    private final PayrollRunMapper payrollRunMapper;
+
+    @Value("${payroll.chunk-size:500}")
+    private int chunkSize;
+
+    // also bounds the database connections a run holds at once
+    @Value("${payroll.parallelism:8}")
+    private int parallelism;
+
+    private final Set<YearMonth> activeRuns = ConcurrentHashMap.newKeySet();
+    private ExecutorService workers;
+
+    @PostConstruct
+    void init() {
+        workers = Executors.newFixedThreadPool(parallelism, Thread.ofVirtual().name("payroll-worker-", 0).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Runs (or resumes) the payroll of {@code period} on the calling thread.
+     */
+    public PayrollRun run(YearMonth period) {
+        if (!activeRuns.add(period)) {
+            log.warn("Payroll run for {} is already in progress", period);
+            return null;
+        }
+        try {
+            return execute(prepare(period));
+        } finally {
+            activeRuns.remove(period);
+        }
+    }
+
+    /**
+     * Starts (or resumes) the payroll of {@code period} in the background and returns its progress.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public PayrollRunResponse start(YearMonth period) {
+        if (!activeRuns.add(period)) {
+            return payrollRunMapper.toResponse(findRun(period));
+        }
+        try {
+            PayrollRun run = prepare(period);
+            Thread.ofVirtual().name("payroll-run-" + period).start(() -> {
+                try {
+                    execute(run);
+                } finally {
+                    activeRuns.remove(period);
+                }
+            });
+            return payrollRunMapper.toResponse(run);
+        } catch (RuntimeException e) {
+            activeRuns.remove(period);
+            throw e;
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public PayrollRunResponse getRun(String id) {
+        return payrollRunRepository.findById(id)
+                .map(payrollRunMapper::toResponse)
+                .orElseThrow(() -> new AppException(ErrorCode.PAYROLL_RUN_NOT_FOUND));
+    }
+
+    // A run still RUNNING at startup was interrupted by a shutdown or crash
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRuns() {
+        for (PayrollRun run : payrollRunRepository.findByStatus(PayrollRunStatus.RUNNING)) {
+            YearMonth period = YearMonth.of(run.getYear(), run.getMonth());
+            log.info("Resuming interrupted payroll run for {} after {}", period, run.getCheckpointCode());
+            Thread.ofVirtual().name("payroll-run-" + period).start(() -> run(period));
+        }
+    }
+
+    /* Helper methods */
+
+    private PayrollRun findRun(YearMonth period) {
+        return payrollRunRepository.findByYearAndMonth(period.getYear(), period.getMonthValue())
+                .orElseThrow(() -> new AppException(ErrorCode.PAYROLL_RUN_NOT_FOUND));
+    }
+
+    private PayrollRun prepare(YearMonth period) {
+        PayrollRun run = payrollRunRepository.findByYearAndMonth(period.getYear(), period.getMonthValue())
+                .orElseGet(() -> PayrollRun.builder()
+                        .year(period.getYear())
+                        .month(period.getMonthValue())
+                        .startedAt(now())
+                        .build());
+        if (run.getStatus() == PayrollRunStatus.COMPLETED) return run;
+
+        run.setStatus(PayrollRunStatus.RUNNING);
+        run.setTotalPersonnel(personnelRepository.count());
+        run.setFinishedAt(null);
+        run.setLastError(null);
+        return payrollRunRepository.save(run);
+    }
+
+    private PayrollRun execute(PayrollRun run) {
+        if (run.getStatus() == PayrollRunStatus.COMPLETED) return run;
+
+        YearMonth period = YearMonth.of(run.getYear(), run.getMonth());
+        long started = System.currentTimeMillis();
+        try {
+            List<String> codes;
+            while (!(codes = personnelRepository.findCodesAfter(
+                    run.getCheckpointCode(), Limit.of(chunkSize * parallelism))).isEmpty()) {
+
+                List<List<String>> chunks = new ArrayList<>();
+                for (int from = 0; from < codes.size(); from += chunkSize) {
+                    chunks.add(codes.subList(from, Math.min(from + chunkSize, codes.size())));
+                }
+                List<Future<Integer>> results = new ArrayList<>();
+                for (List<String> chunk : chunks) {
+                    results.add(workers.submit(() -> salaryService.generateMonthlySalaries(chunk, period)));
+                }
+
+                // the checkpoint only moves over an unbroken prefix of committed chunks
+                for (int i = 0; i < chunks.size(); i++) {
+                    List<String> chunk = chunks.get(i);
+                    try {
+                        results.get(i).get();
+                    } catch (ExecutionException e) {
+                        throw new IllegalStateException("Payroll chunk starting at " + chunk.getFirst() + " failed",
+                                e.getCause());
+                    }
+                    run.setCheckpointCode(chunk.getLast());
+                    run.setProcessedPersonnel(run.getProcessedPersonnel() + chunk.size());
+                }
+                run = payrollRunRepository.save(run);
+                log.info("Payroll {}: {}/{} personnel", period, run.getProcessedPersonnel(), run.getTotalPersonnel());
+            }
+
+            run.setStatus(PayrollRunStatus.COMPLETED);
+            run.setFinishedAt(now());
+            log.info("Payroll {} completed in {} ms", period, System.currentTimeMillis() - started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // left RUNNING: resumed on the next startup
+            return payrollRunRepository.save(run);
+        } catch (RuntimeException e) {
+            log.error("Payroll {} failed after {}", period, run.getCheckpointCode(), e);
+            run.setStatus(PayrollRunStatus.FAILED);
+            run.setFinishedAt(now());
+            run.setLastError(describe(e));
+        }
+        return payrollRunRepository.save(run);
+    }
+
+    private String describe(RuntimeException e) {
+        String message = e.getCause() != null ? e.getMessage() + ": " + e.getCause().getMessage() : e.getMessage();
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+    }
+}
@@ -0,0 +1,214 @@
+package com._6.ems.service;
+
+import com._6.ems.dto.response.SalaryDetailResponse;
+import com._6.ems.entity.Salary;
+import com._6.ems.exception.AppException;
+import com._6.ems.exception.ErrorCode;
+import com._6.ems.mapper.SalaryMapper;
+import com._6.ems.repository.SalaryRepository;
+import com._6.ems.utils.SecurityUtil;
+import com.openhtmltopdf.extend.FSSupplier;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders payslips from the "payslip" Thymeleaf template into PDFs. A month's payslips are
+ * streamed into a ZIP: salaries are read in keyset chunks, each in its own short transaction,
+ * rendered on a fixed pool and written in personnel code order, with at most a few PDFs per
+ * renderer held in memory at any time.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class PayslipService {
+
+    private static final DateTimeFormatter GENERATED_AT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    @Value("${payslip.parallelism:4}")
+    int parallelism;
+
+    @Value("${payslip.chunk-size:200}")
+    int chunkSize;
+
+    // a TTF with Vietnamese glyphs; PDF built-in fonts cannot render them
+    @Value("${payslip.font-path:}")
+    String fontPath;
+
+    final SalaryRepository salaryRepository;
+    final SalaryMapper salaryMapper;
+    final TemplateEngine templateEngine;
+    final PlatformTransactionManager transactionManager;
+
+    ExecutorService renderers;
+    TransactionTemplate chunkTransaction;
+    // the font file is read once; every PDF embeds it from these bytes
+    FSSupplier<InputStream> font;
+
+    @PostConstruct
+    void init() throws IOException {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setReadOnly(true);
+
+        if (!fontPath.isBlank()) {
+            byte[] fontBytes = Files.readAllBytes(Path.of(fontPath));
+            font = () -> new ByteArrayInputStream(fontBytes);
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        renderers = Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "payslip-renderer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderers.shutdownNow();
+    }
+
+    /**
+     * One payslip, for an admin or the salary's own personnel.
+     */
+    @Transactional(readOnly = true)
+    public Payslip renderPayslip(String salaryId) {
+        Salary salary = salaryRepository.findById(salaryId)
+                .orElseThrow(() -> new AppException(ErrorCode.SALARY_NOT_FOUND));
+
+        if (!SecurityUtil.isCurrentUserAdmin()
+                && !salary.getPersonnel().getCode().equals(SecurityUtil.getCurrentUserCode())) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+
+        SalaryDetailResponse detail = salaryMapper.toDetailResponse(salary);
+        return new Payslip(fileName(detail), render(detail));
+    }
+
+    /**
+     * Writes a ZIP with one PDF per salary of {@code period} to {@code out}. Rendering runs on the
+     * renderer pool while earlier PDFs are being written; entries keep personnel code order. No
+     * transaction spans the export, so a slow client does not hold a database connection.
+     */
+    public void writePayslipZip(YearMonth period, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // bounds the PDFs held in memory: rendering ones plus rendered ones waiting for their turn
+        int window = parallelism * 2;
+        Deque<Future<Payslip>> inFlight = new ArrayDeque<>(window);
+        int written = 0;
+
+        try {
+            String after = "";
+            while (true) {
+                List<SalaryDetailResponse> chunk = readChunk(period, after);
+                if (chunk.isEmpty()) break;
+
+                after = chunk.get(chunk.size() - 1).getPersonnelCode();
+                for (SalaryDetailResponse detail : chunk) {
+                    if (inFlight.size() >= window) {
+                        writeEntry(zip, inFlight.poll());
+                        written++;
+                    }
+                    inFlight.add(renderers.submit(() -> new Payslip(fileName(detail), render(detail))));
+                }
+                if (chunk.size() < chunkSize) break;
+            }
+
+            while (!inFlight.isEmpty()) {
+                writeEntry(zip, inFlight.poll());
+                written++;
+            }
+            zip.finish();
+        } finally {
+            // client went away or a render failed: drop what is still queued
+            inFlight.forEach(future -> future.cancel(true));
+        }
+
+        log.info("Wrote {} payslips of {} in {} ms", written, period, System.currentTimeMillis() - started);
+    }
+
+    /* Helper methods */
+
+    // the chunk's salaries after personnel code {@code after}, mapped before the transaction ends
+    private List<SalaryDetailResponse> readChunk(YearMonth period, String after) {
+        return chunkTransaction.execute(status -> salaryRepository
+                .findWithPersonnelByPeriodAfterCode(period.getMonthValue(), period.getYear(), after, Limit.of(chunkSize))
+                .stream()
+                .map(salaryMapper::toDetailResponse)
+                .toList());
+    }
+
+    private byte[] render(SalaryDetailResponse detail) {
+        Context context = new Context();
+        context.setVariable("payslip", detail);
+        context.setVariable("generatedAt", LocalDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh")).format(GENERATED_AT));
+        String html = templateEngine.process("payslip", context);
+
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream(64 * 1024);
+        try {
+            PdfRendererBuilder builder = new PdfRendererBuilder();
+            builder.useFastMode();
+            if (font != null) {
+                builder.useFont(font, "Payslip");
+            }
+            builder.withHtmlContent(html, null);
+            builder.toStream(pdf);
+            builder.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Payslip rendering failed for " + detail.getPersonnelCode(), e);
+        }
+        return pdf.toByteArray();
+    }
+
+    private void writeEntry(ZipOutputStream zip, Future<Payslip> future) throws IOException {
+        Payslip payslip;
+        try {
+            payslip = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Payslip export interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Payslip rendering failed", e.getCause());
+        }
+
+        zip.putNextEntry(new ZipEntry(payslip.fileName()));
+        zip.write(payslip.pdf());
+        zip.closeEntry();
+    }
+
+    private String fileName(SalaryDetailResponse detail) {
+        return "payslip-" + detail.getPersonnelCode() + "-" + YearMonth.of(detail.getYear(), detail.getMonth()) + ".pdf";
+    }
+
+    public record Payslip(String fileName, byte[] pdf) {
+    }
+}
@@ -10,6 +10,8 @@ import com._6.ems.entity.*;
 import com._6.ems.entity.compositeKey.NotificationRecipientId;
 import com._6.ems.enums.PrivilegeName;
 import com._6.ems.enums.Role;
+import com._6.ems.event.MeetingBookingChangedEvent;
+import com._6.ems.event.MeetingSeriesChangedEvent;
 import com._6.ems.exception.AppException;
 import com._6.ems.exception.ErrorCode;
 import com._6.ems.mapper.PersonnelMapper;
@@ -21,6 +23,7 @@ import com._6.ems.utils.SecurityUtil;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -51,6 +54,8 @@ public class PersonnelService {
     DepartmentRepository departmentRepository;
     SalaryService salaryService;
     MeetingBookingRepository meetingBookingRepository;
+    MeetingSeriesRepository meetingSeriesRepository;
+    ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public PersonnelResponse createPersonnel(PersonnelCreationRequest request) {
@@ -97,7 +102,12 @@ public class PersonnelService {
                 employee.setDepartment(null);
                 departmentRepository.save(department);
             }
+            List<Long> bookingIds = meetingBookingRepository.findIdsByOrganizerCode(code);
             meetingBookingRepository.deleteByOrganizerCode(code);
+            bookingIds.forEach(id -> eventPublisher.publishEvent(MeetingBookingChangedEvent.deleted(id)));
+            List<MeetingSeries> series = meetingSeriesRepository.findByOrganizerCode(code);
+            meetingSeriesRepository.deleteAll(series);
+            series.forEach(s -> eventPublisher.publishEvent(MeetingSeriesChangedEvent.deleted(s.getId())));
             employeeRepository.delete(employee);
         });
 
@@ -0,0 +1,387 @@
+package com._6.ems.service;
+
+import com._6.ems.dto.request.MeetingBookingIntervalProjection;
+import com._6.ems.entity.MeetingRoom;
+import com._6.ems.entity.MeetingSeries;
+import com._6.ems.event.MeetingBookingChangedEvent;
+import com._6.ems.event.MeetingRoomChangedEvent;
+import com._6.ems.event.MeetingSeriesChangedEvent;
+import com._6.ems.exception.AppException;
+import com._6.ems.exception.ErrorCode;
+import com._6.ems.helper.RecurrenceRule;
+import com._6.ems.helper.RecurrenceRule.Occurrence;
+import com._6.ems.helper.RoomTimeline;
+import com._6.ems.helper.RoomTimeline.Interval;
+import com._6.ems.repository.MeetingBookingRepository;
+import com._6.ems.repository.MeetingRoomRepository;
+import com._6.ems.repository.MeetingSeriesRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory index of the meeting rooms and their bookings that end after the horizon (the last
+ * load or prune). Loaded once at startup and kept current by booking and room events after
+ * commit, so availability, "free now" and conflict checks are answered from a per-room
+ * RoomTimeline without a query. A time range starting before the horizon is not covered: callers
+ * check {@link #covers} and fall back to the database.
+ * <p>
+ * Bookings are validated against the index too: {@link #tryReserve} checks a room and places a hold
+ * on it under a per-room lock, so concurrent bookers of different rooms never wait for each other
+ * and no database lock is taken. Like the rest of the index this assumes a single application
+ * instance.
+ * <p>
+ * The occurrences of a meeting series are expanded into the timeline of its room, all under the
+ * series' interval id, so single bookings and series are checked against each other alike.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomAvailabilityIndex {
+
+    private static final Comparator<MeetingRoom> BY_ID = Comparator.comparing(MeetingRoom::getId);
+    private static final int LOCK_STRIPES = 64;
+
+    private final MeetingRoomRepository meetingRoomRepository;
+    private final MeetingBookingRepository meetingBookingRepository;
+    private final MeetingSeriesRepository meetingSeriesRepository;
+
+    // room id -> timeline
+    private final Map<Long, RoomTimeline> timelines = new ConcurrentHashMap<>();
+    // booking id -> its interval, to find the old position of a moved or deleted booking
+    private final Map<Long, Interval> bookings = new ConcurrentHashMap<>();
+    // series interval id -> its occurrences that have not ended
+    private final Map<Long, List<Interval>> series = new ConcurrentHashMap<>();
+
+    // guards check-then-hold per room; a stripe is only held for the in-memory check
+    private final ReentrantLock[] roomLocks = IntStream.range(0, LOCK_STRIPES)
+            .mapToObj(i -> new ReentrantLock())
+            .toArray(ReentrantLock[]::new);
+    // holds get negative ids so they never collide with a booking id
+    private final AtomicLong holdIds = new AtomicLong();
+
+    // epoch second; nothing is covered until the first load
+    private volatile long horizon = Long.MAX_VALUE;
+
+    /**
+     * The room intervals taken by a booking or series that is being written. They block other
+     * bookers like a committed booking until released.
+     */
+    public record Hold(RoomTimeline timeline, List<Interval> intervals) {
+        public void release() {
+            intervals.forEach(timeline::remove);
+        }
+    }
+
+    public boolean covers(OffsetDateTime start) {
+        return start.toEpochSecond() >= horizon;
+    }
+
+    public List<MeetingRoom> rooms() {
+        return timelines.values().stream()
+                .map(RoomTimeline::getRoom)
+                .sorted(BY_ID)
+                .toList();
+    }
+
+    public Optional<MeetingRoom> room(Long roomId) {
+        return Optional.ofNullable(timelines.get(roomId)).map(RoomTimeline::getRoom);
+    }
+
+    public Collection<RoomTimeline> timelines() {
+        return timelines.values();
+    }
+
+    public Optional<RoomTimeline> timeline(Long roomId) {
+        return Optional.ofNullable(timelines.get(roomId));
+    }
+
+    public boolean isFree(Long roomId, OffsetDateTime start, OffsetDateTime end) {
+        return isFree(roomId, start, end, null);
+    }
+
+    public boolean isFree(Long roomId, OffsetDateTime start, OffsetDateTime end, Long excludeBookingId) {
+        RoomTimeline timeline = timelines.get(roomId);
+        return timeline == null || timeline.isFree(start.toEpochSecond(), end.toEpochSecond(), excludeBookingId);
+    }
+
+    public boolean isBusyAt(Long roomId, OffsetDateTime instant) {
+        RoomTimeline timeline = timelines.get(roomId);
+        return timeline != null && timeline.isBusyAt(instant.toEpochSecond());
+    }
+
+    public boolean hasBookingsEndingAfter(Long roomId, OffsetDateTime instant) {
+        RoomTimeline timeline = timelines.get(roomId);
+        return timeline != null && timeline.hasBookingsEndingAfter(instant.toEpochSecond());
+    }
+
+    public List<MeetingRoom> freeRooms(OffsetDateTime start, OffsetDateTime end) {
+        long from = start.toEpochSecond();
+        long to = end.toEpochSecond();
+        return timelines.values().stream()
+                .filter(timeline -> timeline.isFree(from, to))
+                .map(RoomTimeline::getRoom)
+                .sorted(BY_ID)
+                .toList();
+    }
+
+    /**
+     * Holds [start, end) of the room for a booking about to be written, or throws
+     * MEETING_ROOM_CONFLICT when it overlaps a committed booking or another hold ({@code
+     * excludeBookingId} is the booking being moved). Inside a transaction the hold is released when
+     * the transaction completes; on commit the booking itself has replaced it by then, through its
+     * MeetingBookingChangedEvent. Outside a transaction the caller releases it.
+     * <p>
+     * A booking moved within its room would overlap its own interval, which the timeline's single
+     * lookup does not allow for. The hold then takes the place of that interval, spanning both the
+     * old and the new range, and the old interval is put back if the transaction rolls back.
+     */
+    public Hold tryReserve(Long roomId, OffsetDateTime start, OffsetDateTime end, Long excludeBookingId) {
+        // the timeline's single lookup relies on every interval ending after it starts
+        if (!end.isAfter(start)) throw new IllegalArgumentException("end must be after start");
+        long from = start.toEpochSecond();
+        long to = end.toEpochSecond();
+        Hold hold;
+        Interval moved;
+        ReentrantLock lock = lockOf(roomId);
+        lock.lock();
+        try {
+            RoomTimeline timeline = timelines.get(roomId);
+            if (timeline == null) throw new AppException(ErrorCode.MEETING_ROOM_NOT_FOUND);
+            if (!timeline.isFree(from, to, excludeBookingId)) throw new AppException(ErrorCode.MEETING_ROOM_CONFLICT);
+
+            moved = excludeBookingId != null ? bookings.get(excludeBookingId) : null;
+            if (moved != null && (moved.roomId() != roomId || moved.end() <= from || moved.start() >= to)) {
+                moved = null;
+            }
+            hold = moved == null
+                    ? place(timeline, roomId, new long[]{from}, new long[]{to})
+                    : place(timeline, roomId, new long[]{Math.min(from, moved.start())}, new long[]{Math.max(to, moved.end())});
+            if (moved != null) timeline.remove(moved);
+        } finally {
+            lock.unlock();
+        }
+
+        releaseOnCompletion(hold, moved);
+        return hold;
+    }
+
+    /**
+     * Holds every occurrence of a new series like {@link #tryReserve}, or throws
+     * MEETING_SERIES_CONFLICT when any of them is taken. The whole series is checked in one pass
+     * over the room's timeline.
+     */
+    public Hold tryReserveSeries(Long roomId, List<Occurrence> occurrences) {
+        long[] starts = occurrences.stream().mapToLong(occurrence -> occurrence.start().toEpochSecond()).toArray();
+        long[] ends = occurrences.stream().mapToLong(occurrence -> occurrence.end().toEpochSecond()).toArray();
+        return hold(roomId, starts, ends,
+                timeline -> timeline.firstConflict(starts, ends) < 0, ErrorCode.MEETING_SERIES_CONFLICT);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long started = System.currentTimeMillis();
+        OffsetDateTime now = now();
+
+        timelines.clear();
+        bookings.clear();
+        series.clear();
+        meetingRoomRepository.findAll().forEach(room -> timelines.put(room.getId(), new RoomTimeline(copyOf(room))));
+        for (MeetingBookingIntervalProjection booking : meetingBookingRepository.findIntervalsEndingAfter(now)) {
+            add(booking.getId(), booking.getRoomId(), booking.getStartTime(), booking.getEndTime());
+        }
+        for (MeetingSeries meetingSeries : meetingSeriesRepository.findWithDetailsEndingAfter(now)) {
+            List<Occurrence> upcoming = RecurrenceRule.of(meetingSeries).all()
+                    .filter(occurrence -> occurrence.end().isAfter(now))
+                    .toList();
+            addSeries(MeetingSeries.intervalIdOf(meetingSeries.getId()), meetingSeries.getRoomId(), upcoming);
+        }
+        horizon = now.toEpochSecond();
+
+        log.info("Loaded {} meeting rooms, {} upcoming bookings and {} series into the availability index in {} ms",
+                timelines.size(), bookings.size(), series.size(), System.currentTimeMillis() - started);
+    }
+
+    // Ended bookings can no longer conflict with anything bookable
+    @Scheduled(cron = "0 0 * * * *", zone = "Asia/Ho_Chi_Minh")
+    public synchronized void prune() {
+        if (horizon == Long.MAX_VALUE) return;
+
+        long cutoff = now().toEpochSecond();
+        bookings.values().removeIf(interval -> interval.end() <= cutoff);
+        series.replaceAll((id, intervals) -> intervals.stream().filter(interval -> interval.end() > cutoff).toList());
+        series.values().removeIf(List::isEmpty);
+        int pruned = timelines.values().stream().mapToInt(timeline -> timeline.pruneEndedBy(cutoff)).sum();
+        horizon = cutoff;
+        log.debug("Pruned {} ended bookings from the availability index", pruned);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingChanged(MeetingBookingChangedEvent event) {
+        Interval previous = bookings.remove(event.bookingId());
+        if (previous != null) {
+            RoomTimeline timeline = timelines.get(previous.roomId());
+            if (timeline != null) timeline.remove(previous);
+        }
+        if (event.roomId() != null && event.endTime().toEpochSecond() > horizon) {
+            add(event.bookingId(), event.roomId(), event.startTime(), event.endTime());
+        }
+    }
+
+    // The old occurrences are swapped for the new ones under the room's lock: a booker checking the
+    // room in between would find every occurrence of the series free
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSeriesChanged(MeetingSeriesChangedEvent event) {
+        List<Interval> previous = series.remove(event.intervalId());
+        Long previousRoomId = previous != null && !previous.isEmpty() ? previous.getFirst().roomId() : null;
+        if (previousRoomId != null && !previousRoomId.equals(event.roomId())) {
+            withRoomLock(previousRoomId, () -> removeAll(previousRoomId, previous));
+        }
+        if (event.roomId() == null) return;
+
+        long cutoff = horizon;
+        List<Occurrence> upcoming = event.occurrences().stream()
+                .filter(occurrence -> occurrence.end().toEpochSecond() > cutoff)
+                .toList();
+        withRoomLock(event.roomId(), () -> {
+            if (event.roomId().equals(previousRoomId)) removeAll(previousRoomId, previous);
+            addSeries(event.intervalId(), event.roomId(), upcoming);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRoomChanged(MeetingRoomChangedEvent event) {
+        if (event.room() == null) {
+            timelines.remove(event.roomId());
+            bookings.values().removeIf(interval -> interval.roomId() == event.roomId());
+            series.values().removeIf(intervals -> intervals.getFirst().roomId() == event.roomId());
+            return;
+        }
+        RoomTimeline timeline = timelines.get(event.roomId());
+        if (timeline != null) {
+            timeline.setRoom(copyOf(event.room()));
+        } else {
+            timelines.put(event.roomId(), new RoomTimeline(copyOf(event.room())));
+        }
+    }
+
+    /* Helper methods */
+
+    private Hold hold(Long roomId, long[] starts, long[] ends, Predicate<RoomTimeline> isFree, ErrorCode conflict) {
+        Hold hold;
+        ReentrantLock lock = lockOf(roomId);
+        lock.lock();
+        try {
+            RoomTimeline timeline = timelines.get(roomId);
+            if (timeline == null) throw new AppException(ErrorCode.MEETING_ROOM_NOT_FOUND);
+            if (!isFree.test(timeline)) throw new AppException(conflict);
+            hold = place(timeline, roomId, starts, ends);
+        } finally {
+            lock.unlock();
+        }
+
+        releaseOnCompletion(hold, null);
+        return hold;
+    }
+
+    // callers hold the room's lock
+    private Hold place(RoomTimeline timeline, Long roomId, long[] starts, long[] ends) {
+        long holdId = -holdIds.incrementAndGet();
+        Hold hold = new Hold(timeline, IntStream.range(0, starts.length)
+                .mapToObj(i -> new Interval(holdId, roomId, starts[i], ends[i]))
+                .toList());
+        hold.intervals().forEach(timeline::add);
+        return hold;
+    }
+
+    // {@code moved} is the interval the hold replaced, if any; it comes back on rollback
+    private void releaseOnCompletion(Hold hold, Interval moved) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (moved != null && status != STATUS_COMMITTED) restore(hold.timeline(), moved);
+                hold.release();
+            }
+        });
+    }
+
+    // Puts back the interval of a booking whose move rolled back, unless the booking has changed
+    // since; the hold still covers it, so nobody can have taken its place
+    private synchronized void restore(RoomTimeline timeline, Interval moved) {
+        if (moved.equals(bookings.get(moved.bookingId()))) timeline.add(moved);
+    }
+
+    private ReentrantLock lockOf(Long roomId) {
+        return roomLocks[Math.floorMod(roomId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private void withRoomLock(Long roomId, Runnable action) {
+        ReentrantLock lock = lockOf(roomId);
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeAll(Long roomId, List<Interval> intervals) {
+        RoomTimeline timeline = timelines.get(roomId);
+        if (timeline != null) intervals.forEach(timeline::remove);
+    }
+
+    private void add(Long bookingId, Long roomId, OffsetDateTime startTime, OffsetDateTime endTime) {
+        Interval interval = new Interval(bookingId, roomId, startTime.toEpochSecond(), endTime.toEpochSecond());
+        // a booking can outlive its room, or name a room that never existed
+        RoomTimeline timeline = timelines.get(roomId);
+        if (timeline == null) return;
+        timeline.add(interval);
+        bookings.put(bookingId, interval);
+    }
+
+    private void addSeries(long intervalId, Long roomId, List<Occurrence> occurrences) {
+        RoomTimeline timeline = timelines.get(roomId);
+        if (timeline == null || occurrences.isEmpty()) return;
+        List<Interval> intervals = occurrences.stream()
+                .map(occurrence -> new Interval(intervalId, roomId,
+                        occurrence.start().toEpochSecond(), occurrence.end().toEpochSecond()))
+                .toList();
+        intervals.forEach(timeline::add);
+        series.put(intervalId, intervals);
+    }
+
+    // rooms are handed out to callers; keep them apart from managed entities
+    private MeetingRoom copyOf(MeetingRoom room) {
+        return MeetingRoom.builder()
+                .id(room.getId())
+                .name(room.getName())
+                .capacity(room.getCapacity())
+                .location(room.getLocation())
+                .equipment(room.getEquipment())
+                .build();
+    }
+
+    private OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+    }
+}
@@ -0,0 +1,140 @@
+package com._6.ems.service;
+
+import com._6.ems.dto.request.MeetingBookingIntervalProjection;
+import com._6.ems.dto.request.RoomSuggestionRequest;
+import com._6.ems.dto.response.RoomSuggestionResponse;
+import com._6.ems.entity.MeetingRoom;
+import com._6.ems.helper.RoomTimeline;
+import com._6.ems.helper.RoomTimeline.Interval;
+import com._6.ems.repository.MeetingBookingRepository;
+import com._6.ems.repository.MeetingRoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Suggests free (room, start) pairs for a meeting. Every room that seats the attendees and has the
+ * required equipment is scanned in parallel: its bookings in the search window are turned into a
+ * bitmap of 15-minute slots, and each free run long enough for the meeting yields one candidate,
+ * at the start of the run. Candidates are ranked by start time, then by the fewest spare seats.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomSuggestionService {
+
+    private static final int SLOT_SECONDS = 15 * 60;
+
+    private static final Comparator<Candidate> BEST_FIRST = Comparator.comparingLong(Candidate::start)
+            .thenComparingInt(Candidate::spareSeats)
+            .thenComparing(candidate -> candidate.room().getId());
+
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+    private final MeetingRoomRepository meetingRoomRepository;
+    private final MeetingBookingRepository meetingBookingRepository;
+
+    private record Candidate(MeetingRoom room, long start, int spareSeats) {
+    }
+
+    public List<RoomSuggestionResponse> suggest(RoomSuggestionRequest request) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+        OffsetDateTime earliest = request.getEarliestStart().isBefore(now) ? now : request.getEarliestStart();
+
+        // candidates start on a slot boundary
+        long base = Math.ceilDiv(earliest.toEpochSecond(), SLOT_SECONDS) * (long) SLOT_SECONDS;
+        long latest = request.getLatestEnd().toEpochSecond();
+        long duration = request.getDurationMinutes() * 60L;
+        int slots = (int) Math.max(0, Math.floorDiv(latest - base, SLOT_SECONDS));
+        int runSlots = (int) Math.ceilDiv(duration, SLOT_SECONDS);
+        if (runSlots > slots) return List.of();
+
+        int attendees = request.getAttendees();
+        int limit = request.getLimit();
+        List<String> equipment = normalize(request.getEquipment());
+
+        Collection<RoomTimeline> timelines = roomAvailabilityIndex.covers(earliest)
+                ? roomAvailabilityIndex.timelines()
+                : loadTimelines(now);
+
+        return timelines.parallelStream()
+                .filter(timeline -> fits(timeline.getRoom(), attendees, equipment))
+                .flatMap(timeline -> candidates(timeline, base, slots, runSlots, attendees, limit))
+                .sorted(BEST_FIRST)
+                .limit(limit)
+                .map(candidate -> toResponse(candidate, duration))
+                .toList();
+    }
+
+    /* Helper methods */
+
+    private boolean fits(MeetingRoom room, int attendees, List<String> equipment) {
+        if (room.getCapacity() == null || room.getCapacity() < attendees) return false;
+        if (equipment.isEmpty()) return true;
+
+        String available = room.getEquipment() == null ? "" : room.getEquipment().toLowerCase(Locale.ROOT);
+        return equipment.stream().allMatch(available::contains);
+    }
+
+    // the first free runs of the room, at most {@code limit} since the ranking starts with the time
+    private Stream<Candidate> candidates(RoomTimeline timeline, long base, int slots, int runSlots,
+                                         int attendees, int limit) {
+        MeetingRoom room = timeline.getRoom();
+        BitSet busy = timeline.busySlots(base, SLOT_SECONDS, slots);
+
+        List<Candidate> candidates = new ArrayList<>();
+        int free = busy.nextClearBit(0);
+        while (free + runSlots <= slots && candidates.size() < limit) {
+            int next = busy.nextSetBit(free);
+            int end = next < 0 ? slots : next;
+            if (end - free >= runSlots) {
+                candidates.add(new Candidate(room, base + (long) free * SLOT_SECONDS, room.getCapacity() - attendees));
+            }
+            if (next < 0) break;
+            free = busy.nextClearBit(next);
+        }
+        return candidates.stream();
+    }
+
+    // before the index is loaded: the same timelines, built from the database for this search
+    private Collection<RoomTimeline> loadTimelines(OffsetDateTime now) {
+        Map<Long, RoomTimeline> timelines = meetingRoomRepository.findAll().stream()
+                .collect(Collectors.toMap(MeetingRoom::getId, RoomTimeline::new));
+        for (MeetingBookingIntervalProjection booking : meetingBookingRepository.findIntervalsEndingAfter(now)) {
+            RoomTimeline timeline = timelines.get(booking.getRoomId());
+            if (timeline == null) continue;
+            timeline.add(new Interval(booking.getId(), booking.getRoomId(),
+                    booking.getStartTime().toEpochSecond(), booking.getEndTime().toEpochSecond()));
+        }
+        return timelines.values();
+    }
+
+    private List<String> normalize(List<String> equipment) {
+        if (equipment == null) return List.of();
+        return equipment.stream()
+                .filter(Objects::nonNull)
+                .map(item -> item.trim().toLowerCase(Locale.ROOT))
+                .filter(item -> !item.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private RoomSuggestionResponse toResponse(Candidate candidate, long duration) {
+        MeetingRoom room = candidate.room();
+        OffsetDateTime start = OffsetDateTime.ofInstant(Instant.ofEpochSecond(candidate.start()),
+                ZoneId.of("Asia/Ho_Chi_Minh"));
+        return RoomSuggestionResponse.builder()
+                .roomId(room.getId())
+                .roomName(room.getName())
+                .location(room.getLocation())
+                .capacity(room.getCapacity())
+                .equipment(room.getEquipment())
+                .startTime(start)
+                .endTime(start.plusSeconds(duration))
+                .build();
+    }
+}
@@ -1,43 +1,48 @@
 package com._6.ems.service;
 
-import com._6.ems.dto.request.SalaryStatisticsProjection;
+import com._6.ems.dto.request.PayrollSimulationRequest;
 import com._6.ems.dto.request.SalaryUpdateRequest;
+import com._6.ems.dto.response.PayrollSimulationItem;
+import com._6.ems.dto.response.PayrollSimulationResponse;
 import com._6.ems.dto.response.SalaryDetailResponse;
 import com._6.ems.dto.response.SalaryResponse;
 import com._6.ems.dto.response.SalaryStatisticsResponse;
 import com._6.ems.entity.*;
 import com._6.ems.enums.Role;
+import com._6.ems.event.SalariesChangedEvent;
 import com._6.ems.exception.AppException;
 import com._6.ems.exception.ErrorCode;
-import com._6.ems.helper.SalaryHelper;
+import com._6.ems.helper.AttendancePolicyProvider;
+import com._6.ems.helper.BusinessCalendar;
+import com._6.ems.helper.SalaryCalculator;
+import com._6.ems.helper.TaxSchedule;
+import com._6.ems.helper.TaxTable;
 import com._6.ems.mapper.SalaryMapper;
-import com._6.ems.repository.AttendanceRepository;
+import com._6.ems.record.AttendancePolicy;
+import com._6.ems.repository.PersonnelRepository;
 import com._6.ems.repository.SalaryRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneId;
-import java.util.List;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class SalaryService {
 
-    @Value("${salary.standard-work-hours}")
-    double standardWorkHours;
-
-    @Value("${salary.overtimeRate}")
-    double overtimeRate;
-
     @Value("${salary.employee.position-allowance}")
     Double positionAllowanceEmployee;
 
@@ -45,88 +50,148 @@ public class SalaryService {
     Double positionAllowanceManager;
 
     final SalaryRepository salaryRepository;
-    final AttendanceRepository attendanceRepository;
+    final AttendanceAggregateService attendanceAggregateService;
     final SalaryMapper salaryMapper;
-    final SalaryHelper salaryHelper;
+    final BusinessCalendar businessCalendar;
+    final TaxTable taxTable;
+    final AttendancePolicyProvider attendancePolicyProvider;
+    final PersonnelRepository personnelRepository;
+    final SalarySummaryService salarySummaryService;
+    final ApplicationEventPublisher eventPublisher;
 
     public void createMonthlySalary(Personnel personnel) {
-        LocalDate today = LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+        createMonthlySalary(personnel, YearMonth.now(ZoneId.of("Asia/Ho_Chi_Minh")));
+    }
 
+    public void createMonthlySalary(Personnel personnel, YearMonth period) {
         boolean exists = salaryRepository
-                .existsByPersonnelAndMonthAndYear(personnel, today.getMonthValue(), today.getYear());
+                .existsByPersonnelAndMonthAndYear(personnel, period.getMonthValue(), period.getYear());
         if (exists) return;
 
-        Salary salary = Salary.builder()
-                .personnel(personnel)
-                .month(LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh")).getMonthValue())
-                .year(LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh")).getYear())
-                .build();
-
-        if(personnel.getAccount().getRole() == Role.EMPLOYEE) {
-            salary.setPositionAllowance(positionAllowanceEmployee);
-        } else if(personnel.getAccount().getRole() == Role.MANAGER) {
-            salary.setPositionAllowance(positionAllowanceManager);
-        }
-        salaryRepository.saveAndFlush(salary);
-        calculateSalary(personnel);
+        Salary salary = newMonthlySalary(personnel, period);
+        applyCalculation(salary, attendanceAggregateService.getMonthly(personnel.getCode(), period), period,
+                currentRules());
+        salaryRepository.save(salary);
+        eventPublisher.publishEvent(new SalariesChangedEvent(period));
     }
 
-    public void calculateSalary(Personnel personnel) {
-        LocalDate today = LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh"));
-        int year = today.getYear();
-        int month = today.getMonthValue();
-
-        Salary salary = salaryRepository.findByPersonnelAndMonthAndYear(personnel, month, year)
-                .orElseThrow(() -> new AppException(ErrorCode.SALARY_NOT_FOUND));
-
-        List<AttendanceRecord> attendanceRecords = attendanceRepository
-                .findByPersonnelCodeAndMonthAndYear(
-                        salary.getPersonnel().getCode(),
-                        salary.getMonth(),
-                        salary.getYear()
-                );
+    /**
+     * Creates the missing salaries of {@code period} for one chunk of personnel and computes all of
+     * the chunk's salaries, committing the chunk on its own. Returns the number of salaries computed.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int generateMonthlySalaries(List<String> personnelCodes, YearMonth period) {
+        if (personnelCodes.isEmpty()) return 0;
+
+        Map<String, Salary> salaries = new HashMap<>();
+        salaryRepository.findWithPersonnelByPeriodAndPersonnelCodeIn(
+                        period.getMonthValue(), period.getYear(), personnelCodes)
+                .forEach(salary -> salaries.put(salary.getPersonnel().getCode(), salary));
+
+        personnelRepository.findWithAccountByCodeIn(personnelCodes).stream()
+                .filter(personnel -> !salaries.containsKey(personnel.getCode()))
+                .forEach(personnel -> salaries.put(personnel.getCode(), newMonthlySalary(personnel, period)));
+
+        Map<String, AttendanceMonthlyAggregate> attendance =
+                attendanceAggregateService.getMonthly(salaries.keySet(), period);
+        // one policy snapshot for the whole chunk
+        PayrollRules rules = currentRules();
+        salaries.forEach((code, salary) -> applyCalculation(salary, attendance.get(code), period, rules));
+        salaryRepository.saveAll(salaries.values());
+        eventPublisher.publishEvent(new SalariesChangedEvent(period));
+
+        return salaries.size();
+    }
 
-        salaryHelper.summarizeMonthlyAttendance(salary, attendanceRecords);
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void createMissingMonthlySalaries(Collection<String> personnelCodes) {
+        createMissingMonthlySalaries(personnelCodes, YearMonth.now(ZoneId.of("Asia/Ho_Chi_Minh")));
+    }
 
-        salaryHelper.calculateInsurance(salary, salary.getPersonnel().getBasicSalary());
+    /**
+     * Creates and computes the salaries of {@code period} the given personnel do not have yet,
+     * committing on its own. Attendance written for a past month needs its salary row before the
+     * SalaryDirtyEvents of that month are worked off.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void createMissingMonthlySalaries(Collection<String> personnelCodes, YearMonth period) {
+        if (personnelCodes.isEmpty()) return;
+
+        Set<String> existing = salaryRepository
+                .findPersonnelCodesWithSalary(personnelCodes, period.getMonthValue(), period.getYear());
+
+        List<String> missing = personnelCodes.stream()
+                .filter(code -> !existing.contains(code))
+                .distinct()
+                .toList();
+        if (missing.isEmpty()) return;
+
+        Map<String, AttendanceMonthlyAggregate> attendance = attendanceAggregateService.getMonthly(missing, period);
+        PayrollRules rules = currentRules();
+        List<Salary> created = personnelRepository.findWithAccountByCodeIn(missing).stream()
+                .map(personnel -> {
+                    Salary salary = newMonthlySalary(personnel, period);
+                    applyCalculation(salary, attendance.get(personnel.getCode()), period, rules);
+                    return salary;
+                })
+                .toList();
+        salaryRepository.saveAll(created);
+        eventPublisher.publishEvent(new SalariesChangedEvent(period));
+    }
 
-        //lương cơ bản theo ngày và theo giờ
-        double dailySalary = salary.getPersonnel().getBasicSalary() / salaryHelper.getWorkingDaysInCurrentMonth();
-        double hourlySalary = dailySalary / standardWorkHours;
+    @Transactional
+    public void recalculateSalary(String personnelCode, YearMonth period) {
+        Personnel personnel = personnelRepository.findByCode(personnelCode)
+                .orElseThrow(() -> new AppException(ErrorCode.PERSONNEL_NOT_FOUND));
 
-        // 1️⃣ Lương theo công
-        double salaryFromWorkDays = salary.getFullDayWork() * dailySalary + salary.getHalfDayWork() * (dailySalary / 2);
+        calculateSalary(personnel, period);
+    }
 
-        // 2️⃣ Lương tăng ca
-        double overtimePay =  salary.getOvertimeHours() * hourlySalary * overtimeRate;
-        salary.setOvertimePay(overtimePay);
+    public void calculateSalary(Personnel personnel) {
+        calculateSalary(personnel, YearMonth.now(ZoneId.of("Asia/Ho_Chi_Minh")));
+    }
 
-        // 3️⃣ Tổng thu nhập trước khấu trừ
-        double grossSalary = salaryFromWorkDays
-                + salary.getPositionAllowance()
-                + salary.getPersonnel().getAllowance()
-                + salary.getPersonnel().getBonus()
-                + overtimePay
-                - (salary.getAbsenceDays() * dailySalary)
-                - salary.getPersonnel().getKpiPenalty()
-                - salary.getPenalty();
-        salary.setGrossSalary(grossSalary);
+    public void calculateSalary(Personnel personnel, YearMonth period) {
+        int year = period.getYear();
+        int month = period.getMonthValue();
 
-        double personalIncomeTax = salaryHelper.calculatePersonalIncomeTax(salary);
-        salary.setPersonalIncomeTax(personalIncomeTax);
+        Salary salary = salaryRepository.findByPersonnelAndMonthAndYear(personnel, month, year)
+                .orElseThrow(() -> new AppException(ErrorCode.SALARY_NOT_FOUND));
 
-        // 4️⃣ Các khoản khấu trừ
-        double totalDeductions = salary.getSocialInsurance()
-                + salary.getHealthInsurance()
-                + salary.getUnemploymentInsurance()
-                + personalIncomeTax;
-        salary.setTotalDeductions(totalDeductions);
+        AttendanceMonthlyAggregate attendance =
+                attendanceAggregateService.getMonthly(salary.getPersonnel().getCode(), period);
 
-        // 5️⃣ Lương thực nhận
-        double netSalary = grossSalary - totalDeductions;
-        salary.setNetSalary(netSalary);
+        applyCalculation(salary, attendance, period, currentRules());
+        salaryRepository.save(salary);
+        eventPublisher.publishEvent(new SalariesChangedEvent(period));
+    }
 
-        salaryRepository.saveAndFlush(salary);
+    // Copies the attendance counters and the kernel's result onto the salary; persisting is up to the caller
+    private void applyCalculation(Salary salary, AttendanceMonthlyAggregate attendance, YearMonth period,
+                                  PayrollRules rules) {
+        Personnel personnel = salary.getPersonnel();
+
+        SalaryCalculator.Result result = SalaryCalculator.calculate(calculatorInput(
+                personnel, valueOf(salary.getPositionAllowance()), attendance, rules,
+                businessCalendar.getWorkingDays(period), taxTable.forPeriod(period)));
+
+        salary.setTotalWorkHours(attendance.getTotalWorkHours());
+        salary.setOvertimeHours(attendance.getOvertimeHours());
+        salary.setFullDayWork(attendance.getFullDayWork());
+        salary.setHalfDayWork(attendance.getHalfDayWork());
+        salary.setAbsenceDays(attendance.getAbsentDays());
+        salary.setLateDays(attendance.getLateArrivalDays());
+        salary.setNotEnoughHourDays(attendance.getNotEnoughHourDays());
+
+        salary.setPenalty(result.penalty());
+        salary.setSocialInsurance(result.socialInsurance());
+        salary.setHealthInsurance(result.healthInsurance());
+        salary.setUnemploymentInsurance(result.unemploymentInsurance());
+        salary.setOvertimePay(result.overtimePay());
+        salary.setGrossSalary(result.grossSalary());
+        salary.setPersonalIncomeTax(result.personalIncomeTax());
+        salary.setTotalDeductions(result.totalDeductions());
+        salary.setNetSalary(result.netSalary());
     }
 
     @Transactional(readOnly = true)
@@ -165,21 +230,226 @@ public class SalaryService {
         calculateSalary(salary.getPersonnel());
 
         Salary updatedSalary = salaryRepository.save(salary);
+        eventPublisher.publishEvent(new SalariesChangedEvent(YearMonth.of(salary.getYear(), salary.getMonth())));
         return salaryMapper.toDetailResponse(updatedSalary);
     }
 
+    /**
+     * Computes the month's payroll for all personnel twice in memory, with the current rules and
+     * with the requested overrides, and reports both side by side. Both sides use each salary's
+     * stored position allowance unless the request overrides the one of the personnel's role.
+     * Nothing is persisted.
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public PayrollSimulationResponse simulatePayroll(PayrollSimulationRequest request) {
+        YearMonth period = YearMonth.of(request.getYear(), request.getMonth());
+        PayrollRules current = currentRules();
+        PayrollRules simulated = current.override(request);
+
+        List<Personnel> personnel = personnelRepository.findAllWithAccount();
+        Map<String, AttendanceMonthlyAggregate> attendance = attendanceAggregateService.getMonthly(
+                personnel.stream().map(Personnel::getCode).toList(), period);
+        int workingDays = businessCalendar.getWorkingDays(period);
+        TaxSchedule taxSchedule = taxTable.forPeriod(period);
+        // the baseline is the payroll as stored: each salary keeps the allowance it was created with
+        Map<String, Double> storedAllowances = new HashMap<>();
+        salaryRepository.findAllowancesByMonthAndYear(period.getMonthValue(), period.getYear())
+                .forEach(row -> storedAllowances.put(row.getPersonnelCode(), valueOf(row.getPositionAllowance())));
+
+        // entities are only read on this thread, the parallel part is the pure kernel
+        List<SimulationCase> cases = personnel.stream()
+                .map(p -> {
+                    AttendanceMonthlyAggregate totals = attendance.get(p.getCode());
+                    double baselineAllowance = storedAllowances.getOrDefault(p.getCode(), current.positionAllowance(p));
+                    double simulatedAllowance = overridesPositionAllowance(request, p)
+                            ? simulated.positionAllowance(p) : baselineAllowance;
+                    return new SimulationCase(p.getCode(), fullName(p),
+                            calculatorInput(p, baselineAllowance, totals, current, workingDays, taxSchedule),
+                            calculatorInput(p, simulatedAllowance, totals, simulated, workingDays, taxSchedule));
+                })
+                .toList();
+
+        List<SimulationOutcome> outcomes = cases.parallelStream()
+                .map(c -> new SimulationOutcome(c,
+                        SalaryCalculator.calculate(c.baseline()),
+                        SalaryCalculator.calculate(c.simulated())))
+                .toList();
+
+        double baselineGross = 0, simulatedGross = 0, baselineNet = 0, simulatedNet = 0;
+        double baselineDeductions = 0, simulatedDeductions = 0;
+        List<PayrollSimulationItem> items = new ArrayList<>(outcomes.size());
+        for (SimulationOutcome outcome : outcomes) {
+            SalaryCalculator.Result baseline = outcome.baseline();
+            SalaryCalculator.Result result = outcome.simulated();
+
+            baselineGross += baseline.grossSalary();
+            simulatedGross += result.grossSalary();
+            baselineNet += baseline.netSalary();
+            simulatedNet += result.netSalary();
+            baselineDeductions += baseline.totalDeductions();
+            simulatedDeductions += result.totalDeductions();
+
+            items.add(PayrollSimulationItem.builder()
+                    .personnelCode(outcome.simulationCase().personnelCode())
+                    .fullName(outcome.simulationCase().fullName())
+                    .baselineGrossSalary(baseline.grossSalary())
+                    .simulatedGrossSalary(result.grossSalary())
+                    .baselineNetSalary(baseline.netSalary())
+                    .simulatedNetSalary(result.netSalary())
+                    .netSalaryDelta(result.netSalary() - baseline.netSalary())
+                    .build());
+        }
+
+        return PayrollSimulationResponse.builder()
+                .month(period.getMonthValue())
+                .year(period.getYear())
+                .totalEmployees(items.size())
+                .baselineGrossSalary(baselineGross)
+                .simulatedGrossSalary(simulatedGross)
+                .grossSalaryDelta(simulatedGross - baselineGross)
+                .baselineNetSalary(baselineNet)
+                .simulatedNetSalary(simulatedNet)
+                .netSalaryDelta(simulatedNet - baselineNet)
+                .baselineDeductions(baselineDeductions)
+                .simulatedDeductions(simulatedDeductions)
+                .deductionsDelta(simulatedDeductions - baselineDeductions)
+                .items(items)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public SalaryStatisticsResponse getSalaryStatistics(Integer month, Integer year) {
-        SalaryStatisticsProjection stats = salaryRepository.getStatistics(month, year);
-
-        return SalaryStatisticsResponse.builder()
-                .month(month)
-                .year(year)
-                .totalEmployees(stats.getTotalEmployees())
-                .totalGrossSalary(stats.getTotalGross())
-                .totalNetSalary(stats.getTotalNet())
-                .totalDeductions(stats.getTotalDeductions())
-                .averageNetSalary(stats.getAvgNetSalary())
+        return salarySummaryService.getCompanySummary(YearMonth.of(year, month))
+                .map(summary -> SalaryStatisticsResponse.builder()
+                        .month(month)
+                        .year(year)
+                        .totalEmployees(summary.getTotalEmployees())
+                        .totalGrossSalary(summary.getTotalGrossSalary())
+                        .totalNetSalary(summary.getTotalNetSalary())
+                        .totalDeductions(summary.getTotalDeductions())
+                        .averageNetSalary(summary.getAverageNetSalary())
+                        .build())
+                .orElseGet(() -> SalaryStatisticsResponse.builder()
+                        .month(month)
+                        .year(year)
+                        .totalEmployees(0L)
+                        .build());
+    }
+
+    /* Helper methods */
+
+    private Salary newMonthlySalary(Personnel personnel, YearMonth period) {
+        Salary salary = Salary.builder()
+                .personnel(personnel)
+                .month(period.getMonthValue())
+                .year(period.getYear())
                 .build();
+
+        if(personnel.getAccount().getRole() == Role.EMPLOYEE) {
+            salary.setPositionAllowance(positionAllowanceEmployee);
+        } else if(personnel.getAccount().getRole() == Role.MANAGER) {
+            salary.setPositionAllowance(positionAllowanceManager);
+        }
+        return salary;
+    }
+
+    private PayrollRules currentRules() {
+        return new PayrollRules(1.0, 0.0, 0.0,
+                valueOf(positionAllowanceEmployee), valueOf(positionAllowanceManager),
+                attendancePolicyProvider.get());
+    }
+
+    private SalaryCalculator.Input calculatorInput(Personnel personnel,
+                                                   double positionAllowance,
+                                                   AttendanceMonthlyAggregate attendance,
+                                                   PayrollRules rules,
+                                                   int workingDays,
+                                                   TaxSchedule taxSchedule) {
+        return new SalaryCalculator.Input(
+                valueOf(personnel.getBasicSalary()) * rules.basicSalaryFactor(),
+                positionAllowance,
+                valueOf(personnel.getAllowance()) + rules.allowanceIncrease(),
+                valueOf(personnel.getBonus()) + rules.bonusIncrease(),
+                valueOf(personnel.getKpiPenalty()),
+                workingDays,
+                attendance.getFullDayWork(),
+                attendance.getHalfDayWork(),
+                attendance.getAbsentDays(),
+                attendance.getOvertimeHours(),
+                attendance.getTotalMissingHours(),
+                attendance.getTotalLateMinutes(),
+                rules.policy(),
+                taxSchedule);
+    }
+
+    // whether the simulation sets the position allowance of the personnel's role
+    private boolean overridesPositionAllowance(PayrollSimulationRequest request, Personnel personnel) {
+        if (personnel.getAccount() == null) return false;
+        if (personnel.getAccount().getRole() == Role.EMPLOYEE) return request.getEmployeePositionAllowance() != null;
+        if (personnel.getAccount().getRole() == Role.MANAGER) return request.getManagerPositionAllowance() != null;
+        return false;
+    }
+
+    private String fullName(Personnel personnel) {
+        String first = personnel.getFirstName() != null ? personnel.getFirstName() : "";
+        String last = personnel.getLastName() != null ? personnel.getLastName() : "";
+        return (first + " " + last).trim();
+    }
+
+    private double valueOf(Double value) {
+        return value == null ? 0.0 : value;
+    }
+
+    // The tunable salary rules; the simulation replaces some of them, payroll always uses currentRules()
+    private record PayrollRules(double basicSalaryFactor,
+                                double allowanceIncrease,
+                                double bonusIncrease,
+                                double employeePositionAllowance,
+                                double managerPositionAllowance,
+                                AttendancePolicy policy) {
+
+        PayrollRules override(PayrollSimulationRequest request) {
+            return new PayrollRules(
+                    request.getBasicSalaryRaisePercent() != null
+                            ? basicSalaryFactor * (1 + request.getBasicSalaryRaisePercent() / 100) : basicSalaryFactor,
+                    request.getAllowanceIncrease() != null ? request.getAllowanceIncrease() : allowanceIncrease,
+                    request.getBonusIncrease() != null ? request.getBonusIncrease() : bonusIncrease,
+                    request.getEmployeePositionAllowance() != null
+                            ? request.getEmployeePositionAllowance() : employeePositionAllowance,
+                    request.getManagerPositionAllowance() != null
+                            ? request.getManagerPositionAllowance() : managerPositionAllowance,
+                    overridePolicy(request));
+        }
+
+        private AttendancePolicy overridePolicy(PayrollSimulationRequest request) {
+            AttendancePolicy overridden = policy;
+            if (request.getOvertimeRate() != null) {
+                overridden = overridden.withOvertimeRate(request.getOvertimeRate());
+            }
+            if (request.getStandardWorkHours() != null) {
+                overridden = overridden.withStandardWorkHours(request.getStandardWorkHours());
+            }
+            return overridden;
+        }
+
+        // same role rule as newMonthlySalary
+        double positionAllowance(Personnel personnel) {
+            if (personnel.getAccount() == null) return 0.0;
+            if (personnel.getAccount().getRole() == Role.EMPLOYEE) return employeePositionAllowance;
+            if (personnel.getAccount().getRole() == Role.MANAGER) return managerPositionAllowance;
+            return 0.0;
+        }
+    }
+
+    private record SimulationCase(String personnelCode,
+                                  String fullName,
+                                  SalaryCalculator.Input baseline,
+                                  SalaryCalculator.Input simulated) {
+    }
+
+    private record SimulationOutcome(SimulationCase simulationCase,
+                                     SalaryCalculator.Result baseline,
+                                     SalaryCalculator.Result simulated) {
     }
 }
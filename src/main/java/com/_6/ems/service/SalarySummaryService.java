@@ -0,0 +1,180 @@
+package com._6.ems.service;
+
+import com._6.ems.dto.request.SalaryFigureProjection;
+import com._6.ems.dto.response.SalarySummaryResponse;
+import com._6.ems.entity.SalarySummary;
+import com._6.ems.enums.Role;
+import com._6.ems.enums.SalarySummaryScope;
+import com._6.ems.event.SalariesChangedEvent;
+import com._6.ems.mapper.SalarySummaryMapper;
+import com._6.ems.repository.SalaryRepository;
+import com._6.ems.repository.SalarySummaryRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Maintains salary_summary: per month, the salary totals and net salary percentiles of the whole
+ * company, of every department, of every role and of every department and role. Statistics
+ * endpoints read these rows instead of aggregating the salary table on each request. Rows are only
+ * written by SalarySummaryRefresher; a month read before it was built is computed for that read.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class SalarySummaryService {
+
+    SalaryRepository salaryRepository;
+    SalarySummaryRepository salarySummaryRepository;
+    SalarySummaryMapper salarySummaryMapper;
+    ApplicationEventPublisher eventPublisher;
+
+    // the order of the repository's "order by scope, department name, role" on the stored strings
+    private static final Comparator<SalarySummary> STORED_ORDER = Comparator
+            .comparing((SalarySummary summary) -> summary.getScope().name())
+            .thenComparing(SalarySummary::getDepartmentName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(summary -> summary.getRole() == null ? null : summary.getRole().name(),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /**
+     * Replaces the month's summary rows with figures recomputed from its salaries.
+     */
+    @Transactional
+    public void refresh(YearMonth period) {
+        long started = System.currentTimeMillis();
+        List<SalarySummary> summaries = compute(period);
+
+        salarySummaryRepository.deleteByYearAndMonth(period.getYear(), period.getMonthValue());
+        salarySummaryRepository.saveAll(summaries);
+
+        log.info("Refreshed {} salary summary rows of {} in {} ms",
+                summaries.size(), period, System.currentTimeMillis() - started);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SalarySummary> getCompanySummary(YearMonth period) {
+        if (!isBuilt(period)) {
+            return compute(period).stream()
+                    .filter(summary -> summary.getScope() == SalarySummaryScope.COMPANY)
+                    .findFirst();
+        }
+        return salarySummaryRepository.findFirstByYearAndMonthAndScope(
+                period.getYear(), period.getMonthValue(), SalarySummaryScope.COMPANY);
+    }
+
+    /**
+     * The month's summary rows, all scopes when {@code scope} is null.
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<SalarySummaryResponse> getSummaries(YearMonth period, SalarySummaryScope scope) {
+        List<SalarySummary> summaries;
+        if (!isBuilt(period)) {
+            summaries = compute(period).stream()
+                    .filter(summary -> scope == null || summary.getScope() == scope)
+                    .sorted(STORED_ORDER)
+                    .toList();
+        } else {
+            summaries = scope == null
+                    ? salarySummaryRepository.findByYearAndMonthOrderByScopeAscDepartmentNameAscRoleAsc(
+                            period.getYear(), period.getMonthValue())
+                    : salarySummaryRepository.findByYearAndMonthAndScopeOrderByDepartmentNameAscRoleAsc(
+                            period.getYear(), period.getMonthValue(), scope);
+        }
+        return summaries.stream().map(salarySummaryMapper::toResponse).toList();
+    }
+
+    /* Helper methods */
+
+    // A month summarized before this table existed, or never refreshed yet, is answered from its
+    // salaries and queued for SalarySummaryRefresher, so concurrent first reads do not race on writes
+    private boolean isBuilt(YearMonth period) {
+        if (salarySummaryRepository.existsByYearAndMonth(period.getYear(), period.getMonthValue())) return true;
+
+        eventPublisher.publishEvent(new SalariesChangedEvent(period));
+        return false;
+    }
+
+    private List<SalarySummary> compute(YearMonth period) {
+        List<SalaryFigureProjection> figures =
+                salaryRepository.findFiguresByMonthAndYear(period.getMonthValue(), period.getYear());
+
+        Map<GroupKey, List<SalaryFigureProjection>> groups = new LinkedHashMap<>();
+        for (SalaryFigureProjection figure : figures) {
+            Integer departmentId = figure.getDepartmentId();
+            String departmentName = figure.getDepartmentName();
+            Role role = figure.getRole();
+
+            add(groups, new GroupKey(SalarySummaryScope.COMPANY, null, null, null), figure);
+            add(groups, new GroupKey(SalarySummaryScope.DEPARTMENT, departmentId, departmentName, null), figure);
+            add(groups, new GroupKey(SalarySummaryScope.ROLE, null, null, role), figure);
+            add(groups, new GroupKey(SalarySummaryScope.DEPARTMENT_ROLE, departmentId, departmentName, role), figure);
+        }
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+        return groups.entrySet().stream()
+                .map(group -> summarize(period, group.getKey(), group.getValue(), now))
+                .toList();
+    }
+
+    private void add(Map<GroupKey, List<SalaryFigureProjection>> groups, GroupKey key, SalaryFigureProjection figure) {
+        groups.computeIfAbsent(key, k -> new ArrayList<>()).add(figure);
+    }
+
+    private SalarySummary summarize(YearMonth period, GroupKey key, List<SalaryFigureProjection> figures,
+                                    OffsetDateTime refreshedAt) {
+        double[] net = new double[figures.size()];
+        double totalGross = 0, totalNet = 0, totalDeductions = 0;
+        for (int i = 0; i < figures.size(); i++) {
+            SalaryFigureProjection figure = figures.get(i);
+            net[i] = valueOf(figure.getNetSalary());
+            totalGross += valueOf(figure.getGrossSalary());
+            totalNet += net[i];
+            totalDeductions += valueOf(figure.getTotalDeductions());
+        }
+        Arrays.sort(net);
+
+        return SalarySummary.builder()
+                .year(period.getYear())
+                .month(period.getMonthValue())
+                .scope(key.scope())
+                .departmentId(key.departmentId())
+                .departmentName(key.departmentName())
+                .role(key.role())
+                .totalEmployees(figures.size())
+                .totalGrossSalary(totalGross)
+                .totalNetSalary(totalNet)
+                .totalDeductions(totalDeductions)
+                .averageNetSalary(totalNet / figures.size())
+                .minNetSalary(net[0])
+                .medianNetSalary(percentile(net, 0.5))
+                .p90NetSalary(percentile(net, 0.9))
+                .maxNetSalary(net[net.length - 1])
+                .refreshedAt(refreshedAt)
+                .build();
+    }
+
+    // nearest-rank percentile of an ascending, non-empty array
+    private double percentile(double[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private double valueOf(Double value) {
+        return value == null ? 0.0 : value;
+    }
+
+    private record GroupKey(SalarySummaryScope scope, Integer departmentId, String departmentName, Role role) {
+    }
+}
@@ -0,0 +1,247 @@
+package com._6.ems.service;
+
+import com._6.ems.dto.request.ShiftTemplateRequest;
+import com._6.ems.dto.response.ShiftTemplateResponse;
+import com._6.ems.entity.ShiftAssignment;
+import com._6.ems.entity.ShiftTemplate;
+import com._6.ems.exception.AppException;
+import com._6.ems.exception.ErrorCode;
+import com._6.ems.helper.AttendancePolicyProvider;
+import com._6.ems.helper.CompiledShift;
+import com._6.ems.mapper.ShiftTemplateMapper;
+import com._6.ems.record.AttendancePolicy;
+import com._6.ems.repository.DepartmentRepository;
+import com._6.ems.repository.PersonnelRepository;
+import com._6.ems.repository.ShiftAssignmentRepository;
+import com._6.ems.repository.ShiftTemplateRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shift templates and their assignments, plus the cache behind {@link #shiftFor(String)}: the
+ * shift template each personnel resolves to and each template compiled once into a CompiledShift.
+ * Personnel without an assignment work the AttendancePolicy's default shift.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class ShiftScheduleService {
+
+    // cached resolution for personnel that fall back to the policy's shift
+    static final long DEFAULT_SHIFT = 0L;
+
+    ShiftTemplateRepository shiftTemplateRepository;
+    ShiftAssignmentRepository shiftAssignmentRepository;
+    PersonnelRepository personnelRepository;
+    DepartmentRepository departmentRepository;
+    ShiftTemplateMapper shiftTemplateMapper;
+    AttendancePolicyProvider attendancePolicyProvider;
+
+    Map<String, Long> templateIdByPersonnel = new ConcurrentHashMap<>();
+    Map<Long, CompiledShift> compiledTemplates = new ConcurrentHashMap<>();
+    DefaultShiftHolder defaultShift = new DefaultShiftHolder();
+
+    /**
+     * The shift {@code personnelCode} works: their own assignment, else their department's, else
+     * the policy's default shift. Served from memory after the first lookup.
+     */
+    public CompiledShift shiftFor(String personnelCode) {
+        long templateId = templateIdByPersonnel.computeIfAbsent(personnelCode, this::resolveTemplateId);
+        if (templateId == DEFAULT_SHIFT) return defaultShift.get(attendancePolicyProvider.get());
+
+        CompiledShift shift = compiledTemplates.computeIfAbsent(templateId, id -> shiftTemplateRepository.findById(id)
+                .map(CompiledShift::of)
+                .orElse(null));
+        return shift != null ? shift : defaultShift.get(attendancePolicyProvider.get());
+    }
+
+    public List<ShiftTemplateResponse> getTemplates() {
+        return shiftTemplateRepository.findAll().stream().map(shiftTemplateMapper::toResponse).toList();
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public ShiftTemplateResponse createTemplate(ShiftTemplateRequest request) {
+        if (shiftTemplateRepository.existsByName(request.getName())) {
+            throw new AppException(ErrorCode.SHIFT_TEMPLATE_NAME_EXISTED);
+        }
+
+        ShiftTemplate template = new ShiftTemplate();
+        apply(template, request);
+        return shiftTemplateMapper.toResponse(shiftTemplateRepository.save(template));
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public ShiftTemplateResponse updateTemplate(Long id, ShiftTemplateRequest request) {
+        ShiftTemplate template = shiftTemplateRepository.findById(id)
+                .orElseThrow(() -> new AppException(ErrorCode.SHIFT_TEMPLATE_NOT_FOUND));
+
+        if (!template.getName().equals(request.getName())
+                && shiftTemplateRepository.existsByName(request.getName())) {
+            throw new AppException(ErrorCode.SHIFT_TEMPLATE_NAME_EXISTED);
+        }
+
+        apply(template, request);
+        ShiftTemplate saved = shiftTemplateRepository.save(template);
+        afterCommit(() -> compiledTemplates.remove(id));
+        return shiftTemplateMapper.toResponse(saved);
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public void deleteTemplate(Long id) {
+        if (!shiftTemplateRepository.existsById(id)) throw new AppException(ErrorCode.SHIFT_TEMPLATE_NOT_FOUND);
+
+        shiftAssignmentRepository.deleteByShiftTemplateId(id);
+        shiftTemplateRepository.deleteById(id);
+        afterCommit(this::evictCaches);
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public void assignToPersonnel(Long templateId, String personnelCode) {
+        ShiftTemplate template = findTemplate(templateId);
+        personnelRepository.findByCode(personnelCode)
+                .orElseThrow(() -> new AppException(ErrorCode.PERSONNEL_NOT_FOUND));
+
+        ShiftAssignment assignment = shiftAssignmentRepository.findByPersonnelCode(personnelCode)
+                .orElseGet(() -> ShiftAssignment.builder().personnelCode(personnelCode).build());
+        assignment.setShiftTemplate(template);
+        shiftAssignmentRepository.save(assignment);
+        afterCommit(() -> templateIdByPersonnel.remove(personnelCode));
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public void assignToDepartment(Long templateId, Integer departmentId) {
+        ShiftTemplate template = findTemplate(templateId);
+        if (!departmentRepository.existsById(departmentId)) throw new AppException(ErrorCode.DEPARTMENT_NOT_FOUND);
+
+        ShiftAssignment assignment = shiftAssignmentRepository.findByDepartmentId(departmentId)
+                .orElseGet(() -> ShiftAssignment.builder().departmentId(departmentId).build());
+        assignment.setShiftTemplate(template);
+        shiftAssignmentRepository.save(assignment);
+        // members are not tracked per department; resolve everyone again
+        afterCommit(templateIdByPersonnel::clear);
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public void unassignPersonnel(String personnelCode) {
+        shiftAssignmentRepository.findByPersonnelCode(personnelCode).ifPresent(shiftAssignmentRepository::delete);
+        afterCommit(() -> templateIdByPersonnel.remove(personnelCode));
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public void unassignDepartment(Integer departmentId) {
+        shiftAssignmentRepository.findByDepartmentId(departmentId).ifPresent(shiftAssignmentRepository::delete);
+        afterCommit(templateIdByPersonnel::clear);
+    }
+
+    @Transactional(readOnly = true)
+    public ShiftTemplateResponse getShiftOf(String personnelCode) {
+        CompiledShift shift = shiftFor(personnelCode);
+        if (shift.getTemplateId() == null) {
+            AttendancePolicy policy = attendancePolicyProvider.get();
+            return ShiftTemplateResponse.builder()
+                    .name(shift.getName())
+                    .startTime(policy.shiftStart())
+                    .endTime(policy.shiftStart()
+                            .plusMinutes(policy.lunchMinutes() + Math.round(policy.standardWorkHours() * 60)))
+                    .lunchMinutes(policy.lunchMinutes())
+                    .standardWorkHours(policy.standardWorkHours())
+                    .halfDayHours(policy.halfDayHours())
+                    .overtimeThresholdHours(policy.overtimeThresholdHours())
+                    .overnight(false)
+                    .build();
+        }
+        return shiftTemplateMapper.toResponse(findTemplate(shift.getTemplateId()));
+    }
+
+    // department moves are not signalled to this service; re-resolve everyone every night
+    @Scheduled(cron = "0 30 1 * * *", zone = "Asia/Ho_Chi_Minh")
+    public void evictCaches() {
+        templateIdByPersonnel.clear();
+        compiledTemplates.clear();
+    }
+
+    /* Helper methods */
+
+    // Evicting before commit would let a concurrent lookup cache the old row again until the next
+    // night; a rolled-back change keeps the cache as it is
+    private void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    private long resolveTemplateId(String personnelCode) {
+        return shiftAssignmentRepository.findTemplateIdByPersonnelCode(personnelCode)
+                .or(() -> personnelRepository.findDepartmentIdByCode(personnelCode)
+                        .flatMap(shiftAssignmentRepository::findTemplateIdByDepartmentId))
+                .orElse(DEFAULT_SHIFT);
+    }
+
+    private ShiftTemplate findTemplate(Long id) {
+        return shiftTemplateRepository.findById(id)
+                .orElseThrow(() -> new AppException(ErrorCode.SHIFT_TEMPLATE_NOT_FOUND));
+    }
+
+    private void apply(ShiftTemplate template, ShiftTemplateRequest request) {
+        template.setName(request.getName());
+        template.setStartTime(request.getStartTime());
+        template.setEndTime(request.getEndTime());
+        template.setLunchMinutes(request.getLunchMinutes());
+
+        double standardWorkHours = template.getStandardWorkHours();
+        template.setHalfDayHours(request.getHalfDayHours() != null
+                ? request.getHalfDayHours() : standardWorkHours / 2);
+        template.setOvertimeThresholdHours(request.getOvertimeThresholdHours() != null
+                ? request.getOvertimeThresholdHours() : standardWorkHours + 1);
+
+        if (standardWorkHours <= 0
+                || template.getHalfDayHours() > standardWorkHours
+                || template.getOvertimeThresholdHours() < standardWorkHours) {
+            throw new AppException(ErrorCode.SHIFT_TEMPLATE_INVALID);
+        }
+    }
+
+    // recompiles the default shift only when the policy instance was swapped
+    private static final class DefaultShiftHolder {
+        private volatile Compiled compiled;
+
+        CompiledShift get(AttendancePolicy current) {
+            Compiled snapshot = compiled;
+            if (snapshot == null || snapshot.policy() != current) {
+                snapshot = new Compiled(current, CompiledShift.of(current));
+                compiled = snapshot;
+            }
+            return snapshot.shift();
+        }
+
+        private record Compiled(AttendancePolicy policy, CompiledShift shift) {
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com._6.ems.service;
+
+import com._6.ems.dto.response.AttendanceRecordResponse;
+import com._6.ems.entity.AttendanceRecord;
+import com._6.ems.event.AttendanceRecordChangedEvent;
+import com._6.ems.event.AttendanceRecordsChangedEvent;
+import com._6.ems.mapper.AttendanceMapper;
+import com._6.ems.repository.AttendanceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory view of today's attendance, one entry per personnel, as GET /attendance/today returns
+ * it. Loaded from the database once per day, then kept current by attendance events after commit,
+ * and pushed to dashboard subscribers as a snapshot followed by deltas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TodayAttendanceBoard {
+
+    private static final Comparator<AttendanceRecordResponse> BY_EMPLOYEE_CODE =
+            Comparator.comparing(AttendanceRecordResponse::getEmployee_code);
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceMapper attendanceMapper;
+
+    @Value("${attendance.board.emitter-timeout-ms:1800000}")
+    private long emitterTimeout;
+
+    // employee code -> today's record
+    private final Map<String, AttendanceRecordResponse> entries = new ConcurrentHashMap<>();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    // one sender thread: a slow subscriber must not hold up the check-in that published the change
+    private final ExecutorService sender = Executors.newSingleThreadExecutor();
+
+    private volatile LocalDate day;
+
+    public List<AttendanceRecordResponse> snapshot() {
+        ensureToday();
+        return entries.values().stream()
+                .sorted(BY_EMPLOYEE_CODE)
+                .toList();
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        // taken on the sender thread: every change applied after it is sent to this emitter as a delta
+        sender.execute(() -> {
+            try {
+                emitter.send(SseEmitter.event().name("snapshot").data(snapshot()));
+                emitters.add(emitter);
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecordChanged(AttendanceRecordChangedEvent event) {
+        if (!event.date().equals(today())) return;
+        ensureToday();
+
+        synchronized (this) {
+            entries.put(event.record().getEmployee_code(), event.record());
+        }
+        publish(List.of(event.record()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecordsChanged(AttendanceRecordsChangedEvent event) {
+        if (!event.date().equals(today())) return;
+
+        if (event.personnelCodes() == null || !event.date().equals(day)) {
+            reload(event.date());
+            publishSnapshot();
+            return;
+        }
+        if (event.personnelCodes().isEmpty()) return;
+
+        List<AttendanceRecordResponse> changed = attendanceRepository
+                .findByDateAndPersonnel_CodeIn(event.date(), event.personnelCodes()).stream()
+                .map(attendanceMapper::toAttendanceRecordResponse)
+                .toList();
+        synchronized (this) {
+            changed.forEach(response -> entries.put(response.getEmployee_code(), response));
+        }
+        publish(changed);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        emitters.forEach(SseEmitter::complete);
+    }
+
+    /* Helper methods */
+
+    private void ensureToday() {
+        LocalDate today = today();
+        if (!today.equals(day)) {
+            synchronized (this) {
+                if (!today.equals(day)) reload(today);
+            }
+        }
+    }
+
+    private synchronized void reload(LocalDate date) {
+        List<AttendanceRecord> records = attendanceRepository.findAllWithPersonnelByDate(date);
+        entries.clear();
+        records.stream()
+                .map(attendanceMapper::toAttendanceRecordResponse)
+                .forEach(response -> entries.put(response.getEmployee_code(), response));
+        day = date;
+        log.info("Loaded {} attendance records of {} into the dashboard", records.size(), date);
+    }
+
+    private void publish(List<AttendanceRecordResponse> delta) {
+        if (emitters.isEmpty() || delta.isEmpty()) return;
+        send(SseEmitter.event().name("delta").data(delta));
+    }
+
+    private void publishSnapshot() {
+        if (emitters.isEmpty()) return;
+        send(SseEmitter.event().name("snapshot").data(snapshot()));
+    }
+
+    private void send(SseEmitter.SseEventBuilder event) {
+        sender.execute(() -> {
+            // built once: a builder cannot be sent twice
+            Set<ResponseBodyEmitter.DataWithMediaType> data = event.build();
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(data);
+                } catch (IOException | IllegalStateException e) {
+                    emitters.remove(emitter);
+                }
+            }
+        });
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+    }
+}
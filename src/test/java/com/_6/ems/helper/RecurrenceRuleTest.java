@@ -0,0 +1,110 @@
+package com._6.ems.helper;
+
+import com._6.ems.entity.MeetingSeries;
+import com._6.ems.enums.RecurrenceFrequency;
+import com._6.ems.helper.RecurrenceRule.Occurrence;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceRuleTest {
+
+    private static OffsetDateTime at(int year, int month, int day, int hour) {
+        return LocalDateTime.of(year, month, day, hour, 0).atZone(ZoneId.of("Asia/Ho_Chi_Minh")).toOffsetDateTime();
+    }
+
+    // one-hour occurrences starting at {@code start}
+    private static MeetingSeries series(OffsetDateTime start, RecurrenceFrequency frequency, int interval,
+                                        LocalDate untilDate, Integer occurrenceCount, LocalDate... exceptionDates) {
+        return MeetingSeries.builder()
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .frequency(frequency)
+                .interval(interval)
+                .untilDate(untilDate)
+                .occurrenceCount(occurrenceCount)
+                .exceptionDates(Set.of(exceptionDates))
+                .build();
+    }
+
+    private static List<LocalDate> dates(List<Occurrence> occurrences) {
+        return occurrences.stream()
+                .map(occurrence -> occurrence.start().atZoneSameInstant(ZoneId.of("Asia/Ho_Chi_Minh")).toLocalDate())
+                .toList();
+    }
+
+    @Test
+    void monthlySeriesOnThe31stFallsOnTheLastDayOfShorterMonths() {
+        RecurrenceRule rule = RecurrenceRule.of(series(at(2027, 1, 31, 9), RecurrenceFrequency.MONTHLY, 1, null, 6));
+
+        // clamped from the first start each time, so March is back on the 31st
+        assertEquals(List.of(LocalDate.of(2027, 1, 31), LocalDate.of(2027, 2, 28), LocalDate.of(2027, 3, 31),
+                        LocalDate.of(2027, 4, 30), LocalDate.of(2027, 5, 31), LocalDate.of(2027, 6, 30)),
+                dates(rule.all().toList()));
+        assertEquals(at(2027, 2, 28, 9), rule.all().toList().get(1).start());
+    }
+
+    @Test
+    void countIncludesTheExceptionDates() {
+        RecurrenceRule rule = RecurrenceRule.of(series(at(2027, 3, 1, 9), RecurrenceFrequency.DAILY, 1, null, 5,
+                LocalDate.of(2027, 3, 2), LocalDate.of(2027, 3, 5)));
+
+        assertEquals(List.of(LocalDate.of(2027, 3, 1), LocalDate.of(2027, 3, 3), LocalDate.of(2027, 3, 4)),
+                dates(rule.all().toList()));
+        // the last occurrence is the last one not skipped
+        assertEquals(at(2027, 3, 4, 9), rule.last().start());
+    }
+
+    @Test
+    void betweenMidSeriesMatchesTheFullExpansion() {
+        List<MeetingSeries> series = List.of(
+                series(at(2027, 1, 4, 9), RecurrenceFrequency.WEEKLY, 2, null, 40, LocalDate.of(2027, 5, 24)),
+                series(at(2027, 1, 31, 9), RecurrenceFrequency.MONTHLY, 3, null, 12),
+                series(at(2027, 1, 1, 23), RecurrenceFrequency.DAILY, 3, LocalDate.of(2027, 12, 31), null));
+
+        for (MeetingSeries meetingSeries : series) {
+            RecurrenceRule rule = RecurrenceRule.of(meetingSeries);
+            List<Occurrence> all = rule.all().toList();
+            for (OffsetDateTime from = at(2026, 12, 1, 0); from.isBefore(at(2030, 1, 1, 0)); from = from.plusDays(11).plusMinutes(30)) {
+                OffsetDateTime start = from;
+                OffsetDateTime end = from.plusDays(40);
+                List<Occurrence> expected = all.stream()
+                        .filter(occurrence -> occurrence.end().isAfter(start) && occurrence.start().isBefore(end))
+                        .toList();
+                assertEquals(expected, rule.between(start, end).toList(),
+                        meetingSeries.getFrequency() + " every " + meetingSeries.getInterval() + " from " + start);
+            }
+        }
+    }
+
+    @Test
+    void betweenIncludesAnOccurrenceAlreadyUnderway() {
+        RecurrenceRule rule = RecurrenceRule.of(series(at(2027, 1, 4, 9), RecurrenceFrequency.WEEKLY, 2, null, 10));
+
+        List<Occurrence> underway = rule.between(at(2027, 2, 1, 9).plusMinutes(30), at(2027, 2, 1, 11)).toList();
+        assertEquals(1, underway.size());
+        assertEquals(at(2027, 2, 1, 9), underway.getFirst().start());
+    }
+
+    @Test
+    void untilDateAndCountEndTheSeriesAtWhicheverComesFirst() {
+        OffsetDateTime start = at(2027, 3, 1, 9);
+
+        // the until date is inclusive
+        assertEquals(3, RecurrenceRule.of(series(start, RecurrenceFrequency.DAILY, 1, LocalDate.of(2027, 3, 3), 10))
+                .all().count());
+        assertEquals(2, RecurrenceRule.of(series(start, RecurrenceFrequency.DAILY, 1, LocalDate.of(2027, 3, 10), 2))
+                .all().count());
+        // a skipped date still uses up the count, even when the until date is further away
+        assertEquals(1, RecurrenceRule.of(series(start, RecurrenceFrequency.DAILY, 1, LocalDate.of(2027, 3, 10), 2,
+                LocalDate.of(2027, 3, 2))).all().count());
+        assertFalse(RecurrenceRule.of(series(start, RecurrenceFrequency.DAILY, 1, null, null)).isBounded());
+    }
+}
@@ -0,0 +1,87 @@
+package com._6.ems.helper;
+
+import com._6.ems.entity.MeetingRoom;
+import com._6.ems.helper.RoomTimeline.Interval;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomTimelineTest {
+
+    private static RoomTimeline timeline(long[]... bookings) {
+        RoomTimeline timeline = new RoomTimeline(MeetingRoom.builder().id(1L).build());
+        for (int i = 0; i < bookings.length; i++) {
+            timeline.add(new Interval(i + 1, 1, bookings[i][0], bookings[i][1]));
+        }
+        return timeline;
+    }
+
+    @Test
+    void firstConflictIsMinusOneWithoutBookingsOrIntervals() {
+        assertEquals(-1, timeline().firstConflict(new long[]{0, 100}, new long[]{50, 150}));
+        assertEquals(-1, timeline(new long[]{0, 100}).firstConflict(new long[0], new long[0]));
+    }
+
+    @Test
+    void firstConflictFindsTheFirstOverlappingInterval() {
+        RoomTimeline timeline = timeline(new long[]{100, 200}, new long[]{400, 500});
+
+        assertEquals(2, timeline.firstConflict(new long[]{0, 200, 450, 600}, new long[]{50, 300, 460, 700}));
+        assertEquals(0, timeline.firstConflict(new long[]{150, 600}, new long[]{160, 700}));
+    }
+
+    @Test
+    void touchingIntervalsDoNotConflict() {
+        RoomTimeline timeline = timeline(new long[]{100, 200}, new long[]{400, 500});
+
+        assertEquals(-1, timeline.firstConflict(new long[]{50, 200, 500}, new long[]{100, 400, 600}));
+    }
+
+    @Test
+    void bookingsStartingBeforeTheFirstIntervalAreSeen() {
+        RoomTimeline timeline = timeline(new long[]{0, 150});
+
+        assertEquals(0, timeline.firstConflict(new long[]{100, 300}, new long[]{120, 400}));
+    }
+
+    @Test
+    void oneLongBookingConflictsWithTheFirstIntervalItCovers() {
+        RoomTimeline timeline = timeline(new long[]{100, 1000});
+
+        assertEquals(2, timeline.firstConflict(new long[]{0, 60, 500, 1100}, new long[]{50, 90, 600, 1200}));
+    }
+
+    @Test
+    void firstConflictMatchesACheckOfEveryInterval() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int round = 0; round < 500; round++) {
+            List<long[]> bookings = new ArrayList<>();
+            for (long start = random.nextLong(100); start < 10_000; start += random.nextLong(20, 400)) {
+                long end = start + random.nextLong(10, 200);
+                bookings.add(new long[]{start, end});
+                start = end;
+            }
+            RoomTimeline timeline = timeline(bookings.toArray(long[][]::new));
+
+            int count = random.nextInt(1, 40);
+            long[] starts = new long[count];
+            long[] ends = new long[count];
+            long at = random.nextLong(200);
+            for (int i = 0; i < count; i++) {
+                starts[i] = at;
+                ends[i] = at + random.nextLong(5, 60);
+                at = ends[i] + random.nextLong(0, 300);
+            }
+
+            int expected = -1;
+            for (int i = 0; i < count && expected < 0; i++) {
+                if (!timeline.isFree(starts[i], ends[i])) expected = i;
+            }
+            assertEquals(expected, timeline.firstConflict(starts, ends));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com._6.ems.helper;
+
+import com._6.ems.record.AttendancePolicy;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryCalculatorTest {
+
+    private static final double DELTA = 1e-6;
+
+    // the defaults of application.yml: 8h days, 1.5x overtime, 30 free late minutes a day
+    private static final AttendancePolicy POLICY = new AttendancePolicy(
+            LocalTime.of(9, 0), 60, 8.0, 4.0, 9.0, 1.5, 30, 5000, 50000);
+
+    private static final TaxSchedule TAX = TaxSchedule.parse("2020-07-01;11000000;5000000:0.05;10000000:0.10;"
+            + "18000000:0.15;32000000:0.20;52000000:0.25;80000000:0.30;*:0.35");
+
+    // 22 working days of 1,000,000 a day, 125,000 an hour; insurance is 10.5% of 22,000,000
+    private static SalaryCalculator.Input input(int fullDayWork, int halfDayWork, int absenceDays,
+                                                double overtimeHours, double missingHours, int lateMinutes) {
+        return new SalaryCalculator.Input(22_000_000, 0, 0, 0, 0, 22, fullDayWork, halfDayWork, absenceDays,
+                overtimeHours, missingHours, lateMinutes, POLICY, TAX);
+    }
+
+    @Test
+    void overtimeIsPaidAtTheHourlyRateTimesTheOvertimeRate() {
+        SalaryCalculator.Result result = SalaryCalculator.calculate(input(22, 0, 0, 4, 0, 0));
+
+        assertEquals(4 * 125_000 * 1.5, result.overtimePay(), DELTA);
+        assertEquals(22_000_000 + 750_000, result.grossSalary(), DELTA);
+    }
+
+    @Test
+    void overtimeFollowsThePolicyRate() {
+        SalaryCalculator.Input doubled = new SalaryCalculator.Input(22_000_000, 0, 0, 0, 0, 22, 22, 0, 0,
+                4, 0, 0, POLICY.withOvertimeRate(2.0), TAX);
+
+        assertEquals(1_000_000, SalaryCalculator.calculate(doubled).overtimePay(), DELTA);
+    }
+
+    @Test
+    void halfDaysAndAbsencesAreDeductedFromTheWorkedDays() {
+        SalaryCalculator.Result result = SalaryCalculator.calculate(input(18, 2, 2, 0, 0, 0));
+
+        // 18 full days + 2 half days - 2 absent days
+        assertEquals(17_000_000, result.grossSalary(), DELTA);
+    }
+
+    @Test
+    void insuranceIsTakenFromTheBasicSalary() {
+        SalaryCalculator.Result result = SalaryCalculator.calculate(input(10, 0, 0, 0, 0, 0));
+
+        assertEquals(1_760_000, result.socialInsurance(), DELTA);
+        assertEquals(330_000, result.healthInsurance(), DELTA);
+        assertEquals(220_000, result.unemploymentInsurance(), DELTA);
+    }
+
+    @Test
+    void lateMinutesWithinTheToleranceAreFree() {
+        assertEquals(0.0, SalaryCalculator.latePenalty(660, 22, POLICY), DELTA);
+        assertEquals(5000, SalaryCalculator.latePenalty(661, 22, POLICY), DELTA);
+    }
+
+    @Test
+    void penaltiesAddLateMinutesBeyondTheToleranceAndMissingHours() {
+        SalaryCalculator.Result result = SalaryCalculator.calculate(input(22, 0, 0, 0, 2, 700));
+
+        // 40 minutes beyond 22 * 30 at 5,000, plus 2 missing hours at 50,000
+        assertEquals(300_000, result.penalty(), DELTA);
+        assertEquals(22_000_000 - 300_000, result.grossSalary(), DELTA);
+    }
+
+    @Test
+    void deductionsAreInsurancePlusTaxAndNetIsWhatRemains() {
+        SalaryCalculator.Result result = SalaryCalculator.calculate(input(22, 0, 0, 0, 0, 0));
+
+        // taxable: 22,000,000 - 2,310,000 insurance - 11,000,000 deduction = 8,690,000
+        double tax = 5_000_000 * 0.05 + 3_690_000 * 0.10;
+        assertEquals(tax, result.personalIncomeTax(), DELTA);
+        assertEquals(2_310_000 + tax, result.totalDeductions(), DELTA);
+        assertEquals(22_000_000 - 2_310_000 - tax, result.netSalary(), DELTA);
+    }
+
+    @Test
+    void noTaxIsOwedBelowThePersonalDeduction() {
+        SalaryCalculator.Result result = SalaryCalculator.calculate(input(10, 0, 0, 0, 0, 0));
+
+        assertEquals(0.0, result.personalIncomeTax());
+        assertEquals(2_310_000, result.totalDeductions(), DELTA);
+    }
+
+    @Test
+    void taxIsNotRoundedToWholeAmounts() {
+        // one dong above the first bracket is taxed at 10%, not rounded away
+        assertEquals(250_000.1, TAX.taxOn(5_000_001), DELTA);
+        assertEquals(0.05, TAX.taxOn(1), DELTA);
+        assertEquals(0.0, TAX.taxOn(-1));
+    }
+}
@@ -0,0 +1,87 @@
+package com._6.ems.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxScheduleTest {
+
+    private static final double DELTA = 1e-6;
+
+    // the schedule configured in application.yml
+    private static final TaxSchedule SCHEDULE = TaxSchedule.parse("2020-07-01;11000000;5000000:0.05;"
+            + "10000000:0.10;18000000:0.15;32000000:0.20;52000000:0.25;80000000:0.30;*:0.35");
+
+    private static final double[] BOUNDS = {5_000_000, 10_000_000, 18_000_000, 32_000_000, 52_000_000, 80_000_000};
+
+    // The hardcoded brackets TaxSchedule replaced, kept verbatim as the reference
+    private static double legacyPersonalIncomeTax(double taxableIncome) {
+        if (taxableIncome <= 0) return 0.0;
+
+        if (taxableIncome <= 5_000_000) {
+            return taxableIncome * 0.05;
+        } else if (taxableIncome <= 10_000_000) {
+            return 5_000_000 * 0.05 + (taxableIncome - 5_000_000) * 0.10;
+        } else if (taxableIncome <= 18_000_000) {
+            return 5_000_000 * 0.05 + 5_000_000 * 0.10 + (taxableIncome - 10_000_000) * 0.15;
+        } else if (taxableIncome <= 32_000_000) {
+            return 5_000_000 * 0.05 + 5_000_000 * 0.10 + 8_000_000 * 0.15 + (taxableIncome - 18_000_000) * 0.20;
+        } else if (taxableIncome <= 52_000_000) {
+            return 5_000_000 * 0.05 + 5_000_000 * 0.10 + 8_000_000 * 0.15 + 14_000_000
+                    * 0.20 + (taxableIncome - 32_000_000) * 0.25;
+        } else if (taxableIncome <= 80_000_000) {
+            return 5_000_000 * 0.05 + 5_000_000 * 0.10 + 8_000_000 * 0.15 + 14_000_000
+                    * 0.20 + 20_000_000 * 0.25 + (taxableIncome - 52_000_000) * 0.30;
+        } else {
+            return 5_000_000 * 0.05 + 5_000_000 * 0.10 + 8_000_000 * 0.15 + 14_000_000
+                    * 0.20 + 20_000_000 * 0.25 + 28_000_000 * 0.30 + (taxableIncome - 80_000_000) * 0.35;
+        }
+    }
+
+    @Test
+    void matchesTheLegacyBracketsAtEveryBoundary() {
+        List<Double> incomes = new ArrayList<>(List.of(-1.0, 0.0, 0.01, 1.0, 1e9));
+        for (double bound : BOUNDS) {
+            for (double offset : new double[]{-1, -0.01, 0, 0.01, 1}) incomes.add(bound + offset);
+        }
+
+        for (double income : incomes) {
+            assertEquals(legacyPersonalIncomeTax(income), SCHEDULE.taxOn(income), DELTA, "taxable income " + income);
+        }
+    }
+
+    @Test
+    void matchesTheLegacyBracketsOnRandomIncomes() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 10_000; i++) {
+            double income = Math.floor(random.nextDouble(-1_000_000, 120_000_000));
+            assertEquals(legacyPersonalIncomeTax(income), SCHEDULE.taxOn(income), DELTA, "taxable income " + income);
+        }
+    }
+
+    @Test
+    void upperBoundsBelongToTheLowerBracket() {
+        // 5,000,000 is still taxed at 5%, the next dong at 10%
+        assertEquals(250_000, SCHEDULE.taxOn(5_000_000), DELTA);
+        assertEquals(250_000.10, SCHEDULE.taxOn(5_000_001), DELTA);
+    }
+
+    @Test
+    void parsesTheEffectiveDateAndPersonalDeduction() {
+        assertEquals(LocalDate.of(2020, 7, 1), SCHEDULE.getEffectiveFrom());
+        assertEquals(11_000_000, SCHEDULE.getPersonalDeduction(), DELTA);
+    }
+
+    @Test
+    void rejectsMalformedSchedules() {
+        assertThrows(IllegalArgumentException.class, () -> TaxSchedule.parse("2020-07-01;11000000"));
+        assertThrows(IllegalArgumentException.class, () -> TaxSchedule.parse("2020-07-01;11000000;5000000:0.05"));
+        assertThrows(IllegalArgumentException.class,
+                () -> TaxSchedule.parse("2020-07-01;11000000;10000000:0.05;5000000:0.10;*:0.2"));
+    }
+}
@@ -0,0 +1,95 @@
+package com._6.ems.service;
+
+import com._6.ems.enums.AttendanceStatus;
+import com._6.ems.exception.AppException;
+import com._6.ems.exception.ErrorCode;
+import com._6.ems.record.PendingCheckIn;
+import com._6.ems.repository.AttendanceBatchRepository;
+import com._6.ems.repository.AttendanceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CheckInLedgerTest {
+
+    private static final int CHECK_INS = 2_000;
+
+    private final LocalDate today = LocalDate.now(ZoneId.of("Asia/Ho_Chi_Minh"));
+
+    @TempDir
+    Path journalDir;
+
+    private CheckInLedger ledger() throws Exception {
+        AttendanceRepository attendanceRepository = mock(AttendanceRepository.class);
+        when(attendanceRepository.findCheckedInCodesByDate(any())).thenReturn(Set.of());
+
+        CheckInLedger ledger = new CheckInLedger(attendanceRepository, mock(AttendanceBatchRepository.class),
+                mock(AttendanceAggregateService.class), mock(SalaryService.class),
+                mock(PlatformTransactionManager.class), mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(ledger, "enabled", true);
+        ReflectionTestUtils.setField(ledger, "batchSize", 500);
+        ReflectionTestUtils.setField(ledger, "journalDir", journalDir.toString());
+        ledger.recover();
+        return ledger;
+    }
+
+    private PendingCheckIn checkIn(String code) {
+        return new PendingCheckIn(code, today, OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh")),
+                AttendanceStatus.PRESENT, false, 0);
+    }
+
+    @Test
+    void concurrentCheckInsAreAllJournaledAndReplayed() throws Exception {
+        CheckInLedger ledger = ledger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService workers = Executors.newFixedThreadPool(64)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < CHECK_INS; i++) {
+                String code = "P" + i;
+                results.add(workers.submit(() -> {
+                    start.await();
+                    ledger.record(checkIn(code));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) result.get(30, TimeUnit.SECONDS);
+        }
+
+        // what a restart after a crash finds in the journal
+        CheckInLedger restarted = ledger();
+        for (int i = 0; i < CHECK_INS; i++) {
+            assertTrue(restarted.hasPending("P" + i, today), "check-in of P" + i + " was not journaled");
+        }
+    }
+
+    @Test
+    void secondCheckInOfTheSameWorkDateIsRejected() throws Exception {
+        CheckInLedger ledger = ledger();
+        ledger.record(checkIn("P1"));
+
+        AppException duplicate = assertThrows(AppException.class, () -> ledger.record(checkIn("P1")));
+        assertEquals(ErrorCode.ATTENDANCE_ALREADY_CHECKIN, duplicate.getErrorCode());
+        // a different work date is a different check-in
+        ledger.record(new PendingCheckIn("P1", today.minusDays(1), OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh")),
+                AttendanceStatus.PRESENT, false, 0));
+        assertTrue(ledger.hasPending("P1", today.minusDays(1)));
+    }
+}
@@ -0,0 +1,271 @@
+package com._6.ems.service;
+
+import com._6.ems.entity.MeetingRoom;
+import com._6.ems.event.MeetingBookingChangedEvent;
+import com._6.ems.exception.AppException;
+import com._6.ems.exception.ErrorCode;
+import com._6.ems.repository.MeetingBookingRepository;
+import com._6.ems.repository.MeetingRoomRepository;
+import com._6.ems.repository.MeetingSeriesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoomAvailabilityIndexStressTest {
+
+    private static final int ROOMS = 4;
+    private static final int REQUESTS = 800;
+    private static final int ROUNDS = 10;
+
+    private final OffsetDateTime day = OffsetDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh"))
+            .plusDays(1)
+            .truncatedTo(ChronoUnit.DAYS)
+            .plusHours(8);
+
+    private RoomAvailabilityIndex index;
+
+    private record Booked(long roomId, OffsetDateTime start, OffsetDateTime end) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        MeetingRoomRepository meetingRoomRepository = mock(MeetingRoomRepository.class);
+        MeetingBookingRepository meetingBookingRepository = mock(MeetingBookingRepository.class);
+        MeetingSeriesRepository meetingSeriesRepository = mock(MeetingSeriesRepository.class);
+        when(meetingRoomRepository.findAll()).thenReturn(LongStream.rangeClosed(1, ROOMS)
+                .mapToObj(id -> MeetingRoom.builder().id(id).name("Room " + id).capacity(10).build())
+                .toList());
+        when(meetingBookingRepository.findIntervalsEndingAfter(any())).thenReturn(List.of());
+        when(meetingSeriesRepository.findWithDetailsEndingAfter(any())).thenReturn(List.of());
+
+        index = new RoomAvailabilityIndex(meetingRoomRepository, meetingBookingRepository, meetingSeriesRepository);
+        index.load();
+    }
+
+    @Test
+    void parallelBookersNeverDoubleBookARoom() throws Exception {
+        AtomicLong bookingIds = new AtomicLong();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            setUp();
+            Queue<Booked> committed = new ConcurrentLinkedQueue<>();
+            AtomicInteger conflicts = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+
+            try (ExecutorService bookers = Executors.newFixedThreadPool(200)) {
+                List<Future<?>> results = new ArrayList<>();
+                for (int i = 0; i < REQUESTS; i++) {
+                    long roomId = 1 + i % ROOMS;
+                    // a handful of half-overlapping hours per room, so most requests race for the same slot
+                    OffsetDateTime from = day.plusMinutes(30L * ThreadLocalRandom.current().nextInt(4));
+                    OffsetDateTime to = from.plusHours(1);
+                    boolean rollback = ThreadLocalRandom.current().nextInt(5) == 0;
+
+                    results.add(bookers.submit(() -> {
+                        start.await();
+                        RoomAvailabilityIndex.Hold hold;
+                        try {
+                            hold = index.tryReserve(roomId, from, to, null);
+                        } catch (AppException e) {
+                            assertEquals(ErrorCode.MEETING_ROOM_CONFLICT, e.getErrorCode());
+                            conflicts.incrementAndGet();
+                            return null;
+                        }
+                        // what the booking transaction does on commit, then on completion
+                        if (!rollback) {
+                            index.onBookingChanged(new MeetingBookingChangedEvent(
+                                    bookingIds.incrementAndGet(), roomId, from, to, Set.of()));
+                            committed.add(new Booked(roomId, from, to));
+                        }
+                        hold.release();
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> result : results) result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertFalse(committed.isEmpty());
+            assertTrue(conflicts.get() > 0);
+
+            Map<Long, List<Booked>> byRoom = new HashMap<>();
+            committed.forEach(booked -> byRoom.computeIfAbsent(booked.roomId(), id -> new ArrayList<>()).add(booked));
+            for (Map.Entry<Long, List<Booked>> room : byRoom.entrySet()) {
+                List<Booked> bookings = room.getValue();
+                bookings.sort(Comparator.comparing(Booked::start));
+                for (int i = 1; i < bookings.size(); i++) {
+                    assertFalse(bookings.get(i).start().isBefore(bookings.get(i - 1).end()),
+                            "room " + room.getKey() + " double booked: " + bookings.get(i - 1) + " and " + bookings.get(i));
+                }
+                // every hold was released: the timeline holds exactly the committed bookings
+                assertEquals(bookings.size(), index.timeline(room.getKey()).orElseThrow().size());
+            }
+        }
+    }
+
+    @Test
+    void movesWithinTheRoomRaceNewBookingsAndRollBackCleanly() throws Exception {
+        AtomicLong bookingIds = new AtomicLong(100);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            setUp();
+            // one booking per room, moved back and forth by its organizer while others book around it
+            Map<Long, Booked> moved = new ConcurrentHashMap<>();
+            for (long roomId = 1; roomId <= ROOMS; roomId++) {
+                Booked booked = new Booked(roomId, day.plusHours(2), day.plusHours(3));
+                index.onBookingChanged(new MeetingBookingChangedEvent(roomId, roomId, booked.start(), booked.end(), Set.of()));
+                moved.put(roomId, booked);
+            }
+            Queue<Booked> committed = new ConcurrentLinkedQueue<>();
+            AtomicInteger moves = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+
+            try (ExecutorService bookers = Executors.newFixedThreadPool(200)) {
+                List<Future<?>> results = new ArrayList<>();
+                for (long roomId = 1; roomId <= ROOMS; roomId++) {
+                    long room = roomId;
+                    results.add(bookers.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < 200; i++) {
+                            Booked current = moved.get(room);
+                            // shrink, grow or shift by a quarter hour, staying on the same day
+                            OffsetDateTime from = current.start().plusMinutes(15L * ThreadLocalRandom.current().nextInt(-1, 2));
+                            OffsetDateTime to = from.plusMinutes(15L * ThreadLocalRandom.current().nextInt(2, 6));
+                            if (from.isBefore(day) || to.isAfter(day.plusHours(6))) continue;
+                            boolean commit = ThreadLocalRandom.current().nextBoolean();
+                            if (inTransaction(commit, () -> index.tryReserve(room, from, to, room),
+                                    () -> index.onBookingChanged(new MeetingBookingChangedEvent(room, room, from, to, Set.of())))) {
+                                if (commit) moved.put(room, new Booked(room, from, to));
+                                moves.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (int i = 0; i < REQUESTS; i++) {
+                    long roomId = 1 + i % ROOMS;
+                    // quarter hours, so some start right where a shrunk move ends
+                    OffsetDateTime from = day.plusMinutes(15L * ThreadLocalRandom.current().nextInt(20));
+                    OffsetDateTime to = from.plusHours(1);
+                    boolean commit = ThreadLocalRandom.current().nextInt(5) > 0;
+                    long bookingId = bookingIds.incrementAndGet();
+
+                    results.add(bookers.submit(() -> {
+                        start.await();
+                        if (inTransaction(commit, () -> index.tryReserve(roomId, from, to, null),
+                                () -> index.onBookingChanged(new MeetingBookingChangedEvent(bookingId, roomId, from, to, Set.of())))
+                                && commit) {
+                            committed.add(new Booked(roomId, from, to));
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> result : results) result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertTrue(moves.get() > 0);
+
+            Map<Long, List<Booked>> byRoom = new HashMap<>();
+            committed.forEach(booked -> byRoom.computeIfAbsent(booked.roomId(), id -> new ArrayList<>()).add(booked));
+            moved.values().forEach(booked -> byRoom.computeIfAbsent(booked.roomId(), id -> new ArrayList<>()).add(booked));
+            for (Map.Entry<Long, List<Booked>> room : byRoom.entrySet()) {
+                List<Booked> bookings = room.getValue();
+                bookings.sort(Comparator.comparing(Booked::start));
+                for (int i = 1; i < bookings.size(); i++) {
+                    assertFalse(bookings.get(i).start().isBefore(bookings.get(i - 1).end()),
+                            "room " + room.getKey() + " double booked: " + bookings.get(i - 1) + " and " + bookings.get(i));
+                }
+                // rolled back moves put the booking back: the timeline holds exactly the committed bookings
+                assertEquals(bookings.size(), index.timeline(room.getKey()).orElseThrow().size());
+                Booked last = moved.get(room.getKey());
+                assertFalse(index.isFree(last.roomId(), last.start(), last.end()));
+            }
+        }
+    }
+
+    @Test
+    void holdBlocksUntilReleasedAndMovedBookingIgnoresItself() {
+        OffsetDateTime from = day;
+        OffsetDateTime to = day.plusHours(1);
+
+        RoomAvailabilityIndex.Hold hold = index.tryReserve(1L, from, to, null);
+        AppException conflict = assertThrows(AppException.class,
+                () -> index.tryReserve(1L, from.plusMinutes(30), to.plusMinutes(30), null));
+        assertEquals(ErrorCode.MEETING_ROOM_CONFLICT, conflict.getErrorCode());
+
+        // rolled back: the slot is free again
+        hold.release();
+        index.tryReserve(1L, from.plusMinutes(30), to.plusMinutes(30), null).release();
+
+        index.onBookingChanged(new MeetingBookingChangedEvent(7L, 1L, from, to, Set.of()));
+        assertThrows(AppException.class, () -> index.tryReserve(1L, from, to, null));
+        index.tryReserve(1L, from.plusMinutes(15), to.plusMinutes(15), 7L).release();
+
+        index.onBookingChanged(MeetingBookingChangedEvent.deleted(7L));
+        assertTrue(index.isFree(1L, from, to));
+    }
+
+    @Test
+    void shrunkMoveKeepsTheOldRangeUntilCommitted() {
+        index.onBookingChanged(new MeetingBookingChangedEvent(7L, 1L, day, day.plusHours(1), Set.of()));
+        OffsetDateTime tail = day.plusMinutes(45);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.tryReserve(1L, day.plusMinutes(15), tail, 7L);
+            // the last quarter is still the booking's until the move commits
+            assertThrows(AppException.class, () -> index.tryReserve(1L, tail, tail.plusHours(1), null));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(index.isFree(1L, day, day.plusMinutes(15)));
+        assertThrows(AppException.class, () -> index.tryReserve(1L, tail, tail.plusHours(1), null));
+        assertEquals(1, index.timeline(1L).orElseThrow().size());
+    }
+
+    @Test
+    void emptyAndInvertedRangesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> index.tryReserve(1L, day.plusHours(1), day, null));
+        assertThrows(IllegalArgumentException.class, () -> index.tryReserve(1L, day, day, null));
+        assertEquals(0, index.timeline(1L).orElseThrow().size());
+    }
+
+    // Runs a booking transaction the way Spring completes it: the change event on commit, then the
+    // synchronizations' afterCompletion. Returns false on a conflict.
+    private boolean inTransaction(boolean commit, Runnable reserve, Runnable onCommit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            try {
+                reserve.run();
+            } catch (AppException e) {
+                assertEquals(ErrorCode.MEETING_ROOM_CONFLICT, e.getErrorCode());
+                return false;
+            }
+            if (commit) onCommit.run();
+            int status = commit ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+            return true;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}